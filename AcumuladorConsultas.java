@@ -0,0 +1,81 @@
+package com.veterinaria.analisis;
+
+import com.veterinaria.servicio.VistaConsistente;
+import com.veterinaria.servicio.VistaConsistente.FichaConsulta;
+import com.veterinaria.servicio.VistaConsistente.FichaMascota;
+import com.veterinaria.servicio.VistaConsistente.FichaVeterinario;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Conteos parciales de un tramo de consultas. Cada tarea del análisis llena
+ * el suyo sin compartirlo y al final se combinan de a pares.
+ * Los contadores son long[1] para sumar sin reemplazar la entrada del mapa.
+ */
+final class AcumuladorConsultas {
+    // Por identidad: dentro de una vista cada veterinario tiene una sola ficha
+    final Map<FichaVeterinario, long[]> porVeterinario = new IdentityHashMap<>();
+    final Map<String, long[]> porEspecialidad = new HashMap<>();
+    final Map<String, long[]> porEspecie = new HashMap<>();
+    final Map<String, long[]> porRaza = new HashMap<>();
+    final Map<YearMonth, long[]> porMes = new HashMap<>();
+    long total;
+
+    // Las consultas suelen venir ordenadas por fecha: se recuerda el último mes
+    private int ultimoAnio;
+    private int ultimoMes;
+    private long[] contadorMes;
+
+    void agregar(FichaConsulta consulta, VistaConsistente vista) {
+        FichaVeterinario veterinario = vista.getVeterinario(consulta);
+        FichaMascota mascota = vista.getMascota(consulta);
+        contar(porVeterinario, veterinario);
+        contar(porEspecialidad, veterinario.getEspecialidad());
+        contar(porEspecie, mascota.getTipoMascota());
+        contar(porRaza, mascota.getRaza());
+
+        LocalDateTime fecha = consulta.getFechaConsulta();
+        if (contadorMes == null || fecha.getYear() != ultimoAnio || fecha.getMonthValue() != ultimoMes) {
+            ultimoAnio = fecha.getYear();
+            ultimoMes = fecha.getMonthValue();
+            contadorMes = porMes.computeIfAbsent(YearMonth.of(ultimoAnio, ultimoMes), m -> new long[1]);
+        }
+        contadorMes[0]++;
+        total++;
+    }
+
+    /**
+     * Suma los conteos de otro acumulador a este y devuelve este
+     */
+    AcumuladorConsultas combinar(AcumuladorConsultas otro) {
+        sumar(porVeterinario, otro.porVeterinario);
+        sumar(porEspecialidad, otro.porEspecialidad);
+        sumar(porEspecie, otro.porEspecie);
+        sumar(porRaza, otro.porRaza);
+        sumar(porMes, otro.porMes);
+        total += otro.total;
+        return this;
+    }
+
+    private static <K> void contar(Map<K, long[]> conteos, K clave) {
+        long[] contador = conteos.get(clave);
+        if (contador == null) {
+            contador = new long[1];
+            conteos.put(clave, contador);
+        }
+        contador[0]++;
+    }
+
+    private static <K> void sumar(Map<K, long[]> destino, Map<K, long[]> origen) {
+        for (Map.Entry<K, long[]> entrada : origen.entrySet()) {
+            long[] contador = destino.putIfAbsent(entrada.getKey(), entrada.getValue());
+            if (contador != null) {
+                contador[0] += entrada.getValue()[0];
+            }
+        }
+    }
+}
\ No newline at end of file
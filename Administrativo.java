@@ -1,7 +1,16 @@
 package com.veterinaria.modelo;
 
+import com.veterinaria.util.Diccionario;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Clase Administrativo que hereda de Persona.
@@ -10,6 +19,9 @@ import java.util.List;
 public class Administrativo extends Persona {
     private String area;
     private List<Tarea> tareas;
+    private List<Tarea> vistaTareas;
+    // Tareas particionadas por estado; Tarea.setEstado las mueve de cubeta
+    private final Map<EstadoTarea, Set<Tarea>> tareasPorEstado = new EnumMap<>(EstadoTarea.class);
 
     /**
      * Constructor de Administrativo
@@ -18,6 +30,10 @@ public class Administrativo extends Persona {
         super(nombre, apellido, dni, telefono, email);
         this.area = validarArea(area);
         this.tareas = new ArrayList<>();
+        this.vistaTareas = Collections.unmodifiableList(tareas);
+        for (EstadoTarea estado : EstadoTarea.values()) {
+            tareasPorEstado.put(estado, new LinkedHashSet<>());
+        }
     }
 
     /**
@@ -27,7 +43,7 @@ public class Administrativo extends Persona {
         if (area == null || area.trim().isEmpty()) {
             throw new IllegalArgumentException("El área no puede estar vacía");
         }
-        return area.trim();
+        return Diccionario.AREAS.canonico(area.trim());
     }
 
     /**
@@ -53,15 +69,35 @@ public class Administrativo extends Persona {
             }
         }
         
-        tareas.add(tarea);
-        tarea.setAsignadoA(this); // Establecer la relación
+        modificar(() -> {
+            tareas.add(tarea);
+            tareasPorEstado.get(tarea.getEstadoTarea()).add(tarea);
+            tarea.setAsignadoA(this); // Establecer la relación
+            tarea.setObservador(getObservador());
+            if (getObservador() != null) {
+                getObservador().tareaAgregada(this, tarea);
+            }
+        });
     }
 
     /**
      * Elimina una tarea por descripción
      */
     public boolean eliminarTarea(String descripcion) {
-        return tareas.removeIf(tarea -> tarea.getDescripcion().equalsIgnoreCase(descripcion));
+        Tarea tarea = buscarTarea(descripcion);
+        if (tarea == null) {
+            return false;
+        }
+        
+        modificar(() -> {
+            tareas.remove(tarea);
+            tareasPorEstado.get(tarea.getEstadoTarea()).remove(tarea);
+            tarea.setObservador(null);
+            if (getObservador() != null) {
+                getObservador().tareaEliminada(this, tarea);
+            }
+        });
+        return true;
     }
 
     /**
@@ -82,7 +118,7 @@ public class Administrativo extends Persona {
     public boolean completarTarea(String descripcion) {
         Tarea tarea = buscarTarea(descripcion);
         if (tarea != null) {
-            tarea.setEstado("Completada");
+            tarea.setEstado(EstadoTarea.COMPLETADA);
             return true;
         }
         return false;
@@ -104,31 +140,63 @@ public class Administrativo extends Persona {
         }
     }
 
+    /**
+     * Mueve una tarea a la cubeta de su nuevo estado
+     */
+    void moverTarea(Tarea tarea, EstadoTarea estadoAnterior) {
+        if (tareasPorEstado.get(estadoAnterior).remove(tarea)) {
+            tareasPorEstado.get(tarea.getEstadoTarea()).add(tarea);
+        }
+    }
+
     /**
      * Obtiene las tareas por estado
      */
     public List<Tarea> getTareasPorEstado(String estado) {
-        List<Tarea> tareasFiltradas = new ArrayList<>();
-        for (Tarea tarea : tareas) {
-            if (tarea.getEstado().equalsIgnoreCase(estado)) {
-                tareasFiltradas.add(tarea);
-            }
-        }
-        return tareasFiltradas;
+        EstadoTarea estadoTarea = EstadoTarea.buscar(estado);
+        return estadoTarea != null ? getTareasPorEstado(estadoTarea) : new ArrayList<>();
+    }
+
+    /**
+     * Obtiene las tareas en un estado, en orden de asignación
+     */
+    public List<Tarea> getTareasPorEstado(EstadoTarea estado) {
+        return new ArrayList<>(tareasPorEstado.get(estado));
+    }
+
+    /**
+     * Vista de solo lectura de las tareas en un estado
+     */
+    public Set<Tarea> getTareasEn(EstadoTarea estado) {
+        return Collections.unmodifiableSet(tareasPorEstado.get(estado));
+    }
+
+    /**
+     * Obtiene la cantidad de tareas en un estado
+     */
+    public int contarTareas(EstadoTarea estado) {
+        return tareasPorEstado.get(estado).size();
     }
 
     /**
      * Obtiene la cantidad de tareas pendientes
      */
     public int getTareasPendientes() {
-        return getTareasPorEstado("Pendiente").size();
+        return contarTareas(EstadoTarea.PENDIENTE);
+    }
+
+    /**
+     * Obtiene la cantidad de tareas en proceso
+     */
+    public int getTareasEnProceso() {
+        return contarTareas(EstadoTarea.EN_PROCESO);
     }
 
     /**
      * Obtiene la cantidad de tareas completadas
      */
     public int getTareasCompletadas() {
-        return getTareasPorEstado("Completada").size();
+        return contarTareas(EstadoTarea.COMPLETADA);
     }
 
     /**
@@ -144,11 +212,29 @@ public class Administrativo extends Persona {
     }
 
     public void setArea(String area) {
-        this.area = validarArea(area);
+        String valor = validarArea(area);
+        modificar(() -> {
+            this.area = valor;
+            notificarModificacion();
+        });
     }
 
+    /**
+     * Propaga el observador a las tareas ya asignadas
+     */
+    @Override
+    public void setObservador(ObservadorModelo observador) {
+        super.setObservador(observador);
+        for (Tarea tarea : tareas) {
+            tarea.setObservador(observador);
+        }
+    }
+
+    /**
+     * Vista de solo lectura de las tareas; no copia y refleja las altas y bajas posteriores
+     */
     public List<Tarea> getTareas() {
-        return new ArrayList<>(tareas); // Retorna una copia para evitar modificaciones externas
+        return vistaTareas;
     }
 
     /**
@@ -159,17 +245,17 @@ public class Administrativo extends Persona {
     }
 
     /**
-     * Representación en string del administrativo incluyendo su información
+     * Representación en texto del administrativo incluyendo su información
      */
     @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(super.toString());
-        sb.append(String.format("\nÁrea: %s", area));
-        sb.append(String.format("\nTareas asignadas: %d", tareas.size()));
-        sb.append(String.format("\nTareas pendientes: %d", getTareasPendientes()));
-        sb.append(String.format("\nTareas completadas: %d", getTareasCompletadas()));
-        
-        return sb.toString();
+    public void escribirEn(Appendable destino) throws IOException {
+        super.escribirEn(destino);
+        destino.append("\nÁrea: ").append(area)
+               .append("\nTareas asignadas: ");
+        Renderizado.entero(destino, tareas.size());
+        destino.append("\nTareas pendientes: ");
+        Renderizado.entero(destino, getTareasPendientes());
+        destino.append("\nTareas completadas: ");
+        Renderizado.entero(destino, getTareasCompletadas());
     }
 }
\ No newline at end of file
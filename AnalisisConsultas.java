@@ -0,0 +1,93 @@
+package com.veterinaria.analisis;
+
+import com.veterinaria.servicio.VistaConsistente;
+import com.veterinaria.servicio.VistaConsistente.FichaConsulta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Análisis de las consultas de una vista consistente por veterinario,
+ * especialidad, especie, raza y mes.
+ * Con muchas consultas divide la lista en tramos y los cuenta en paralelo
+ * sobre un ForkJoinPool: cada tramo llena su propio acumulador y los
+ * resultados se combinan al volver, sin contadores compartidos entre hilos.
+ * Con pocas consultas las recorre en el hilo actual, donde repartir costaría
+ * más que contar.
+ */
+public final class AnalisisConsultas {
+    /**
+     * Por debajo de esta cantidad de consultas el análisis es secuencial
+     */
+    public static final int UMBRAL_PARALELO = 20_000;
+    // Tamaño máximo del tramo que cuenta una sola tarea
+    private static final int TAMANO_TRAMO = 8_192;
+
+    private AnalisisConsultas() {
+    }
+
+    /**
+     * Analiza las consultas de la vista en el pool común. La vista debe seguir
+     * abierta hasta que vuelva.
+     */
+    public static InformeConsultas analizar(VistaConsistente vista) {
+        return analizar(vista, ForkJoinPool.commonPool());
+    }
+
+    public static InformeConsultas analizar(VistaConsistente vista, ForkJoinPool pool) {
+        if (vista == null || pool == null) {
+            throw new IllegalArgumentException("La vista y el pool son obligatorios");
+        }
+        // Los tramos se recorren por índice
+        List<FichaConsulta> consultas = new ArrayList<>();
+        for (FichaConsulta consulta : vista.getConsultas()) {
+            consultas.add(consulta);
+        }
+        if (consultas.size() < UMBRAL_PARALELO || pool.getParallelism() == 1) {
+            AcumuladorConsultas acumulador = new AcumuladorConsultas();
+            for (FichaConsulta consulta : consultas) {
+                acumulador.agregar(consulta, vista);
+            }
+            return new InformeConsultas(acumulador, false);
+        }
+        return new InformeConsultas(pool.invoke(new Tramo(vista, consultas, 0, consultas.size())), true);
+    }
+
+    /**
+     * Cuenta las consultas [desde, hasta) de la lista, partiéndolas al medio
+     * mientras superen el tamaño de tramo
+     */
+    private static final class Tramo extends RecursiveTask<AcumuladorConsultas> {
+        private static final long serialVersionUID = 1L;
+
+        private final VistaConsistente vista;
+        private final List<FichaConsulta> consultas;
+        private final int desde;
+        private final int hasta;
+
+        Tramo(VistaConsistente vista, List<FichaConsulta> consultas, int desde, int hasta) {
+            this.vista = vista;
+            this.consultas = consultas;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected AcumuladorConsultas compute() {
+            if (hasta - desde <= TAMANO_TRAMO) {
+                AcumuladorConsultas acumulador = new AcumuladorConsultas();
+                for (int i = desde; i < hasta; i++) {
+                    acumulador.agregar(consultas.get(i), vista);
+                }
+                return acumulador;
+            }
+            int medio = (desde + hasta) >>> 1;
+            Tramo izquierda = new Tramo(vista, consultas, desde, medio);
+            izquierda.fork();
+            AcumuladorConsultas derecha = new Tramo(vista, consultas, medio, hasta).compute();
+            return izquierda.join().combinar(derecha);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,315 @@
+package com.veterinaria.historico;
+
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.Gato;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.Perro;
+import com.veterinaria.modelo.Persona;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.util.Renderizable;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Archivo histórico compacto de consultas y mascotas.
+ * Cada registro ocupa una posición en arreglos de primitivos: los textos se
+ * guardan codificados como enteros, las fechas como milisegundos y los datos
+ * de la mascota (edad, tipo, tamaño, interior) empaquetados en un solo int.
+ * Las personas se reducen a su nombre completo, DNI y especialidad.
+ * Se lee a través de VistaConsulta y VistaMascota, que exponen los mismos
+ * getters que Consulta y Mascota sin reconstruir los objetos.
+ * No es seguro para hilos: se arma una vez, se cierra y luego se consulta.
+ */
+public class ArchivoHistorico implements Renderizable {
+    // Empaquetado de los datos de una mascota
+    static final int BITS_EDAD = 5;         // 0 a 30 años
+    static final int MASCARA_EDAD = (1 << BITS_EDAD) - 1;
+    static final int BIT_GATO = 1 << 5;
+    static final int DESPLAZAMIENTO_TAMANO = 6;  // 2 bits: Pequeño, Mediano, Grande
+    static final int BIT_INTERIOR = 1 << 8;
+    static final String[] TAMANOS = {"Pequeño", "Mediano", "Grande"};
+
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    final TablaTextos textos = new TablaTextos();
+    private boolean cerrado;
+
+    // Personas
+    private final Map<Persona, Integer> posicionPersona = new IdentityHashMap<>();
+    int cantidadPersonas;
+    int[] personaNombre = new int[CAPACIDAD_INICIAL];
+    int[] personaDni = new int[CAPACIDAD_INICIAL];
+    int[] personaEspecialidad = new int[CAPACIDAD_INICIAL]; // -1 si no es veterinario
+
+    // Mascotas
+    private final Map<Mascota, Integer> posicionMascota = new IdentityHashMap<>();
+    int cantidadMascotas;
+    int[] mascotaNombre = new int[CAPACIDAD_INICIAL];
+    int[] mascotaRaza = new int[CAPACIDAD_INICIAL];
+    int[] mascotaPropietario = new int[CAPACIDAD_INICIAL];
+    int[] mascotaDatos = new int[CAPACIDAD_INICIAL];
+
+    // Consultas
+    int cantidadConsultas;
+    int[] consultaId = new int[CAPACIDAD_INICIAL];
+    int[] consultaCliente = new int[CAPACIDAD_INICIAL];
+    int[] consultaMascota = new int[CAPACIDAD_INICIAL];
+    int[] consultaVeterinario = new int[CAPACIDAD_INICIAL];
+    long[] consultaFecha = new long[CAPACIDAD_INICIAL];
+    int[] consultaTratamiento = new int[CAPACIDAD_INICIAL];
+    int[] consultaDiagnostico = new int[CAPACIDAD_INICIAL];
+
+    /**
+     * Archiva todas las consultas recibidas
+     */
+    public static ArchivoHistorico de(Iterable<Consulta> consultas) {
+        ArchivoHistorico archivo = new ArchivoHistorico();
+        for (Consulta consulta : consultas) {
+            archivo.agregar(consulta);
+        }
+        archivo.cerrar();
+        return archivo;
+    }
+
+    /**
+     * Copia una consulta al archivo y devuelve su posición
+     */
+    public int agregar(Consulta consulta) {
+        if (consulta == null) {
+            throw new IllegalArgumentException("La consulta no puede ser nula");
+        }
+        if (cerrado) {
+            throw new IllegalStateException("El archivo histórico ya está cerrado");
+        }
+        int cliente = persona(consulta.getCliente());
+        int mascota = mascota(consulta.getMascota());
+        int veterinario = persona(consulta.getVeterinario());
+
+        int posicion = cantidadConsultas;
+        if (posicion == consultaId.length) {
+            int capacidad = Math.max(CAPACIDAD_INICIAL, posicion * 2);
+            consultaId = Arrays.copyOf(consultaId, capacidad);
+            consultaCliente = Arrays.copyOf(consultaCliente, capacidad);
+            consultaMascota = Arrays.copyOf(consultaMascota, capacidad);
+            consultaVeterinario = Arrays.copyOf(consultaVeterinario, capacidad);
+            consultaFecha = Arrays.copyOf(consultaFecha, capacidad);
+            consultaTratamiento = Arrays.copyOf(consultaTratamiento, capacidad);
+            consultaDiagnostico = Arrays.copyOf(consultaDiagnostico, capacidad);
+        }
+        consultaId[posicion] = consulta.getId();
+        consultaCliente[posicion] = cliente;
+        consultaMascota[posicion] = mascota;
+        consultaVeterinario[posicion] = veterinario;
+        consultaFecha[posicion] = aMilis(consulta.getFechaConsulta());
+        consultaTratamiento[posicion] = textos.codigo(consulta.getTratamiento());
+        consultaDiagnostico[posicion] = textos.codigo(consulta.getDiagnostico());
+        cantidadConsultas++;
+        return posicion;
+    }
+
+    /**
+     * Ajusta los arreglos a su contenido y suelta las referencias a los objetos
+     * originales; a partir de aquí el archivo es de solo lectura
+     */
+    public void cerrar() {
+        if (cerrado) {
+            return;
+        }
+        cerrado = true;
+        posicionPersona.clear();
+        posicionMascota.clear();
+        personaNombre = Arrays.copyOf(personaNombre, cantidadPersonas);
+        personaDni = Arrays.copyOf(personaDni, cantidadPersonas);
+        personaEspecialidad = Arrays.copyOf(personaEspecialidad, cantidadPersonas);
+        mascotaNombre = Arrays.copyOf(mascotaNombre, cantidadMascotas);
+        mascotaRaza = Arrays.copyOf(mascotaRaza, cantidadMascotas);
+        mascotaPropietario = Arrays.copyOf(mascotaPropietario, cantidadMascotas);
+        mascotaDatos = Arrays.copyOf(mascotaDatos, cantidadMascotas);
+        consultaId = Arrays.copyOf(consultaId, cantidadConsultas);
+        consultaCliente = Arrays.copyOf(consultaCliente, cantidadConsultas);
+        consultaMascota = Arrays.copyOf(consultaMascota, cantidadConsultas);
+        consultaVeterinario = Arrays.copyOf(consultaVeterinario, cantidadConsultas);
+        consultaFecha = Arrays.copyOf(consultaFecha, cantidadConsultas);
+        consultaTratamiento = Arrays.copyOf(consultaTratamiento, cantidadConsultas);
+        consultaDiagnostico = Arrays.copyOf(consultaDiagnostico, cantidadConsultas);
+    }
+
+    private int persona(Persona persona) {
+        Integer existente = posicionPersona.get(persona);
+        if (existente != null) {
+            return existente;
+        }
+        int posicion = cantidadPersonas;
+        if (posicion == personaNombre.length) {
+            int capacidad = Math.max(CAPACIDAD_INICIAL, posicion * 2);
+            personaNombre = Arrays.copyOf(personaNombre, capacidad);
+            personaDni = Arrays.copyOf(personaDni, capacidad);
+            personaEspecialidad = Arrays.copyOf(personaEspecialidad, capacidad);
+        }
+        personaNombre[posicion] = textos.codigo(persona.getNombreCompleto());
+        personaDni[posicion] = textos.codigo(persona.getDni());
+        personaEspecialidad[posicion] = persona instanceof Veterinario
+                ? textos.codigo(((Veterinario) persona).getEspecialidad()) : -1;
+        cantidadPersonas++;
+        posicionPersona.put(persona, posicion);
+        return posicion;
+    }
+
+    private int mascota(Mascota mascota) {
+        Integer existente = posicionMascota.get(mascota);
+        if (existente != null) {
+            return existente;
+        }
+        int posicion = cantidadMascotas;
+        if (posicion == mascotaNombre.length) {
+            int capacidad = Math.max(CAPACIDAD_INICIAL, posicion * 2);
+            mascotaNombre = Arrays.copyOf(mascotaNombre, capacidad);
+            mascotaRaza = Arrays.copyOf(mascotaRaza, capacidad);
+            mascotaPropietario = Arrays.copyOf(mascotaPropietario, capacidad);
+            mascotaDatos = Arrays.copyOf(mascotaDatos, capacidad);
+        }
+        mascotaNombre[posicion] = textos.codigo(mascota.getNombre());
+        mascotaRaza[posicion] = textos.codigo(mascota.getRaza());
+        mascotaPropietario[posicion] = mascota.getPropietario() != null ? persona(mascota.getPropietario()) : -1;
+        mascotaDatos[posicion] = empaquetar(mascota);
+        cantidadMascotas++;
+        posicionMascota.put(mascota, posicion);
+        return posicion;
+    }
+
+    private static int empaquetar(Mascota mascota) {
+        int datos = mascota.getEdad() & MASCARA_EDAD;
+        if (mascota instanceof Gato) {
+            datos |= BIT_GATO;
+            if (((Gato) mascota).isEsDeInterior()) {
+                datos |= BIT_INTERIOR;
+            }
+        } else if (mascota instanceof Perro) {
+            datos |= Arrays.asList(TAMANOS).indexOf(((Perro) mascota).getTamano()) << DESPLAZAMIENTO_TAMANO;
+        }
+        return datos;
+    }
+
+    // Las fechas se guardan como hora local, sin zona, con precisión de milisegundos
+    static long aMilis(LocalDateTime fecha) {
+        return fecha.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime deMilis(long milis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(milis, 1000L),
+                (int) Math.floorMod(milis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Vista de la consulta en la posición indicada
+     */
+    public VistaConsulta getConsulta(int posicion) {
+        VistaConsulta vista = new VistaConsulta(this);
+        vista.mover(posicion);
+        return vista;
+    }
+
+    /**
+     * Vista de la mascota en la posición indicada
+     */
+    public VistaMascota getMascota(int posicion) {
+        VistaMascota vista = new VistaMascota(this);
+        vista.mover(posicion);
+        return vista;
+    }
+
+    /**
+     * Recorre las consultas en orden de archivo reutilizando una única vista;
+     * la vista no debe conservarse fuera de la acción
+     */
+    public void recorrerConsultas(Consumer<VistaConsulta> accion) {
+        VistaConsulta vista = new VistaConsulta(this);
+        for (int i = 0; i < cantidadConsultas; i++) {
+            vista.mover(i);
+            accion.accept(vista);
+        }
+    }
+
+    /**
+     * Recorre las mascotas en orden de archivo reutilizando una única vista
+     */
+    public void recorrerMascotas(Consumer<VistaMascota> accion) {
+        VistaMascota vista = new VistaMascota(this);
+        for (int i = 0; i < cantidadMascotas; i++) {
+            vista.mover(i);
+            accion.accept(vista);
+        }
+    }
+
+    // Getters
+    public int getCantidadConsultas() {
+        return cantidadConsultas;
+    }
+
+    public int getCantidadMascotas() {
+        return cantidadMascotas;
+    }
+
+    public int getCantidadPersonas() {
+        return cantidadPersonas;
+    }
+
+    public int getCantidadTextos() {
+        return textos.getCantidad();
+    }
+
+    /**
+     * Memoria estimada de los arreglos y textos del archivo, sin contar los
+     * índices por identidad que solo existen hasta cerrarlo
+     */
+    public long getBytesEstimados() {
+        long arreglos = 16L * 14
+                + 4L * (personaNombre.length + personaDni.length + personaEspecialidad.length)
+                + 4L * (mascotaNombre.length + mascotaRaza.length + mascotaPropietario.length + mascotaDatos.length)
+                + 4L * (consultaId.length + consultaCliente.length + consultaMascota.length
+                        + consultaVeterinario.length + consultaTratamiento.length + consultaDiagnostico.length)
+                + 8L * consultaFecha.length;
+        return arreglos + textos.getBytesEstimados();
+    }
+
+    /**
+     * Resumen del archivo: cantidades y memoria estimada
+     */
+    @Override
+    public void escribirEn(Appendable destino) throws IOException {
+        destino.append("Consultas archivadas: ");
+        Renderizado.entero(destino, cantidadConsultas);
+        destino.append("\nMascotas: ");
+        Renderizado.entero(destino, cantidadMascotas);
+        destino.append("\nPersonas: ");
+        Renderizado.entero(destino, cantidadPersonas);
+        destino.append("\nTextos distintos: ");
+        Renderizado.entero(destino, getCantidadTextos());
+        destino.append("\nBytes estimados: ");
+        Renderizado.entero(destino, getBytesEstimados());
+    }
+
+    @Override
+    public String toString() {
+        return Renderizado.aTexto(this);
+    }
+
+    void validarConsulta(int posicion) {
+        if (posicion < 0 || posicion >= cantidadConsultas) {
+            throw new IndexOutOfBoundsException("Consulta fuera del archivo: " + posicion);
+        }
+    }
+
+    void validarMascota(int posicion) {
+        if (posicion < 0 || posicion >= cantidadMascotas) {
+            throw new IndexOutOfBoundsException("Mascota fuera del archivo: " + posicion);
+        }
+    }
+}
\ No newline at end of file
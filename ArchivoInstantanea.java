@@ -0,0 +1,273 @@
+package com.veterinaria.persistencia;
+
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.Persona;
+import com.veterinaria.modelo.Tarea;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.servicio.VeterinariaService;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Instantánea completa del estado de la veterinaria en un único archivo versionado.
+ * Formato: [magia][versión][lsn del diario] seguido de registros [longitud][datos]
+ * con el mismo código que el diario, y un crc32 final. Se escribe de forma atómica
+ * y se lee mapeando el archivo en memoria, sin copias intermedias. Al cargar, los
+ * registros se decodifican a objetos del modelo sueltos y el servicio los incorpora
+ * de una vez (cargarInstantanea), sin pasar por los cerrojos, los observadores ni
+ * una versión por registro como al reproducir el diario.
+ * Las mascotas y las consultas usan registros propios: cada mascota lleva un
+ * número dentro de la instantánea y las consultas la nombran por él, así que
+ * una consulta se restaura aunque su mascota ya no figure en el cliente.
+ */
+public final class ArchivoInstantanea {
+    private static final int MAGIA = 0x56455453; // "VETS"
+    private static final int VERSION = 2;
+    // Tipos de registro propios de la instantánea, fuera del rango de los del diario
+    static final byte MASCOTA = 64;
+    static final byte CONSULTA = 65;
+    private static final int CABECERA = Integer.BYTES * 2 + Long.BYTES;
+    private static final int TAMANO_BUFER = 1 << 20;
+
+    private ArchivoInstantanea() {
+    }
+
+    /**
+     * Guarda el estado del servicio. Debe invocarse sin escrituras concurrentes,
+     * ya que lsn indica hasta qué registro del diario queda cubierto.
+     */
+    public static void escribir(Path archivo, VeterinariaService servicio, long lsn) throws IOException {
+        Files.createDirectories(archivo.toAbsolutePath().getParent());
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+
+        try (DataOutputStream salida = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporal), TAMANO_BUFER), crc))) {
+            salida.writeInt(MAGIA);
+            salida.writeInt(VERSION);
+            salida.writeLong(lsn);
+
+            // Primero las personas con sus mascotas y tareas, luego las consultas que las referencian
+            Map<Mascota, Integer> numeros = new IdentityHashMap<>();
+            for (Cliente cliente : servicio.getClientes()) {
+                escribirRegistro(salida, DiarioVeterinaria.escribirPersona(
+                        new Binario.Salida().octeto(DiarioVeterinaria.PERSONA_ALTA), cliente));
+                for (Mascota mascota : cliente.getMascotas()) {
+                    escribirMascota(salida, numeros, cliente, mascota, false);
+                }
+            }
+            for (Veterinario veterinario : servicio.getVeterinarios()) {
+                escribirRegistro(salida, DiarioVeterinaria.escribirPersona(
+                        new Binario.Salida().octeto(DiarioVeterinaria.PERSONA_ALTA), veterinario));
+            }
+            for (Administrativo administrativo : servicio.getAdministrativos()) {
+                escribirRegistro(salida, DiarioVeterinaria.escribirPersona(
+                        new Binario.Salida().octeto(DiarioVeterinaria.PERSONA_ALTA), administrativo));
+                for (Tarea tarea : administrativo.getTareas()) {
+                    escribirRegistro(salida, DiarioVeterinaria.escribirTarea(new Binario.Salida()
+                            .octeto(DiarioVeterinaria.TAREA_ALTA).texto(administrativo.getDni()), tarea));
+                }
+            }
+            for (Consulta consulta : servicio.getConsultas()) {
+                // Las mascotas dadas de baja se guardan la primera vez que una consulta las nombra
+                Integer numero = numeros.get(consulta.getMascota());
+                if (numero == null) {
+                    numero = escribirMascota(salida, numeros, consulta.getCliente(), consulta.getMascota(), true);
+                }
+                escribirRegistro(salida, new Binario.Salida().octeto(CONSULTA).entero(consulta.getId())
+                        .texto(consulta.getCliente().getDni()).entero(numero)
+                        .texto(consulta.getVeterinario().getDni()).texto(consulta.getTratamiento())
+                        .texto(consulta.getDiagnostico()).fecha(consulta.getFechaConsulta()));
+            }
+
+            salida.flush();
+            salida.writeInt((int) crc.getValue());
+        }
+
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+            canal.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Guarda la mascota con el próximo número libre y lo devuelve
+     */
+    private static int escribirMascota(DataOutputStream salida, Map<Mascota, Integer> numeros, Cliente cliente,
+                                       Mascota mascota, boolean dadaDeBaja) throws IOException {
+        int numero = numeros.size() + 1;
+        numeros.put(mascota, numero);
+        escribirRegistro(salida, DiarioVeterinaria.escribirMascota(new Binario.Salida().octeto(MASCOTA)
+                .entero(numero).texto(cliente.getDni()).booleano(dadaDeBaja), mascota));
+        return numero;
+    }
+
+    private static void escribirRegistro(DataOutputStream salida, Binario.Salida registro) throws IOException {
+        Binario.Salida longitud = new Binario.Salida().entero(registro.size());
+        longitud.writeTo(salida);
+        registro.writeTo(salida);
+    }
+
+    /**
+     * Carga una instantánea sobre un servicio vacío.
+     * Devuelve el LSN del diario que cubre, o 0 si el archivo no existe.
+     * Un registro que no puede leerse se informa y se omite, igual que al
+     * reproducir el diario; el archivo completo solo se rechaza si está dañado.
+     */
+    public static long cargar(Path archivo, VeterinariaService servicio) throws IOException {
+        if (!Files.exists(archivo)) {
+            return 0;
+        }
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano > Integer.MAX_VALUE) {
+                throw new IOException("La instantánea supera el tamaño máximo mapeable: " + archivo);
+            }
+            if (tamano < CABECERA + Integer.BYTES) {
+                throw new IOException("Instantánea incompleta: " + archivo);
+            }
+
+            ByteBuffer contenido = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+            int fin = (int) tamano - Integer.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(contenido.duplicate().limit(fin));
+            if ((int) crc.getValue() != contenido.getInt(fin)) {
+                throw new IOException("Instantánea corrupta (crc inválido): " + archivo);
+            }
+            if (contenido.getInt() != MAGIA) {
+                throw new IOException("El archivo no es una instantánea: " + archivo);
+            }
+            int version = contenido.getInt();
+            if (version != VERSION) {
+                throw new IOException("Versión de instantánea no soportada: " + version);
+            }
+            long lsn = contenido.getLong();
+
+            Estado estado = new Estado();
+            int numeroRegistro = 0;
+            while (contenido.position() < fin) {
+                int longitud = Binario.leerEntero(contenido);
+                ByteBuffer registro = contenido.slice();
+                registro.limit(longitud);
+                contenido.position(contenido.position() + longitud);
+                numeroRegistro++;
+                try {
+                    estado.leer(registro);
+                } catch (RuntimeException e) {
+                    System.err.println("Registro " + numeroRegistro + " de la instantánea omitido: " + e.getMessage());
+                }
+            }
+            servicio.cargarInstantanea(estado.clientes.values(), estado.veterinarios.values(),
+                    estado.administrativos.values(), estado.consultas);
+            return lsn;
+        }
+    }
+
+    /**
+     * Objetos del modelo leídos de la instantánea, todavía sin registrar en el servicio
+     */
+    private static final class Estado {
+        final Map<String, Cliente> clientes = new LinkedHashMap<>();
+        final Map<String, Veterinario> veterinarios = new LinkedHashMap<>();
+        final Map<String, Administrativo> administrativos = new LinkedHashMap<>();
+        final Map<Integer, Mascota> mascotas = new HashMap<>();
+        final Map<Integer, Consulta> porId = new HashMap<>();
+        final List<Consulta> consultas = new ArrayList<>();
+
+        void leer(ByteBuffer registro) {
+            byte tipo = registro.get();
+            switch (tipo) {
+                case DiarioVeterinaria.PERSONA_ALTA:
+                    registrar(DiarioVeterinaria.leerPersona(registro));
+                    break;
+                case MASCOTA: {
+                    int numero = Binario.leerEntero(registro);
+                    Cliente cliente = buscar(clientes, Binario.leerTexto(registro), "Cliente");
+                    boolean dadaDeBaja = Binario.leerBooleano(registro);
+                    Mascota mascota = DiarioVeterinaria.leerMascota(registro);
+                    if (dadaDeBaja) {
+                        // Solo la conservan sus consultas
+                        mascota.setPropietario(cliente);
+                    } else {
+                        cliente.agregarMascota(mascota);
+                    }
+                    mascotas.put(numero, mascota);
+                    break;
+                }
+                case DiarioVeterinaria.TAREA_ALTA: {
+                    Administrativo administrativo = buscar(administrativos, Binario.leerTexto(registro),
+                            "Administrativo");
+                    administrativo.agregarTarea(DiarioVeterinaria.leerTarea(registro));
+                    break;
+                }
+                case CONSULTA: {
+                    int id = Binario.leerEntero(registro);
+                    if (porId.containsKey(id)) {
+                        throw new IllegalStateException("Consulta repetida: " + id);
+                    }
+                    Cliente cliente = buscar(clientes, Binario.leerTexto(registro), "Cliente");
+                    int numero = Binario.leerEntero(registro);
+                    Mascota mascota = mascotas.get(numero);
+                    if (mascota == null) {
+                        throw new IllegalStateException("Mascota inexistente en la instantánea: " + numero);
+                    }
+                    Veterinario veterinario = buscar(veterinarios, Binario.leerTexto(registro), "Veterinario");
+                    String tratamiento = Binario.leerTexto(registro);
+                    String diagnostico = Binario.leerTexto(registro);
+                    Consulta consulta = Consulta.restaurar(id, cliente, mascota, veterinario,
+                            tratamiento, diagnostico, Binario.leerFecha(registro));
+                    veterinario.agregarConsulta(consulta);
+                    porId.put(id, consulta);
+                    consultas.add(consulta);
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Tipo de registro desconocido: " + tipo);
+            }
+        }
+
+        private void registrar(Persona persona) {
+            if (persona instanceof Veterinario) {
+                agregar(veterinarios, (Veterinario) persona);
+            } else if (persona instanceof Administrativo) {
+                agregar(administrativos, (Administrativo) persona);
+            } else {
+                agregar(clientes, (Cliente) persona);
+            }
+        }
+
+        private static <T extends Persona> void agregar(Map<String, T> personas, T persona) {
+            if (personas.putIfAbsent(persona.getDni(), persona) != null) {
+                throw new IllegalStateException("DNI repetido: " + persona.getDni());
+            }
+        }
+
+        private static <T> T buscar(Map<String, T> personas, String dni, String tipo) {
+            T persona = personas.get(dni);
+            if (persona == null) {
+                throw new IllegalStateException(tipo + " inexistente: " + dni);
+            }
+            return persona;
+        }
+    }
+}
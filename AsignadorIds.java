@@ -0,0 +1,154 @@
+package com.veterinaria.persistencia;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asignador de IDs únicos, sin bloqueos y persistente entre reinicios.
+ * Cada hilo toma bloques de IDs de una marca de agua compartida (atómica), con
+ * un solo getAndAdd por bloque, y los entrega sin sincronización. Los IDs son
+ * únicos pero no consecutivos entre hilos: cada uno avanza dentro de su bloque,
+ * y lo que queda del bloque de un hilo que termina no se usa. La marca se guarda
+ * en disco por adelantado, de modo que tras un reinicio nunca se repite un ID
+ * ya entregado.
+ */
+public class AsignadorIds {
+    private static final int TAMANO_BLOQUE = 64;
+    private static final int BLOQUES_POR_RESERVA = 16;
+    private static final ConcurrentHashMap<String, AsignadorIds> INSTANCIAS = new ConcurrentHashMap<>();
+
+    private final Path archivo;
+    private final AtomicInteger marcaAlta;   // Siguiente ID no reservado por ningún hilo
+    private volatile int marcaPersistida;    // Todo ID menor a este valor está cubierto en disco
+    // Los bloques con IDs menores a este valor quedaron viejos tras asegurarMayorQue
+    private volatile int minimoValido;
+    private final LongAdder emitidos = new LongAdder();
+    private final ThreadLocal<Bloque> bloqueLocal = ThreadLocal.withInitial(Bloque::new);
+
+    /**
+     * Obtiene el asignador de una secuencia con nombre (por ejemplo "consultas")
+     */
+    public static AsignadorIds para(String secuencia) {
+        return INSTANCIAS.computeIfAbsent(secuencia,
+                s -> new AsignadorIds(DirectorioDatos.obtener().resolve(s + ".ids")));
+    }
+
+    /**
+     * Crea un asignador respaldado por el archivo indicado
+     */
+    public AsignadorIds(Path archivo) {
+        this.archivo = archivo;
+        int inicial = Math.max(1, leerMarca(archivo));
+        this.marcaAlta = new AtomicInteger(inicial);
+        this.marcaPersistida = inicial;
+        this.minimoValido = inicial;
+    }
+
+    private static int leerMarca(Path archivo) {
+        try {
+            if (!Files.exists(archivo)) {
+                return 1;
+            }
+            byte[] contenido = Files.readAllBytes(archivo);
+            return contenido.length < Integer.BYTES ? 1 : ByteBuffer.wrap(contenido).getInt();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la secuencia de IDs: " + archivo, e);
+        }
+    }
+
+    /**
+     * Entrega el siguiente ID. Solo accede a memoria compartida al agotar el bloque del hilo.
+     * Lanza IllegalStateException si la secuencia llegó al máximo de int.
+     */
+    public int siguiente() {
+        Bloque bloque = bloqueLocal.get();
+        if (bloque.siguiente >= bloque.limite || bloque.siguiente < minimoValido) {
+            reservarBloque(bloque);
+        }
+        emitidos.increment();
+        return bloque.siguiente++;
+    }
+
+    private void reservarBloque(Bloque bloque) {
+        int inicio = marcaAlta.getAndAdd(TAMANO_BLOQUE);
+        // Un inicio negativo es la marca que ya dio la vuelta
+        if (inicio < 0 || inicio > Integer.MAX_VALUE - TAMANO_BLOQUE) {
+            marcaAlta.set(Integer.MIN_VALUE);
+            throw new IllegalStateException("Se agotaron los IDs de la secuencia: " + archivo);
+        }
+        int limite = inicio + TAMANO_BLOQUE;
+        if (limite > marcaPersistida) {
+            persistirHasta(limite);
+        }
+        bloque.siguiente = inicio;
+        bloque.limite = limite;
+    }
+
+    /**
+     * Garantiza que los IDs menores a limite estén cubiertos en disco.
+     * Reserva varios bloques por adelantado para escribir el archivo con poca frecuencia.
+     */
+    private synchronized void persistirHasta(int limite) {
+        if (limite <= marcaPersistida) {
+            return;
+        }
+        int nuevaMarca = (int) Math.min((long) limite + TAMANO_BLOQUE * BLOQUES_POR_RESERVA, Integer.MAX_VALUE);
+        try {
+            DirectorioDatos.reemplazarAtomicamente(archivo,
+                    ByteBuffer.allocate(Integer.BYTES).putInt(nuevaMarca).array());
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar la secuencia de IDs: " + archivo, e);
+        }
+        marcaPersistida = nuevaMarca;
+    }
+
+    /**
+     * Asegura que los próximos IDs sean mayores a uno ya existente,
+     * por ejemplo al restaurar registros guardados. Los hilos que tenían un
+     * bloque por debajo lo descartan en su próximo pedido.
+     */
+    public void asegurarMayorQue(int id) {
+        if (id < minimoValido) {
+            return;
+        }
+        if (id >= Integer.MAX_VALUE - TAMANO_BLOQUE) {
+            throw new IllegalStateException("Se agotaron los IDs de la secuencia: " + archivo);
+        }
+        int actual;
+        do {
+            actual = marcaAlta.get();
+            if (actual > id) {
+                break;
+            }
+        } while (!marcaAlta.compareAndSet(actual, id + 1));
+        subirMinimo(id + 1);
+        persistirHasta(id + 1);
+    }
+
+    private synchronized void subirMinimo(int minimo) {
+        if (minimo > minimoValido) {
+            minimoValido = minimo;
+        }
+    }
+
+    /**
+     * Cantidad de IDs entregados desde que se inició el proceso
+     */
+    public int getEmitidos() {
+        return emitidos.intValue();
+    }
+
+    /**
+     * Rango de IDs reservado por un hilo
+     */
+    private static final class Bloque {
+        int siguiente;
+        int limite;
+    }
+}
@@ -0,0 +1,113 @@
+package com.veterinaria.persistencia;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Codificación binaria compacta compartida por el diario y las instantáneas.
+ * Los enteros sin signo usan longitud variable (7 bits por byte) y los textos
+ * se guardan como longitud + bytes UTF-8.
+ */
+final class Binario {
+    private Binario() {
+    }
+
+    /**
+     * Búfer de escritura que expone los métodos de codificación
+     */
+    static final class Salida extends ByteArrayOutputStream {
+        Salida() {
+            super(128);
+        }
+
+        Salida octeto(int valor) {
+            write(valor);
+            return this;
+        }
+
+        Salida entero(int valor) {
+            return largo(valor & 0xFFFFFFFFL);
+        }
+
+        Salida largo(long valor) {
+            while ((valor & ~0x7FL) != 0) {
+                write((int) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            write((int) valor);
+            return this;
+        }
+
+        Salida texto(String valor) {
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            entero(bytes.length);
+            write(bytes, 0, bytes.length);
+            return this;
+        }
+
+        Salida booleano(boolean valor) {
+            write(valor ? 1 : 0);
+            return this;
+        }
+
+        /**
+         * Fecha opcional: 0 si es nula; si no, los segundos (zigzag) + 1 y los nanos
+         */
+        Salida fecha(LocalDateTime fecha) {
+            if (fecha == null) {
+                return largo(0);
+            }
+            long segundos = fecha.toEpochSecond(ZoneOffset.UTC);
+            largo(((segundos << 1) ^ (segundos >> 63)) + 1);
+            return entero(fecha.getNano());
+        }
+    }
+
+    static int leerEntero(ByteBuffer entrada) {
+        return (int) leerLargo(entrada);
+    }
+
+    static long leerLargo(ByteBuffer entrada) {
+        long valor = 0;
+        int desplazamiento = 0;
+        byte b;
+        do {
+            b = entrada.get();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            desplazamiento += 7;
+        } while ((b & 0x80) != 0);
+        return valor;
+    }
+
+    static String leerTexto(ByteBuffer entrada) {
+        int longitud = leerEntero(entrada);
+        String valor;
+        if (entrada.hasArray()) {
+            valor = new String(entrada.array(), entrada.arrayOffset() + entrada.position(),
+                    longitud, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[longitud];
+            entrada.duplicate().get(bytes);
+            valor = new String(bytes, StandardCharsets.UTF_8);
+        }
+        entrada.position(entrada.position() + longitud);
+        return valor;
+    }
+
+    static boolean leerBooleano(ByteBuffer entrada) {
+        return entrada.get() != 0;
+    }
+
+    static LocalDateTime leerFecha(ByteBuffer entrada) {
+        long codificado = leerLargo(entrada);
+        if (codificado == 0) {
+            return null;
+        }
+        long zigzag = codificado - 1;
+        long segundos = (zigzag >>> 1) ^ -(zigzag & 1);
+        return LocalDateTime.ofEpochSecond(segundos, leerEntero(entrada), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,307 @@
+package com.veterinaria.eventos;
+
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.EstadoTarea;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.ObservadorModelo;
+import com.veterinaria.modelo.Tarea;
+import com.veterinaria.modelo.Veterinario;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bus de eventos de dominio sobre un anillo de casilleros preasignados.
+ * Se suscribe al servicio como un observador más: cada alta de consulta, alta
+ * o baja de mascota y cambio de estado de tarea reserva la siguiente secuencia,
+ * rellena el casillero y lo publica, sin crear objetos. Cada procesador corre
+ * en su propio hilo, lee los eventos en lotes y avanza su propia secuencia;
+ * un casillero se reutiliza recién cuando todos los procesadores lo pasaron.
+ * Si el anillo se llena, quien publica espera al procesador más lento, de modo
+ * que la memoria queda acotada por la capacidad.
+ */
+public final class BusEventos implements ObservadorModelo, AutoCloseable {
+    public static final int CAPACIDAD_PREDETERMINADA = 4096;
+    private static final int ESPERAS_ACTIVAS = 200;
+
+    private final Evento[] anillo;
+    private final int mascara;
+    // Última secuencia reservada por los que publican
+    private final AtomicLong reservada = new AtomicLong(-1);
+    // Mínimo de lo procesado por todos, guardado para no recorrer los consumidores en cada publicación
+    private volatile long minimoProcesado = -1;
+    private final List<Consumidor> consumidores = new ArrayList<>();
+    private final LongAdder esperasPorLleno = new LongAdder();
+    private volatile boolean iniciado;
+    private volatile boolean cerrado;
+    // Los hilos de los procesadores ya terminaron
+    private volatile boolean detenido;
+
+    /**
+     * Crea el bus con la capacidad indicada, redondeada a potencia de dos
+     */
+    public BusEventos(int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva");
+        }
+        int tamano = Integer.highestOneBit(capacidad);
+        if (tamano < capacidad) {
+            tamano <<= 1;
+        }
+        this.anillo = new Evento[tamano];
+        for (int i = 0; i < tamano; i++) {
+            anillo[i] = new Evento();
+        }
+        this.mascara = tamano - 1;
+    }
+
+    /**
+     * Agrega un procesador. Debe llamarse antes de iniciar.
+     */
+    public synchronized void suscribir(String nombre, ProcesadorEventos procesador) {
+        if (nombre == null || procesador == null) {
+            throw new IllegalArgumentException("El nombre y el procesador son obligatorios");
+        }
+        if (iniciado) {
+            throw new IllegalStateException("El bus ya está iniciado");
+        }
+        consumidores.add(new Consumidor(nombre, procesador));
+    }
+
+    /**
+     * Arranca un hilo por procesador; desde aquí se aceptan publicaciones
+     */
+    public synchronized void iniciar() {
+        if (iniciado) {
+            return;
+        }
+        iniciado = true;
+        for (Consumidor consumidor : consumidores) {
+            consumidor.hilo.start();
+        }
+    }
+
+    /**
+     * Deja de aceptar eventos, espera a que los procesadores terminen lo publicado
+     * y detiene sus hilos
+     */
+    @Override
+    public synchronized void close() {
+        if (cerrado) {
+            return;
+        }
+        cerrado = true;
+        for (Consumidor consumidor : consumidores) {
+            LockSupport.unpark(consumidor.hilo);
+        }
+        for (Consumidor consumidor : consumidores) {
+            try {
+                consumidor.hilo.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        detenido = true;
+    }
+
+    // --- Publicación desde el servicio ---
+
+    @Override
+    public void consultaAgregada(Veterinario veterinario, Consulta consulta) {
+        long secuencia = reservar();
+        if (secuencia >= 0) {
+            Evento evento = anillo[(int) secuencia & mascara];
+            evento.consultaCreada(consulta);
+            evento.secuencia = secuencia;
+        }
+    }
+
+    @Override
+    public void mascotaAgregada(Cliente cliente, Mascota mascota) {
+        publicarMascota(TipoEvento.MASCOTA_AGREGADA, cliente, mascota);
+    }
+
+    @Override
+    public void mascotaEliminada(Cliente cliente, Mascota mascota) {
+        publicarMascota(TipoEvento.MASCOTA_ELIMINADA, cliente, mascota);
+    }
+
+    private void publicarMascota(TipoEvento tipo, Cliente cliente, Mascota mascota) {
+        long secuencia = reservar();
+        if (secuencia >= 0) {
+            Evento evento = anillo[(int) secuencia & mascara];
+            evento.mascota(tipo, cliente, mascota);
+            evento.secuencia = secuencia;
+        }
+    }
+
+    @Override
+    public void tareaEstadoCambiado(Tarea tarea, EstadoTarea estadoAnterior) {
+        long secuencia = reservar();
+        if (secuencia >= 0) {
+            Evento evento = anillo[(int) secuencia & mascara];
+            evento.tareaCambioDeEstado(tarea, estadoAnterior);
+            evento.secuencia = secuencia;
+        }
+    }
+
+    @Override
+    public void tareaUrgente(Tarea tarea) {
+        long secuencia = reservar();
+        if (secuencia >= 0) {
+            Evento evento = anillo[(int) secuencia & mascara];
+            evento.tareaUrgente(tarea);
+            evento.secuencia = secuencia;
+        }
+    }
+
+    /**
+     * Reserva la siguiente secuencia, esperando si el casillero todavía no lo
+     * liberaron todos los procesadores. Devuelve -1 si el bus no está en marcha
+     * o se cerró mientras esperaba; ese evento se descarta.
+     */
+    private long reservar() {
+        if (!iniciado || cerrado) {
+            return -1;
+        }
+        long secuencia = reservada.incrementAndGet();
+        long vuelta = secuencia - anillo.length;
+        if (vuelta > minimoProcesado) {
+            int intentos = 0;
+            long minimo;
+            while (vuelta > (minimo = calcularMinimo())) {
+                if (detenido) {
+                    return -1;
+                }
+                if (intentos++ == 0) {
+                    esperasPorLleno.increment();
+                }
+                esperar(intentos);
+            }
+            minimoProcesado = minimo;
+        }
+        return secuencia;
+    }
+
+    private long calcularMinimo() {
+        long minimo = Long.MAX_VALUE;
+        for (Consumidor consumidor : consumidores) {
+            minimo = Math.min(minimo, consumidor.procesada.get());
+        }
+        // Sin procesadores nadie retiene casilleros
+        return minimo == Long.MAX_VALUE ? reservada.get() : minimo;
+    }
+
+    /**
+     * Espera activa al principio y luego con pausas cortas
+     */
+    private static void esperar(int intentos) {
+        if (intentos < ESPERAS_ACTIVAS) {
+            Thread.onSpinWait();
+        } else if (intentos < ESPERAS_ACTIVAS * 2) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    // --- Estadísticas ---
+
+    public int getCapacidad() {
+        return anillo.length;
+    }
+
+    /**
+     * Cantidad de eventos publicados desde el inicio
+     */
+    public long getPublicados() {
+        return reservada.get() + 1;
+    }
+
+    /**
+     * Cantidad de publicaciones que tuvieron que esperar a un procesador lento
+     */
+    public long getEsperasPorLleno() {
+        return esperasPorLleno.sum();
+    }
+
+    /**
+     * Eventos publicados que el procesador indicado todavía no terminó, o -1 si no existe
+     */
+    public long getPendientes(String nombre) {
+        for (Consumidor consumidor : consumidores) {
+            if (consumidor.nombre.equals(nombre)) {
+                return reservada.get() - consumidor.procesada.get();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Hilo y secuencia de un procesador
+     */
+    private final class Consumidor implements Runnable {
+        final String nombre;
+        final ProcesadorEventos procesador;
+        final AtomicLong procesada = new AtomicLong(-1);
+        final Thread hilo;
+        long errores;
+
+        Consumidor(String nombre, ProcesadorEventos procesador) {
+            this.nombre = nombre;
+            this.procesador = procesador;
+            this.hilo = new Thread(this, "eventos-" + nombre);
+            hilo.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long siguiente = 0;
+            int intentos = 0;
+            while (true) {
+                long fin = ultimaPublicadaDesde(siguiente);
+                if (fin < siguiente) {
+                    // Al cerrar se termina de procesar todo lo reservado antes de salir
+                    if (cerrado && siguiente > reservada.get()) {
+                        break;
+                    }
+                    esperar(++intentos);
+                    continue;
+                }
+                intentos = 0;
+                for (long s = siguiente; s <= fin; s++) {
+                    try {
+                        procesador.procesar(anillo[(int) s & mascara], s, s == fin);
+                    } catch (RuntimeException e) {
+                        errores++;
+                        System.err.println("Procesador " + nombre + ", evento " + s + ": " + e.getMessage());
+                    }
+                }
+                procesada.lazySet(fin);
+                siguiente = fin + 1;
+            }
+            procesador.alTerminar();
+            if (errores > 0) {
+                System.err.println("Procesador " + nombre + ": " + errores + " eventos con error");
+            }
+        }
+
+        /**
+         * Última secuencia publicada de forma contigua a partir de la indicada,
+         * o siguiente - 1 si aún no se publicó ninguna
+         */
+        private long ultimaPublicadaDesde(long siguiente) {
+            long limite = siguiente + anillo.length;
+            long s = siguiente;
+            while (s < limite && anillo[(int) s & mascara].secuencia == s) {
+                s++;
+            }
+            return s - 1;
+        }
+    }
+}
\ No newline at end of file
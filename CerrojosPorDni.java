@@ -0,0 +1,73 @@
+package com.veterinaria.servicio;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Cerrojos repartidos en franjas según el DNI de la persona.
+ * Las operaciones sobre personas distintas casi nunca comparten franja, de
+ * modo que no compiten entre sí; las que tocan dos personas toman las
+ * franjas siempre en el mismo orden para no bloquearse mutuamente.
+ */
+final class CerrojosPorDni {
+    private final ReentrantLock[] franjas;
+    private final int mascara;
+
+    CerrojosPorDni(int cantidadMinima) {
+        int cantidad = Integer.highestOneBit(Math.max(1, cantidadMinima - 1)) << 1;
+        franjas = new ReentrantLock[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+        mascara = cantidad - 1;
+    }
+
+    private int franja(String dni) {
+        int h = dni.hashCode();
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    /**
+     * Ejecuta la acción con el cerrojo de la franja del DNI
+     */
+    <T> T con(String dni, Supplier<T> accion) {
+        ReentrantLock cerrojo = franjas[franja(dni)];
+        cerrojo.lock();
+        try {
+            return accion.get();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    void ejecutar(String dni, Runnable accion) {
+        con(dni, () -> {
+            accion.run();
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta la acción con los cerrojos de los dos DNIs, tomados en orden de franja
+     */
+    <T> T con(String dni, String otroDni, Supplier<T> accion) {
+        int a = franja(dni);
+        int b = franja(otroDni);
+        if (a == b) {
+            return con(dni, accion);
+        }
+        ReentrantLock primero = franjas[Math.min(a, b)];
+        ReentrantLock segundo = franjas[Math.max(a, b)];
+        primero.lock();
+        try {
+            segundo.lock();
+            try {
+                return accion.get();
+            } finally {
+                segundo.unlock();
+            }
+        } finally {
+            primero.unlock();
+        }
+    }
+}
\ No newline at end of file
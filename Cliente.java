@@ -1,21 +1,33 @@
 package com.veterinaria.modelo;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 /**
  * Clase Cliente que hereda de Persona.
  * Demuestra herencia y composición (tiene una lista de mascotas).
  */
 public class Cliente extends Persona {
-    private List<Mascota> mascotas;
+    private final Map<String, Mascota> mascotas; // Indexadas por nombre en minúsculas
+    private final NavigableMap<Long, Mascota> porPosicion; // Las mismas, ordenadas por posición de alta
+    private final Collection<Mascota> vistaMascotas;
+    private long ultimaPosicion; // Última posición de alta asignada a una mascota
 
     /**
      * Constructor de Cliente
      */
     public Cliente(String nombre, String apellido, String dni, String telefono, String email) {
         super(nombre, apellido, dni, telefono, email);
-        this.mascotas = new ArrayList<>();
+        this.mascotas = new HashMap<>();
+        this.porPosicion = new TreeMap<>();
+        this.vistaMascotas = Collections.unmodifiableCollection(porPosicion.values());
     }
 
     /**
@@ -34,34 +46,78 @@ public class Cliente extends Persona {
             throw new IllegalArgumentException("La mascota no puede ser nula");
         }
         
-        // Verificar que la mascota no esté ya registrada
-        for (Mascota m : mascotas) {
-            if (m.getNombre().equalsIgnoreCase(mascota.getNombre())) {
+        modificar(() -> {
+            // Verificar que la mascota no esté ya registrada
+            if (mascotas.putIfAbsent(mascota.getClaveNombre(), mascota) != null) {
                 throw new IllegalArgumentException("Ya existe una mascota con el nombre: " + mascota.getNombre());
             }
-        }
-        
-        mascotas.add(mascota);
-        mascota.setPropietario(this); // Establecer la relación bidireccional
+            mascota.setPropietario(this); // Establecer la relación bidireccional
+            mascota.setPosicionAlta(++ultimaPosicion);
+            porPosicion.put(mascota.getPosicionAlta(), mascota);
+            mascota.setObservador(getObservador());
+            if (getObservador() != null) {
+                getObservador().mascotaAgregada(this, mascota);
+            }
+        });
     }
 
     /**
      * Elimina una mascota del cliente
      */
     public boolean eliminarMascota(String nombreMascota) {
-        return mascotas.removeIf(mascota -> mascota.getNombre().equalsIgnoreCase(nombreMascota));
+        if (nombreMascota == null) {
+            return false;
+        }
+        return modificarCon(() -> {
+            Mascota eliminada = mascotas.remove(Mascota.plegarNombre(nombreMascota));
+            if (eliminada == null) {
+                return false;
+            }
+            porPosicion.remove(eliminada.getPosicionAlta());
+            eliminada.setObservador(null);
+            if (getObservador() != null) {
+                getObservador().mascotaEliminada(this, eliminada);
+            }
+            return true;
+        });
     }
 
     /**
      * Busca una mascota por nombre
      */
     public Mascota buscarMascota(String nombre) {
-        for (Mascota mascota : mascotas) {
-            if (mascota.getNombre().equalsIgnoreCase(nombre)) {
-                return mascota;
-            }
+        if (nombre == null) {
+            return null;
+        }
+        return mascotas.get(Mascota.plegarNombre(nombre));
+    }
+
+    /**
+     * Verifica si la mascota pertenece a este cliente, sin recorrer la lista
+     */
+    public boolean tieneMascota(Mascota mascota) {
+        if (mascota == null) {
+            return false;
+        }
+        Mascota registrada = mascotas.get(mascota.getClaveNombre());
+        return registrada != null && registrada.equals(mascota);
+    }
+
+    /**
+     * Reindexa una mascota que está por cambiar de nombre. El orden no cambia
+     * porque sale de la posición de alta, no del índice por nombre.
+     * Lo invoca Mascota.setNombre antes de aplicar el cambio.
+     */
+    void renombrarMascota(Mascota mascota, String nuevoNombre) {
+        if (mascotas.get(mascota.getClaveNombre()) != mascota) {
+            return;
         }
-        return null;
+        String nuevaClave = Mascota.plegarNombre(nuevoNombre);
+        if (mascotas.containsKey(nuevaClave)) {
+            throw new IllegalArgumentException("Ya existe una mascota con el nombre: " + nuevoNombre);
+        }
+        mascotas.remove(mascota.getClaveNombre());
+        mascotas.put(nuevaClave, mascota);
     }
 
     /**
@@ -74,8 +130,9 @@ public class Cliente extends Persona {
         }
         
         System.out.println("Mascotas de " + getNombreCompleto() + ":");
-        for (int i = 0; i < mascotas.size(); i++) {
-            System.out.println((i + 1) + ". " + mascotas.get(i));
+        int i = 1;
+        for (Mascota mascota : porPosicion.values()) {
+            System.out.println(i++ + ". " + mascota);
             System.out.println("---");
         }
     }
@@ -88,10 +145,30 @@ public class Cliente extends Persona {
     }
 
     /**
-     * Getter para la lista de mascotas
+     * Propaga el observador a las mascotas ya registradas
+     */
+    @Override
+    public void setObservador(ObservadorModelo observador) {
+        super.setObservador(observador);
+        for (Mascota mascota : mascotas.values()) {
+            mascota.setObservador(observador);
+        }
+    }
+
+    /**
+     * Vista de solo lectura de las mascotas en orden de alta.
+     * No copia: refleja las altas y bajas posteriores.
+     */
+    public Collection<Mascota> getMascotas() {
+        return vistaMascotas;
+    }
+
+    /**
+     * Vista de solo lectura de las mascotas con posición de alta mayor a la
+     * indicada, en orden de alta. Permite paginar sin recorrer las anteriores.
      */
-    public List<Mascota> getMascotas() {
-        return new ArrayList<>(mascotas); // Retorna una copia para evitar modificaciones externas
+    public Collection<Mascota> getMascotasDespuesDe(long posicionAlta) {
+        return Collections.unmodifiableCollection(porPosicion.tailMap(posicionAlta, false).values());
     }
 
     /**
@@ -102,22 +179,20 @@ public class Cliente extends Persona {
     }
 
     /**
-     * Representación en string del cliente incluyendo sus mascotas
+     * Representación en texto del cliente incluyendo sus mascotas
      */
     @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(super.toString());
-        sb.append(String.format("\nCantidad de mascotas: %d", mascotas.size()));
+    public void escribirEn(Appendable destino) throws IOException {
+        super.escribirEn(destino);
+        destino.append("\nCantidad de mascotas: ");
+        Renderizado.entero(destino, mascotas.size());
         
         if (!mascotas.isEmpty()) {
-            sb.append("\nMascotas:");
-            for (Mascota mascota : mascotas) {
-                sb.append("\n  - ").append(mascota.getNombre())
-                  .append(" (").append(mascota.getClass().getSimpleName()).append(")");
+            destino.append("\nMascotas:");
+            for (Mascota mascota : porPosicion.values()) {
+                destino.append("\n  - ").append(mascota.getNombre())
+                       .append(" (").append(mascota.getClass().getSimpleName()).append(")");
             }
         }
-        
-        return sb.toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.veterinaria.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Lectura de datos ingresados por consola o desde un script.
+ * La entrada se lee con un búfer grande y, si se activa la salida con búfer,
+ * lo impreso se acumula en memoria y solo se vuelca antes de esperar una
+ * respuesta o al terminar, lo que acelera mucho la ejecución con entrada
+ * redirigida desde un archivo o una tubería.
+ */
+public class ConsoleHelper {
+    private static final int TAMANO_BUFER = 64 * 1024;
+
+    private final BufferedReader lector;
+    private boolean agotada;
+
+    /**
+     * Lee de la entrada estándar
+     */
+    public ConsoleHelper() {
+        this(new InputStreamReader(System.in));
+    }
+
+    /**
+     * Lee de cualquier fuente de caracteres, por ejemplo un script en memoria
+     */
+    public ConsoleHelper(Reader entrada) {
+        this.lector = new BufferedReader(entrada, TAMANO_BUFER);
+    }
+
+    /**
+     * Lee de un archivo de texto UTF-8
+     */
+    public static ConsoleHelper desdeArchivo(Path archivo) throws IOException {
+        return new ConsoleHelper(Files.newBufferedReader(archivo, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reemplaza la salida estándar por una con búfer que no se vuelca en cada línea.
+     * Las lecturas vuelcan la salida antes de bloquearse, así las preguntas siguen visibles.
+     */
+    public static void activarSalidaConBufer() {
+        System.setOut(new PrintStream(new BufferedOutputStream(
+                new FileOutputStream(FileDescriptor.out), TAMANO_BUFER), false));
+    }
+
+    /**
+     * Siguiente línea de la entrada, o null si se agotó
+     */
+    public String siguienteLinea() {
+        System.out.flush();
+        try {
+            String linea = lector.readLine();
+            if (linea == null) {
+                agotada = true;
+            }
+            return linea;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la entrada", e);
+        }
+    }
+
+    /**
+     * Indica si ya se leyó toda la entrada
+     */
+    public boolean estaAgotada() {
+        return agotada;
+    }
+
+    /**
+     * Lee una línea completa. Devuelve una cadena vacía si la entrada se agotó.
+     */
+    public String leerLinea() {
+        String linea = siguienteLinea();
+        return linea != null ? linea : "";
+    }
+
+    /**
+     * Lee un número entero, repitiendo la pregunta hasta que sea válido.
+     * Devuelve 0 si la entrada se agotó, que en los menús equivale a salir.
+     */
+    public int leerEntero() {
+        while (true) {
+            String linea = siguienteLinea();
+            if (linea == null) {
+                return 0;
+            }
+            try {
+                return Integer.parseInt(linea.trim());
+            } catch (NumberFormatException e) {
+                System.out.print("Ingrese un número válido: ");
+            }
+        }
+    }
+
+    /**
+     * Lee una respuesta sí/no (acepta s, si, sí y true)
+     */
+    public boolean leerBooleano() {
+        String respuesta = leerLinea().trim().toLowerCase(Locale.ROOT);
+        return respuesta.equals("s") || respuesta.equals("si") || respuesta.equals("sí") || respuesta.equals("true");
+    }
+}
\ No newline at end of file
@@ -1,35 +1,77 @@
 package com.veterinaria.modelo;
 
+import com.veterinaria.persistencia.AsignadorIds;
+import com.veterinaria.util.Diccionario;
+import com.veterinaria.util.Renderizable;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 
 /**
  * Clase Consulta que representa una consulta veterinaria.
  * Demuestra composición al relacionar Cliente, Mascota y Veterinario.
+ * Igual que Persona, los cambios se escriben con un cerrojo propio y avanzan
+ * la versión, y la ficha se arma con una lectura optimista.
+ * Como en Persona, el observador se avisa después de soltar el cerrojo, con
+ * las relaciones anteriores copiadas mientras estaba tomado, así puede leer la
+ * consulta o armar su ficha y el diario no escribe dentro de la sección
+ * crítica. Dos avisos concurrentes pueden llegar en otro orden; los índices
+ * del servicio no dependen de ese orden (ver RegistroConsultas.reindexar).
  */
-public class Consulta {
-    private static int contadorConsultas = 0;
+public class Consulta implements Renderizable, Versionada {
+    private static final AsignadorIds IDS = AsignadorIds.para("consultas");
     
     private int id;
-    private Cliente cliente;
-    private Mascota mascota;
-    private Veterinario veterinario;
-    private String tratamiento;
-    private String diagnostico;
+    private volatile Cliente cliente;
+    private volatile Mascota mascota;
+    private volatile Veterinario veterinario;
+    private volatile String tratamiento;
+    private volatile String diagnostico;
     private LocalDateTime fechaConsulta;
+    private volatile long version;
+    private final StampedLock cerrojo = new StampedLock();
+    private ObservadorModelo observador;
+    // Historial de versiones que le asocia el servicio (ver Versionada)
+    private volatile Object historialVersiones;
+    private static final AtomicReferenceFieldUpdater<Consulta, Object> HISTORIAL_VERSIONES =
+            AtomicReferenceFieldUpdater.newUpdater(Consulta.class, Object.class, "historialVersiones");
 
     /**
      * Constructor de Consulta
      */
     public Consulta(Cliente cliente, Mascota mascota, Veterinario veterinario, 
                    String tratamiento, String diagnostico) {
-        this.id = ++contadorConsultas;
+        this(cliente, mascota, veterinario, tratamiento, diagnostico, LocalDateTime.now(), false);
+        // El ID se toma recién con los datos validados, para no gastarlo en una consulta rechazada
+        this.id = IDS.siguiente();
+    }
+
+    private Consulta(Cliente cliente, Mascota mascota, Veterinario veterinario,
+                     String tratamiento, String diagnostico, LocalDateTime fechaConsulta, boolean restaurada) {
         this.cliente = validarCliente(cliente);
-        this.mascota = validarMascota(mascota, cliente);
+        // Una consulta guardada puede ser de una mascota que el cliente dio de baja después
+        this.mascota = restaurada && mascota != null && mascota.getPropietario() == cliente
+                ? mascota : validarMascota(mascota, cliente);
         this.veterinario = validarVeterinario(veterinario);
         this.tratamiento = validarTratamiento(tratamiento);
         this.diagnostico = validarDiagnostico(diagnostico);
-        this.fechaConsulta = LocalDateTime.now();
+        this.fechaConsulta = fechaConsulta;
+    }
+
+    /**
+     * Reconstruye una consulta guardada conservando su ID y su fecha.
+     * La mascota puede estar dada de baja si el cliente fue su propietario.
+     */
+    public static Consulta restaurar(int id, Cliente cliente, Mascota mascota, Veterinario veterinario,
+                                     String tratamiento, String diagnostico, LocalDateTime fechaConsulta) {
+        Consulta consulta = new Consulta(cliente, mascota, veterinario, tratamiento, diagnostico, fechaConsulta, true);
+        IDS.asegurarMayorQue(id);
+        consulta.id = id;
+        return consulta;
     }
 
     /**
@@ -51,15 +93,7 @@ public class Consulta {
         }
         
         // Verificar que la mascota pertenece al cliente
-        boolean mascotaPertenece = false;
-        for (Mascota m : cliente.getMascotas()) {
-            if (m.equals(mascota)) {
-                mascotaPertenece = true;
-                break;
-            }
-        }
-        
-        if (!mascotaPertenece) {
+        if (!cliente.tieneMascota(mascota)) {
             throw new IllegalArgumentException("La mascota no pertenece al cliente especificado");
         }
         
@@ -83,7 +117,7 @@ public class Consulta {
         if (tratamiento == null || tratamiento.trim().isEmpty()) {
             throw new IllegalArgumentException("El tratamiento no puede estar vacío");
         }
-        return tratamiento.trim();
+        return Diccionario.TRATAMIENTOS.canonico(tratamiento.trim());
     }
 
     /**
@@ -106,9 +140,25 @@ public class Consulta {
     }
 
     public void setCliente(Cliente cliente) {
-        this.cliente = validarCliente(cliente);
-        // Validar nuevamente la mascota con el nuevo cliente
-        this.mascota = validarMascota(this.mascota, cliente);
+        validarCliente(cliente);
+        modificar(() -> {
+            Cliente clienteAnterior;
+            Mascota mascotaActual;
+            Veterinario veterinarioActual;
+            long sello = cerrojo.writeLock();
+            try {
+                // Validar nuevamente la mascota con el nuevo cliente antes de asignarlo
+                validarMascota(this.mascota, cliente);
+                clienteAnterior = this.cliente;
+                mascotaActual = this.mascota;
+                veterinarioActual = this.veterinario;
+                this.cliente = cliente;
+                version++;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            notificarReasignacion(clienteAnterior, mascotaActual, veterinarioActual);
+        });
     }
 
     public Mascota getMascota() {
@@ -116,7 +166,23 @@ public class Consulta {
     }
 
     public void setMascota(Mascota mascota) {
-        this.mascota = validarMascota(mascota, this.cliente);
+        modificar(() -> {
+            Cliente clienteActual;
+            Mascota mascotaAnterior;
+            Veterinario veterinarioActual;
+            long sello = cerrojo.writeLock();
+            try {
+                Mascota valida = validarMascota(mascota, this.cliente);
+                clienteActual = this.cliente;
+                mascotaAnterior = this.mascota;
+                veterinarioActual = this.veterinario;
+                this.mascota = valida;
+                version++;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            notificarReasignacion(clienteActual, mascotaAnterior, veterinarioActual);
+        });
     }
 
     public Veterinario getVeterinario() {
@@ -124,7 +190,58 @@ public class Consulta {
     }
 
     public void setVeterinario(Veterinario veterinario) {
-        this.veterinario = validarVeterinario(veterinario);
+        validarVeterinario(veterinario);
+        modificar(() -> {
+            Cliente clienteActual;
+            Mascota mascotaActual;
+            Veterinario veterinarioAnterior;
+            long sello = cerrojo.writeLock();
+            try {
+                clienteActual = this.cliente;
+                mascotaActual = this.mascota;
+                veterinarioAnterior = this.veterinario;
+                this.veterinario = veterinario;
+                version++;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            notificarReasignacion(clienteActual, mascotaActual, veterinarioAnterior);
+        });
+    }
+
+    /**
+     * Cambia cliente, mascota y veterinario juntos, solo si la consulta no cambió
+     * desde que se leyó la versión indicada. La mascota se valida contra el
+     * cliente nuevo, así que permite pasar la consulta a otro dueño en un solo paso.
+     * Devuelve false sin modificar nada si hubo un cambio concurrente.
+     */
+    public boolean reasignarSiVersion(long versionLeida, Cliente cliente, Mascota mascota,
+                                      Veterinario veterinario) {
+        validarMascota(mascota, validarCliente(cliente));
+        validarVeterinario(veterinario);
+
+        return modificarCon(() -> {
+            Cliente clienteAnterior;
+            Mascota mascotaAnterior;
+            Veterinario veterinarioAnterior;
+            long sello = cerrojo.writeLock();
+            try {
+                if (version != versionLeida) {
+                    return false;
+                }
+                clienteAnterior = this.cliente;
+                mascotaAnterior = this.mascota;
+                veterinarioAnterior = this.veterinario;
+                this.cliente = cliente;
+                this.mascota = mascota;
+                this.veterinario = veterinario;
+                version++;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            notificarReasignacion(clienteAnterior, mascotaAnterior, veterinarioAnterior);
+            return true;
+        });
     }
 
     public String getTratamiento() {
@@ -132,7 +249,17 @@ public class Consulta {
     }
 
     public void setTratamiento(String tratamiento) {
-        this.tratamiento = validarTratamiento(tratamiento);
+        String valor = validarTratamiento(tratamiento);
+        modificar(() -> {
+            long sello = cerrojo.writeLock();
+            try {
+                this.tratamiento = valor;
+                version++;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            notificarModificacion();
+        });
     }
 
     public String getDiagnostico() {
@@ -140,51 +267,185 @@ public class Consulta {
     }
 
     public void setDiagnostico(String diagnostico) {
-        this.diagnostico = validarDiagnostico(diagnostico);
+        String valor = validarDiagnostico(diagnostico);
+        modificar(() -> {
+            long sello = cerrojo.writeLock();
+            try {
+                this.diagnostico = valor;
+                version++;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            notificarModificacion();
+        });
+    }
+
+    /**
+     * Reemplaza tratamiento y diagnóstico juntos, solo si la consulta no cambió
+     * desde que se leyó la versión indicada. Devuelve false si hubo un cambio concurrente.
+     */
+    public boolean actualizarSiVersion(long versionLeida, String tratamiento, String diagnostico) {
+        String nuevoTratamiento = validarTratamiento(tratamiento);
+        String nuevoDiagnostico = validarDiagnostico(diagnostico);
+
+        return modificarCon(() -> {
+            long sello = cerrojo.writeLock();
+            try {
+                if (version != versionLeida) {
+                    return false;
+                }
+                this.tratamiento = nuevoTratamiento;
+                this.diagnostico = nuevoDiagnostico;
+                version++;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            notificarModificacion();
+            return true;
+        });
+    }
+
+    /**
+     * Versión de la consulta; cambia con cada modificación
+     */
+    public long getVersion() {
+        return version;
     }
 
     public LocalDateTime getFechaConsulta() {
         return fechaConsulta;
     }
 
+    public ObservadorModelo getObservador() {
+        return observador;
+    }
+
+    public void setObservador(ObservadorModelo observador) {
+        this.observador = observador;
+    }
+
+    @Override
+    public Object getHistorialVersiones() {
+        return historialVersiones;
+    }
+
+    @Override
+    public boolean cambiarHistorialVersiones(Object esperado, Object nuevo) {
+        return HISTORIAL_VERSIONES.compareAndSet(this, esperado, nuevo);
+    }
+
+    private void modificar(Runnable cambio) {
+        Modificaciones.ejecutar(observador, cambio);
+    }
+
+    private <T> T modificarCon(Supplier<T> cambio) {
+        return Modificaciones.ejecutarCon(observador, cambio);
+    }
+
+    /**
+     * Avisa al observador que cambió el tratamiento o el diagnóstico
+     */
+    private void notificarModificacion() {
+        if (observador != null) {
+            observador.consultaModificada(this);
+        }
+    }
+
+    /**
+     * Avisa al observador que cambió alguna de las relaciones de la consulta
+     */
+    private void notificarReasignacion(Cliente clienteAnterior, Mascota mascotaAnterior,
+                                       Veterinario veterinarioAnterior) {
+        if (observador != null) {
+            observador.consultaReasignada(this, clienteAnterior, mascotaAnterior, veterinarioAnterior);
+        }
+    }
+
     /**
      * Obtiene la fecha formateada de la consulta
      */
     public String getFechaFormateada() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        return fechaConsulta.format(formatter);
+        return fechaConsulta.format(Renderizado.FORMATO_FECHA);
     }
 
     /**
      * Obtiene un resumen corto de la consulta
      */
     public String getResumenCorto() {
-        return String.format("Consulta #%d - %s (%s) - Dr. %s - %s", 
-                           id, 
-                           mascota.getNombre(), 
-                           mascota.getTipoMascota(),
-                           veterinario.getNombreCompleto(),
-                           getFechaFormateada());
+        return Renderizado.aTexto(this::escribirResumenEn);
+    }
+
+    /**
+     * Escribe el resumen corto de la consulta en el destino
+     */
+    public void escribirResumenEn(Appendable destino) throws IOException {
+        long sello = cerrojo.tryOptimisticRead();
+        Mascota m = mascota;
+        Veterinario v = veterinario;
+        if (!cerrojo.validate(sello)) {
+            sello = cerrojo.readLock();
+            try {
+                m = mascota;
+                v = veterinario;
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+        destino.append("Consulta #");
+        Renderizado.entero(destino, id);
+        destino.append(" - ").append(m.getNombre())
+               .append(" (").append(m.getTipoMascota())
+               .append(") - Dr. ");
+        v.escribirNombreCompletoEn(destino);
+        destino.append(" - ");
+        Renderizado.fecha(destino, fechaConsulta);
     }
 
     /**
      * Obtiene información detallada de la consulta
      */
     public String getInformacionDetallada() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("=== CONSULTA VETERINARIA ===\n");
-        sb.append(String.format("ID: %d\n", id));
-        sb.append(String.format("Fecha: %s\n", getFechaFormateada()));
-        sb.append(String.format("Cliente: %s (DNI: %s)\n", 
-                                cliente.getNombreCompleto(), cliente.getDni()));
-        sb.append(String.format("Mascota: %s (%s, %s)\n", 
-                                mascota.getNombre(), mascota.getTipoMascota(), mascota.getRaza()));
-        sb.append(String.format("Veterinario: Dr. %s (%s)\n", 
-                                veterinario.getNombreCompleto(), veterinario.getEspecialidad()));
-        sb.append(String.format("Tratamiento: %s\n", tratamiento));
-        sb.append(String.format("Diagnóstico: %s", diagnostico));
-        
-        return sb.toString();
+        return Renderizado.aTexto(this);
+    }
+
+    /**
+     * Escribe la información detallada de la consulta en el destino
+     */
+    @Override
+    public void escribirEn(Appendable destino) throws IOException {
+        long sello = cerrojo.tryOptimisticRead();
+        Cliente c = cliente;
+        Mascota m = mascota;
+        Veterinario v = veterinario;
+        String t = tratamiento;
+        String d = diagnostico;
+        if (!cerrojo.validate(sello)) {
+            sello = cerrojo.readLock();
+            try {
+                c = cliente;
+                m = mascota;
+                v = veterinario;
+                t = tratamiento;
+                d = diagnostico;
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+        destino.append("=== CONSULTA VETERINARIA ===\nID: ");
+        Renderizado.entero(destino, id);
+        destino.append("\nFecha: ");
+        Renderizado.fecha(destino, fechaConsulta);
+        destino.append("\nCliente: ");
+        c.escribirNombreCompletoEn(destino);
+        destino.append(" (DNI: ").append(c.getDni())
+               .append(")\nMascota: ").append(m.getNombre())
+               .append(" (").append(m.getTipoMascota())
+               .append(", ").append(m.getRaza())
+               .append(")\nVeterinario: Dr. ");
+        v.escribirNombreCompletoEn(destino);
+        destino.append(" (").append(v.getEspecialidad())
+               .append(")\nTratamiento: ").append(t)
+               .append("\nDiagnóstico: ").append(d);
     }
 
     /**
@@ -205,7 +466,7 @@ public class Consulta {
      * Obtiene el contador total de consultas
      */
     public static int getTotalConsultas() {
-        return contadorConsultas;
+        return IDS.getEmitidos();
     }
 
     /**
@@ -0,0 +1,340 @@
+package com.veterinaria.persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Diario de escritura anticipada de solo anexado.
+ * Cada registro se guarda como [longitud][lsn][datos][crc32]. Los escritores
+ * concurrentes se agrupan: el primero que necesita durabilidad escribe y
+ * sincroniza a disco todos los registros pendientes de una vez (group commit),
+ * y el resto solo espera a que su LSN quede cubierto.
+ */
+public class Diario implements Closeable {
+    private static final int CABECERA = Integer.BYTES + Long.BYTES;
+    private static final int PIE = Integer.BYTES;
+    // Tamaño de cada tramo del archivo mapeado al recorrerlo
+    private static final long VENTANA = 64L << 20;
+
+    private final FileChannel canal;
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final Condition sincronizado = cerrojo.newCondition();
+
+    private ByteBuffer pendiente = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer libre = ByteBuffer.allocate(64 * 1024);
+    private long siguienteLsn;
+    private long lsnDurable;
+    private boolean escribiendo;
+    // Mientras se compacta no se aceptan registros nuevos
+    private boolean compactando;
+    private IOException fallo;
+
+    /**
+     * Guarda en otro lado el estado cubierto por el diario hasta un LSN
+     */
+    @FunctionalInterface
+    public interface GuardadoInstantanea {
+        void guardar(long lsn) throws IOException;
+    }
+
+    /**
+     * Abre el diario para anexar registros después del último válido.
+     * Un registro final incompleto o corrupto (escritura interrumpida) se descarta.
+     */
+    public Diario(Path archivo) throws IOException {
+        this(archivo, 0);
+    }
+
+    /**
+     * Abre el diario garantizando que los nuevos LSN sean mayores a lsnMinimo,
+     * aunque el archivo se haya truncado después de una instantánea.
+     */
+    public Diario(Path archivo, long lsnMinimo) throws IOException {
+        long[] ultimo = {0L};
+        long finValido = recorrer(archivo, (lsn, datos) -> ultimo[0] = lsn);
+        Files.createDirectories(archivo.toAbsolutePath().getParent());
+        this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (canal.size() > finValido) {
+            canal.truncate(finValido);
+        }
+        canal.position(finValido);
+        this.lsnDurable = Math.max(ultimo[0], lsnMinimo);
+        this.siguienteLsn = lsnDurable + 1;
+    }
+
+    /**
+     * Recorre los registros válidos de un diario en orden.
+     * Devuelve la posición donde termina el último registro válido.
+     * El archivo se mapea por ventanas, así que no hay límite de tamaño.
+     */
+    public static long recorrer(Path archivo, BiConsumer<Long, ByteBuffer> consumidor) throws IOException {
+        if (!Files.exists(archivo)) {
+            return 0;
+        }
+
+        try (FileChannel lectura = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = lectura.size();
+            long base = 0;
+            ByteBuffer ventana = mapear(lectura, base, tamano, VENTANA);
+            CRC32 crc = new CRC32();
+            long posicion = 0;
+            while (tamano - posicion >= CABECERA + PIE) {
+                int inicio = (int) (posicion - base);
+                if (ventana.limit() - inicio < CABECERA) {
+                    base = posicion;
+                    ventana = mapear(lectura, base, tamano, VENTANA);
+                    inicio = 0;
+                }
+                int longitud = ventana.getInt(inicio);
+                long total = (long) CABECERA + longitud + PIE;
+                if (longitud < 0 || total > tamano - posicion || total > Integer.MAX_VALUE) {
+                    return posicion;
+                }
+                // Un registro que cruza el final de la ventana se relee desde su comienzo
+                if (ventana.limit() - inicio < total) {
+                    base = posicion;
+                    ventana = mapear(lectura, base, tamano, Math.max(VENTANA, total));
+                    inicio = 0;
+                }
+
+                crc.reset();
+                crc.update(ventana.slice(inicio + Integer.BYTES, Long.BYTES + longitud));
+                if ((int) crc.getValue() != ventana.getInt(inicio + CABECERA + longitud)) {
+                    return posicion;
+                }
+                long lsn = ventana.getLong(inicio + Integer.BYTES);
+                consumidor.accept(lsn, ventana.slice(inicio + CABECERA, longitud));
+                posicion += total;
+            }
+            return posicion;
+        }
+    }
+
+    private static ByteBuffer mapear(FileChannel canal, long desde, long tamano, long minimo) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_ONLY, desde, Math.min(tamano - desde, minimo));
+    }
+
+    /**
+     * Anexa un registro y espera a que esté sincronizado en disco.
+     * Devuelve el LSN asignado.
+     */
+    public long escribir(byte[] datos) {
+        long lsn = anexar(datos);
+        sincronizar(lsn);
+        return lsn;
+    }
+
+    /**
+     * Anexa varios registros consecutivos y los sincroniza juntos.
+     * Devuelve el LSN del último.
+     */
+    public long escribirTodos(List<byte[]> registros) {
+        long lsn = getLsnDurable();
+        for (byte[] datos : registros) {
+            lsn = anexar(datos);
+        }
+        sincronizar(lsn);
+        return lsn;
+    }
+
+    /**
+     * Anexa un registro sin esperar a que llegue a disco y devuelve su LSN.
+     * Los registros se escriben en el orden en que se anexan; sincronizar
+     * espera a que uno quede durable.
+     */
+    public long anexar(byte[] datos) {
+        cerrojo.lock();
+        try {
+            while (compactando) {
+                sincronizado.awaitUninterruptibly();
+            }
+            verificarFallo();
+            long lsn = siguienteLsn++;
+            int total = CABECERA + datos.length + PIE;
+            if (pendiente.remaining() < total) {
+                pendiente = ampliar(pendiente, total);
+            }
+
+            int inicio = pendiente.position();
+            pendiente.putInt(datos.length).putLong(lsn).put(datos);
+            CRC32 crc = new CRC32();
+            crc.update(pendiente.array(), inicio + Integer.BYTES, Long.BYTES + datos.length);
+            pendiente.putInt((int) crc.getValue());
+            return lsn;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private static ByteBuffer ampliar(ByteBuffer actual, int necesario) {
+        int capacidad = Math.max(actual.capacity() * 2, actual.position() + necesario);
+        ByteBuffer ampliado = ByteBuffer.allocate(capacidad);
+        actual.flip();
+        ampliado.put(actual);
+        return ampliado;
+    }
+
+    /**
+     * Espera a que el LSN indicado sea durable. Si nadie está escribiendo,
+     * este hilo se vuelve líder y sincroniza el lote pendiente completo.
+     */
+    public void sincronizar(long lsn) {
+        cerrojo.lock();
+        try {
+            while (lsnDurable < lsn) {
+                verificarFallo();
+                if (escribiendo) {
+                    sincronizado.awaitUninterruptibly();
+                    continue;
+                }
+
+                escribiendo = true;
+                ByteBuffer lote = pendiente;
+                pendiente = libre;
+                long ultimoDelLote = siguienteLsn - 1;
+                cerrojo.unlock();
+                IOException error = null;
+                try {
+                    lote.flip();
+                    while (lote.hasRemaining()) {
+                        canal.write(lote);
+                    }
+                    canal.force(false);
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    cerrojo.lock();
+                }
+
+                lote.clear();
+                libre = lote;
+                escribiendo = false;
+                if (error != null) {
+                    fallo = error;
+                } else {
+                    lsnDurable = ultimoDelLote;
+                }
+                sincronizado.signalAll();
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Sincroniza lo pendiente, guarda la instantánea con el último LSN y descarta
+     * todos los registros del archivo. Mientras dura, este hilo conserva el papel
+     * de líder y los registros nuevos esperan, de modo que ninguno confirmado
+     * como durable se pierde al truncar. La numeración de LSN continúa.
+     */
+    public void compactar(GuardadoInstantanea instantanea) throws IOException {
+        long ultimo;
+        ByteBuffer lote;
+        cerrojo.lock();
+        try {
+            while (compactando || escribiendo) {
+                sincronizado.awaitUninterruptibly();
+            }
+            verificarFallo();
+            compactando = true;
+            escribiendo = true;
+            ultimo = siguienteLsn - 1;
+            lote = pendiente;
+        } finally {
+            cerrojo.unlock();
+        }
+
+        boolean sincronizadoLote = false;
+        IOException error = null;
+        try {
+            lote.flip();
+            while (lote.hasRemaining()) {
+                canal.write(lote);
+            }
+            canal.force(false);
+            sincronizadoLote = true;
+
+            instantanea.guardar(ultimo);
+            canal.truncate(0);
+            canal.position(0);
+            canal.force(true);
+        } catch (IOException e) {
+            error = e;
+            throw e;
+        } finally {
+            cerrojo.lock();
+            try {
+                lote.clear();
+                if (sincronizadoLote) {
+                    lsnDurable = ultimo;
+                } else if (error != null) {
+                    // Sin el lote en disco el diario queda igual que tras un fallo al sincronizar
+                    fallo = error;
+                }
+                escribiendo = false;
+                compactando = false;
+                sincronizado.signalAll();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+    }
+
+    /**
+     * Lanza UncheckedIOException si una sincronización anterior falló: desde
+     * entonces el diario no acepta registros nuevos
+     */
+    public void verificarEscritura() {
+        cerrojo.lock();
+        try {
+            verificarFallo();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private void verificarFallo() {
+        if (fallo != null) {
+            throw new UncheckedIOException("El diario no puede seguir escribiendo", fallo);
+        }
+    }
+
+    /**
+     * Último LSN sincronizado en disco
+     */
+    public long getLsnDurable() {
+        cerrojo.lock();
+        try {
+            return lsnDurable;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        long ultimo;
+        cerrojo.lock();
+        try {
+            ultimo = siguienteLsn - 1;
+        } finally {
+            cerrojo.unlock();
+        }
+        try {
+            sincronizar(ultimo);
+        } finally {
+            canal.close();
+        }
+    }
+}
@@ -0,0 +1,547 @@
+package com.veterinaria.persistencia;
+
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.EstadoTarea;
+import com.veterinaria.modelo.Gato;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.ObservadorModelo;
+import com.veterinaria.modelo.Perro;
+import com.veterinaria.modelo.Persona;
+import com.veterinaria.modelo.Tarea;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.servicio.VeterinariaService;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Diario de persistencia del sistema veterinario.
+ * Registra cada cambio de clientes, mascotas, consultas y tareas como un
+ * registro binario compacto y, al iniciar, los reproduce sobre el servicio.
+ * Los avisos de cambio solo anexan el registro, en el orden en que ocurren;
+ * la sincronización a disco se espera cuando termina el cambio más externo
+ * (una operación del servicio o un setter llamado directamente sobre la
+ * entidad) y ya se soltaron los cerrojos. Un aviso fuera de todo cambio se
+ * sincroniza en el momento. Si una sincronización falla, el diario rechaza las
+ * operaciones siguientes antes de que modifiquen nada, así que en disco
+ * siempre queda un prefijo reproducible de los cambios. Un cambio ya admitido
+ * cuando falla otra sincronización termina de avisar al resto de observadores,
+ * para que la memoria quede coherente, y recién al cerrarse informa el error:
+ * ese cambio no es durable y se pierde al reiniciar.
+ */
+public class DiarioVeterinaria implements ObservadorModelo, Closeable {
+    // Tipos de registro
+    static final byte PERSONA_ALTA = 1;
+    static final byte PERSONA_MODIFICADA = 2;
+    static final byte DNI_CAMBIADO = 3;
+    static final byte MASCOTA_ALTA = 4;
+    static final byte MASCOTA_BAJA = 5;
+    static final byte MASCOTA_MODIFICADA = 6;
+    static final byte CONSULTA_ALTA = 7;
+    static final byte CONSULTA_MODIFICADA = 8;
+    static final byte TAREA_ALTA = 9;
+    static final byte TAREA_BAJA = 10;
+    static final byte TAREA_MODIFICADA = 11;
+    static final byte TAREA_ESTADO = 12;
+
+    // Tipos de persona y de mascota
+    static final byte CLIENTE = 'C';
+    static final byte VETERINARIO = 'V';
+    static final byte ADMINISTRATIVO = 'A';
+    static final byte PERRO = 'P';
+    static final byte GATO = 'G';
+
+    private final Diario diario;
+    private final VeterinariaService servicio;
+    // Por hilo: [0] último LSN anexado que todavía no esperó a que sea durable
+    // (0 si ninguno, -1 si no se pudo anexar) y [1] cambios abiertos anidados
+    private static final int PENDIENTE = 0;
+    private static final int ABIERTOS = 1;
+    private final ThreadLocal<long[]> pendienteDelHilo = ThreadLocal.withInitial(() -> new long[2]);
+
+    private DiarioVeterinaria(Diario diario, VeterinariaService servicio) {
+        this.diario = diario;
+        this.servicio = servicio;
+    }
+
+    /**
+     * Reproduce el diario sobre el servicio y lo deja suscrito para registrar
+     * los cambios siguientes
+     */
+    public static DiarioVeterinaria abrir(Path archivo, VeterinariaService servicio) throws IOException {
+        return abrir(archivo, servicio, 0);
+    }
+
+    /**
+     * Igual que abrir, pero omite los registros con LSN menor o igual a desdeLsn
+     * (ya incluidos en una instantánea)
+     */
+    public static DiarioVeterinaria abrir(Path archivo, VeterinariaService servicio, long desdeLsn)
+            throws IOException {
+        reproducir(archivo, servicio, desdeLsn);
+        DiarioVeterinaria diario = new DiarioVeterinaria(new Diario(archivo, desdeLsn), servicio);
+        servicio.agregarObservador(diario);
+        return diario;
+    }
+
+    /**
+     * Último LSN sincronizado en disco
+     */
+    public long getLsnDurable() {
+        return diario.getLsnDurable();
+    }
+
+    /**
+     * Guarda el estado completo en una instantánea y vacía el diario. Los
+     * registros nuevos esperan hasta que termine, y el LSN de la instantánea se
+     * toma con ellos detenidos. Si el proceso se interrumpe antes de vaciar el
+     * diario, los registros ya cubiertos se omiten al reproducir.
+     */
+    public void compactar(Path instantanea) throws IOException {
+        diario.compactar(lsn -> ArchivoInstantanea.escribir(instantanea, servicio, lsn));
+    }
+
+    @Override
+    public void close() throws IOException {
+        servicio.quitarObservador(this);
+        diario.close();
+    }
+
+    // --- Escritura ---
+
+    @Override
+    public void antesDeModificar() {
+        diario.verificarEscritura();
+        pendienteDelHilo.get()[ABIERTOS]++;
+    }
+
+    @Override
+    public void modificacionTerminada() {
+        long[] estado = pendienteDelHilo.get();
+        // Un cambio abierto antes de suscribir el diario no tiene apertura propia
+        if (estado[ABIERTOS] > 0 && --estado[ABIERTOS] == 0) {
+            confirmar(estado);
+        }
+    }
+
+    private void anexar(byte[] registro) {
+        long[] estado = pendienteDelHilo.get();
+        if (estado[PENDIENTE] >= 0) {
+            try {
+                estado[PENDIENTE] = diario.anexar(registro);
+            } catch (UncheckedIOException e) {
+                // No se corta la cadena de avisos: el error se informa al cerrar el cambio
+                estado[PENDIENTE] = -1;
+            }
+        }
+        if (estado[ABIERTOS] == 0) {
+            confirmar(estado);
+        }
+    }
+
+    private void confirmar(long[] estado) {
+        long lsn = estado[PENDIENTE];
+        estado[PENDIENTE] = 0;
+        if (lsn < 0) {
+            diario.verificarEscritura();
+        } else if (lsn != 0) {
+            diario.sincronizar(lsn);
+        }
+    }
+
+    @Override
+    public void personaRegistrada(Persona persona) {
+        anexar(codificarPersona(PERSONA_ALTA, persona));
+
+        // Las relaciones creadas antes del alta también deben quedar registradas
+        if (persona instanceof Cliente) {
+            for (Mascota mascota : ((Cliente) persona).getMascotas()) {
+                anexar(codificarMascotaAlta((Cliente) persona, mascota));
+            }
+        } else if (persona instanceof Veterinario) {
+            for (Consulta consulta : ((Veterinario) persona).getConsultas()) {
+                anexar(codificarConsultaAlta(consulta));
+            }
+        } else if (persona instanceof Administrativo) {
+            for (Tarea tarea : ((Administrativo) persona).getTareas()) {
+                anexar(codificarTareaAlta((Administrativo) persona, tarea));
+            }
+        }
+    }
+
+    @Override
+    public void personaModificada(Persona persona) {
+        anexar(codificarPersona(PERSONA_MODIFICADA, persona));
+    }
+
+    @Override
+    public void antesDeCambiarDni(Persona persona, String dniNuevo) {
+        anexar(new Binario.Salida().octeto(DNI_CAMBIADO).octeto(tipoPersona(persona))
+                .texto(persona.getDni()).texto(dniNuevo).toByteArray());
+    }
+
+    @Override
+    public void mascotaAgregada(Cliente cliente, Mascota mascota) {
+        anexar(codificarMascotaAlta(cliente, mascota));
+    }
+
+    @Override
+    public void mascotaEliminada(Cliente cliente, Mascota mascota) {
+        anexar(new Binario.Salida().octeto(MASCOTA_BAJA)
+                .texto(cliente.getDni()).texto(mascota.getNombre()).toByteArray());
+    }
+
+    @Override
+    public void mascotaModificada(Mascota mascota, String nombreAnterior) {
+        if (mascota.getPropietario() == null) {
+            return;
+        }
+        Binario.Salida salida = new Binario.Salida().octeto(MASCOTA_MODIFICADA)
+                .texto(mascota.getPropietario().getDni()).texto(nombreAnterior);
+        anexar(escribirMascota(salida, mascota).toByteArray());
+    }
+
+    @Override
+    public void consultaAgregada(Veterinario veterinario, Consulta consulta) {
+        anexar(codificarConsultaAlta(consulta));
+    }
+
+    @Override
+    public void consultaReasignada(Consulta consulta, Cliente clienteAnterior,
+                                   Mascota mascotaAnterior, Veterinario veterinarioAnterior) {
+        consultaModificada(consulta);
+    }
+
+    @Override
+    public void consultaModificada(Consulta consulta) {
+        Binario.Salida salida = new Binario.Salida().octeto(CONSULTA_MODIFICADA).entero(consulta.getId());
+        anexar(escribirConsulta(salida, consulta).toByteArray());
+    }
+
+    @Override
+    public void tareaAgregada(Administrativo administrativo, Tarea tarea) {
+        anexar(codificarTareaAlta(administrativo, tarea));
+    }
+
+    @Override
+    public void tareaEliminada(Administrativo administrativo, Tarea tarea) {
+        anexar(new Binario.Salida().octeto(TAREA_BAJA)
+                .texto(administrativo.getDni()).entero(tarea.getId()).toByteArray());
+    }
+
+    @Override
+    public void tareaModificada(Tarea tarea) {
+        anexar(new Binario.Salida().octeto(TAREA_MODIFICADA)
+                .entero(tarea.getId()).texto(tarea.getDescripcion()).toByteArray());
+    }
+
+    @Override
+    public void tareaEstadoCambiado(Tarea tarea, EstadoTarea estadoAnterior) {
+        anexar(new Binario.Salida().octeto(TAREA_ESTADO).entero(tarea.getId())
+                .texto(tarea.getEstado()).fecha(tarea.getFechaCompletada()).toByteArray());
+    }
+
+    // --- Codificación ---
+
+    static byte tipoPersona(Persona persona) {
+        if (persona instanceof Veterinario) {
+            return VETERINARIO;
+        }
+        if (persona instanceof Administrativo) {
+            return ADMINISTRATIVO;
+        }
+        return CLIENTE;
+    }
+
+    static Binario.Salida escribirPersona(Binario.Salida salida, Persona persona) {
+        String extra = "";
+        if (persona instanceof Veterinario) {
+            extra = ((Veterinario) persona).getEspecialidad();
+        } else if (persona instanceof Administrativo) {
+            extra = ((Administrativo) persona).getArea();
+        }
+        return salida.octeto(tipoPersona(persona)).texto(persona.getDni()).texto(persona.getNombre())
+                .texto(persona.getApellido()).texto(persona.getTelefono()).texto(persona.getEmail())
+                .texto(extra);
+    }
+
+    static Binario.Salida escribirMascota(Binario.Salida salida, Mascota mascota) {
+        salida.octeto(mascota instanceof Gato ? GATO : PERRO).texto(mascota.getNombre())
+                .entero(mascota.getEdad()).texto(mascota.getRaza());
+        if (mascota instanceof Gato) {
+            return salida.booleano(((Gato) mascota).isEsDeInterior());
+        }
+        return salida.texto(((Perro) mascota).getTamano());
+    }
+
+    static Binario.Salida escribirConsulta(Binario.Salida salida, Consulta consulta) {
+        return salida.texto(consulta.getCliente().getDni()).texto(consulta.getMascota().getNombre())
+                .texto(consulta.getVeterinario().getDni()).texto(consulta.getTratamiento())
+                .texto(consulta.getDiagnostico());
+    }
+
+    static Binario.Salida escribirTarea(Binario.Salida salida, Tarea tarea) {
+        return salida.entero(tarea.getId()).texto(tarea.getDescripcion()).texto(tarea.getEstado())
+                .fecha(tarea.getFechaCreacion()).fecha(tarea.getFechaCompletada());
+    }
+
+    private static byte[] codificarPersona(byte tipo, Persona persona) {
+        return escribirPersona(new Binario.Salida().octeto(tipo), persona).toByteArray();
+    }
+
+    private static byte[] codificarMascotaAlta(Cliente cliente, Mascota mascota) {
+        return escribirMascota(new Binario.Salida().octeto(MASCOTA_ALTA).texto(cliente.getDni()), mascota)
+                .toByteArray();
+    }
+
+    private static byte[] codificarConsultaAlta(Consulta consulta) {
+        Binario.Salida salida = new Binario.Salida().octeto(CONSULTA_ALTA).entero(consulta.getId());
+        return escribirConsulta(salida, consulta).fecha(consulta.getFechaConsulta()).toByteArray();
+    }
+
+    private static byte[] codificarTareaAlta(Administrativo administrativo, Tarea tarea) {
+        return escribirTarea(new Binario.Salida().octeto(TAREA_ALTA).texto(administrativo.getDni()), tarea)
+                .toByteArray();
+    }
+
+    // --- Reproducción ---
+
+    /**
+     * Aplica sobre el servicio los registros del diario posteriores a desdeLsn.
+     * Un registro que no puede aplicarse se informa y se omite.
+     */
+    static void reproducir(Path archivo, VeterinariaService servicio, long desdeLsn) throws IOException {
+        Diario.recorrer(archivo, (lsn, datos) -> {
+            if (lsn <= desdeLsn) {
+                return;
+            }
+            try {
+                aplicar(datos, servicio);
+            } catch (RuntimeException e) {
+                System.err.println("Registro " + lsn + " del diario omitido: " + e.getMessage());
+            }
+        });
+    }
+
+    static void aplicar(ByteBuffer datos, VeterinariaService servicio) {
+        byte tipo = datos.get();
+        switch (tipo) {
+            case PERSONA_ALTA:
+                registrarPersona(leerPersona(datos), servicio);
+                break;
+            case PERSONA_MODIFICADA:
+                actualizarPersona(datos, servicio);
+                break;
+            case DNI_CAMBIADO: {
+                byte tipoPersona = datos.get();
+                Persona persona = buscarPersona(tipoPersona, Binario.leerTexto(datos), servicio);
+                persona.setDni(Binario.leerTexto(datos));
+                break;
+            }
+            case MASCOTA_ALTA: {
+                Cliente cliente = buscarCliente(Binario.leerTexto(datos), servicio);
+                cliente.agregarMascota(leerMascota(datos));
+                break;
+            }
+            case MASCOTA_BAJA: {
+                Cliente cliente = buscarCliente(Binario.leerTexto(datos), servicio);
+                cliente.eliminarMascota(Binario.leerTexto(datos));
+                break;
+            }
+            case MASCOTA_MODIFICADA:
+                actualizarMascota(datos, servicio);
+                break;
+            case CONSULTA_ALTA: {
+                int id = Binario.leerEntero(datos);
+                Cliente cliente = buscarCliente(Binario.leerTexto(datos), servicio);
+                Mascota mascota = buscarMascota(cliente, Binario.leerTexto(datos));
+                Veterinario veterinario = buscarVeterinario(Binario.leerTexto(datos), servicio);
+                String tratamiento = Binario.leerTexto(datos);
+                String diagnostico = Binario.leerTexto(datos);
+                servicio.agregarConsulta(Consulta.restaurar(id, cliente, mascota, veterinario,
+                        tratamiento, diagnostico, Binario.leerFecha(datos)));
+                break;
+            }
+            case CONSULTA_MODIFICADA:
+                actualizarConsulta(datos, servicio);
+                break;
+            case TAREA_ALTA: {
+                Administrativo administrativo = buscarAdministrativo(Binario.leerTexto(datos), servicio);
+                administrativo.agregarTarea(leerTarea(datos));
+                break;
+            }
+            case TAREA_BAJA: {
+                Administrativo administrativo = buscarAdministrativo(Binario.leerTexto(datos), servicio);
+                administrativo.eliminarTarea(buscarTarea(Binario.leerEntero(datos), servicio).getDescripcion());
+                break;
+            }
+            case TAREA_MODIFICADA: {
+                Tarea tarea = buscarTarea(Binario.leerEntero(datos), servicio);
+                tarea.setDescripcion(Binario.leerTexto(datos));
+                break;
+            }
+            case TAREA_ESTADO: {
+                Tarea tarea = buscarTarea(Binario.leerEntero(datos), servicio);
+                tarea.restaurarEstado(Binario.leerTexto(datos), Binario.leerFecha(datos));
+                break;
+            }
+            default:
+                throw new IllegalStateException("Tipo de registro desconocido: " + tipo);
+        }
+    }
+
+    static Persona leerPersona(ByteBuffer datos) {
+        byte tipo = datos.get();
+        String dni = Binario.leerTexto(datos);
+        String nombre = Binario.leerTexto(datos);
+        String apellido = Binario.leerTexto(datos);
+        String telefono = Binario.leerTexto(datos);
+        String email = Binario.leerTexto(datos);
+        String extra = Binario.leerTexto(datos);
+        switch (tipo) {
+            case VETERINARIO:
+                return new Veterinario(nombre, apellido, dni, telefono, email, extra);
+            case ADMINISTRATIVO:
+                return new Administrativo(nombre, apellido, dni, telefono, email, extra);
+            default:
+                return new Cliente(nombre, apellido, dni, telefono, email);
+        }
+    }
+
+    static void registrarPersona(Persona persona, VeterinariaService servicio) {
+        if (persona instanceof Veterinario) {
+            servicio.agregarVeterinario((Veterinario) persona);
+        } else if (persona instanceof Administrativo) {
+            servicio.agregarAdministrativo((Administrativo) persona);
+        } else {
+            servicio.agregarCliente((Cliente) persona);
+        }
+    }
+
+    private static void actualizarPersona(ByteBuffer datos, VeterinariaService servicio) {
+        Persona datosNuevos = leerPersona(datos);
+        Persona persona = buscarPersona(tipoPersona(datosNuevos), datosNuevos.getDni(), servicio);
+        persona.setNombre(datosNuevos.getNombre());
+        persona.setApellido(datosNuevos.getApellido());
+        persona.setTelefono(datosNuevos.getTelefono());
+        persona.setEmail(datosNuevos.getEmail());
+        if (persona instanceof Veterinario) {
+            ((Veterinario) persona).setEspecialidad(((Veterinario) datosNuevos).getEspecialidad());
+        } else if (persona instanceof Administrativo) {
+            ((Administrativo) persona).setArea(((Administrativo) datosNuevos).getArea());
+        }
+    }
+
+    static Mascota leerMascota(ByteBuffer datos) {
+        byte tipo = datos.get();
+        String nombre = Binario.leerTexto(datos);
+        int edad = Binario.leerEntero(datos);
+        String raza = Binario.leerTexto(datos);
+        if (tipo == GATO) {
+            return new Gato(nombre, edad, raza, Binario.leerBooleano(datos));
+        }
+        return new Perro(nombre, edad, raza, Binario.leerTexto(datos));
+    }
+
+    private static void actualizarMascota(ByteBuffer datos, VeterinariaService servicio) {
+        Cliente cliente = buscarCliente(Binario.leerTexto(datos), servicio);
+        Mascota mascota = buscarMascota(cliente, Binario.leerTexto(datos));
+        Mascota datosNuevos = leerMascota(datos);
+        if (!mascota.getNombre().equals(datosNuevos.getNombre())) {
+            mascota.setNombre(datosNuevos.getNombre());
+        }
+        mascota.setEdad(datosNuevos.getEdad());
+        mascota.setRaza(datosNuevos.getRaza());
+        if (mascota instanceof Gato && datosNuevos instanceof Gato) {
+            ((Gato) mascota).setEsDeInterior(((Gato) datosNuevos).isEsDeInterior());
+        } else if (mascota instanceof Perro && datosNuevos instanceof Perro) {
+            ((Perro) mascota).setTamano(((Perro) datosNuevos).getTamano());
+        }
+    }
+
+    private static void actualizarConsulta(ByteBuffer datos, VeterinariaService servicio) {
+        Consulta consulta = servicio.buscarConsultaPorId(Binario.leerEntero(datos));
+        if (consulta == null) {
+            throw new IllegalStateException("Consulta inexistente");
+        }
+        Cliente cliente = buscarCliente(Binario.leerTexto(datos), servicio);
+        String nombreMascota = Binario.leerTexto(datos);
+        // La mascota de la consulta puede estar dada de baja y ya no figurar en el cliente
+        Mascota mascota = consulta.getCliente() == cliente
+                && Mascota.plegarNombre(consulta.getMascota().getNombre()).equals(Mascota.plegarNombre(nombreMascota))
+                ? consulta.getMascota() : buscarMascota(cliente, nombreMascota);
+        Veterinario veterinario = buscarVeterinario(Binario.leerTexto(datos), servicio);
+
+        // En un solo paso: cambiar primero el cliente validaría la mascota vieja contra el nuevo
+        if (consulta.getCliente() != cliente || consulta.getMascota() != mascota
+                || consulta.getVeterinario() != veterinario) {
+            consulta.reasignarSiVersion(consulta.getVersion(), cliente, mascota, veterinario);
+        }
+        consulta.actualizarSiVersion(consulta.getVersion(), Binario.leerTexto(datos), Binario.leerTexto(datos));
+    }
+
+    static Tarea leerTarea(ByteBuffer datos) {
+        int id = Binario.leerEntero(datos);
+        String descripcion = Binario.leerTexto(datos);
+        String estado = Binario.leerTexto(datos);
+        return Tarea.restaurar(id, descripcion, estado, Binario.leerFecha(datos), Binario.leerFecha(datos));
+    }
+
+    // --- Búsquedas que fallan si el diario no es coherente con el estado ---
+
+    private static Persona buscarPersona(byte tipo, String dni, VeterinariaService servicio) {
+        switch (tipo) {
+            case VETERINARIO:
+                return buscarVeterinario(dni, servicio);
+            case ADMINISTRATIVO:
+                return buscarAdministrativo(dni, servicio);
+            default:
+                return buscarCliente(dni, servicio);
+        }
+    }
+
+    static Cliente buscarCliente(String dni, VeterinariaService servicio) {
+        Cliente cliente = servicio.buscarClientePorDni(dni);
+        if (cliente == null) {
+            throw new IllegalStateException("Cliente inexistente: " + dni);
+        }
+        return cliente;
+    }
+
+    static Veterinario buscarVeterinario(String dni, VeterinariaService servicio) {
+        Veterinario veterinario = servicio.buscarVeterinarioPorDni(dni);
+        if (veterinario == null) {
+            throw new IllegalStateException("Veterinario inexistente: " + dni);
+        }
+        return veterinario;
+    }
+
+    private static Administrativo buscarAdministrativo(String dni, VeterinariaService servicio) {
+        Administrativo administrativo = servicio.buscarAdministrativoPorDni(dni);
+        if (administrativo == null) {
+            throw new IllegalStateException("Administrativo inexistente: " + dni);
+        }
+        return administrativo;
+    }
+
+    private static Mascota buscarMascota(Cliente cliente, String nombre) {
+        Mascota mascota = cliente.buscarMascota(nombre);
+        if (mascota == null) {
+            throw new IllegalStateException("Mascota inexistente: " + nombre);
+        }
+        return mascota;
+    }
+
+    private static Tarea buscarTarea(int id, VeterinariaService servicio) {
+        Tarea tarea = servicio.buscarTareaPorId(id);
+        if (tarea == null) {
+            throw new IllegalStateException("Tarea inexistente: " + id);
+        }
+        return tarea;
+    }
+}
@@ -0,0 +1,129 @@
+package com.veterinaria.util;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diccionario de valores de texto repetidos (razas, especialidades, áreas...).
+ * Devuelve siempre la misma instancia para cada valor distinto, de modo que
+ * millones de registros comparten una sola cadena por valor. Es seguro para
+ * usar desde varios hilos. Al llegar al máximo de entradas deja de incorporar
+ * valores nuevos y los devuelve tal cual, para que un campo de texto libre no
+ * lo haga crecer sin límite.
+ */
+public final class Diccionario {
+    // Debe inicializarse antes que los diccionarios, que se registran aquí al crearse
+    private static final List<Diccionario> TODOS = new CopyOnWriteArrayList<>();
+
+    public static final Diccionario RAZAS = new Diccionario("Razas", 4096);
+    public static final Diccionario TAMANOS = new Diccionario("Tamaños de perro", 16);
+    public static final Diccionario ESPECIALIDADES = new Diccionario("Especialidades", 1024);
+    public static final Diccionario AREAS = new Diccionario("Áreas", 1024);
+    public static final Diccionario TRATAMIENTOS = new Diccionario("Tratamientos", 16384);
+
+    private final String nombre;
+    private final int maximo;
+    private final ConcurrentHashMap<String, String> valores = new ConcurrentHashMap<>();
+    private final LongAdder usos = new LongAdder();
+    private final LongAdder bytesAhorrados = new LongAdder();
+
+    public Diccionario(String nombre, int maximo) {
+        if (maximo <= 0) {
+            throw new IllegalArgumentException("El máximo de entradas debe ser positivo");
+        }
+        this.nombre = nombre;
+        this.maximo = maximo;
+        TODOS.add(this);
+    }
+
+    /**
+     * Instancia compartida equivalente al valor recibido; null devuelve null
+     */
+    public String canonico(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        String existente = valores.get(valor);
+        if (existente == null) {
+            if (valores.size() >= maximo) {
+                return valor;
+            }
+            existente = valores.putIfAbsent(valor, valor);
+            if (existente == null) {
+                usos.increment();
+                return valor;
+            }
+        }
+        usos.increment();
+        if (existente != valor) {
+            bytesAhorrados.add(tamanoEstimado(existente));
+        }
+        return existente;
+    }
+
+    /**
+     * Bytes que ocupa una cadena en una JVM de 64 bits con punteros comprimidos:
+     * cabecera de String más el arreglo de bytes (1 por carácter si es Latin-1, 2 si no)
+     */
+    static long tamanoEstimado(String valor) {
+        boolean latin1 = true;
+        for (int i = 0; i < valor.length() && latin1; i++) {
+            latin1 = valor.charAt(i) <= 0xFF;
+        }
+        long arreglo = 16 + (long) valor.length() * (latin1 ? 1 : 2);
+        return 24 + (arreglo + 7) / 8 * 8;
+    }
+
+    // Getters
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getValoresDistintos() {
+        return valores.size();
+    }
+
+    /**
+     * Cantidad de veces que se pidió un valor canónico a este diccionario
+     */
+    public long getUsos() {
+        return usos.sum();
+    }
+
+    /**
+     * Memoria estimada que ocuparían las copias que se descartaron por ya estar en el diccionario
+     */
+    public long getBytesAhorrados() {
+        return bytesAhorrados.sum();
+    }
+
+    /**
+     * Escribe una línea por diccionario con sus valores distintos, usos y memoria ahorrada
+     */
+    public static void escribirInformeEn(Appendable destino) throws IOException {
+        long total = 0;
+        for (Diccionario diccionario : TODOS) {
+            destino.append(diccionario.nombre).append(": ");
+            Renderizado.entero(destino, diccionario.getValoresDistintos());
+            destino.append(" valores distintos, ");
+            Renderizado.entero(destino, diccionario.getUsos());
+            destino.append(" usos, ");
+            Renderizado.entero(destino, diccionario.getBytesAhorrados() / 1024);
+            destino.append(" KiB ahorrados\n");
+            total += diccionario.getBytesAhorrados();
+        }
+        destino.append("Total ahorrado (estimado): ");
+        Renderizado.entero(destino, total / 1024);
+        destino.append(" KiB");
+    }
+
+    /**
+     * Informe de ahorro de memoria de todos los diccionarios
+     */
+    public static String getInforme() {
+        return Renderizado.aTexto(Diccionario::escribirInformeEn);
+    }
+}
\ No newline at end of file
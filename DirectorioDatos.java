@@ -0,0 +1,46 @@
+package com.veterinaria.persistencia;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Ubicación de los archivos persistentes del sistema.
+ * Se configura con la propiedad del sistema "veterinaria.datos" (por defecto "datos").
+ */
+public final class DirectorioDatos {
+    public static final String PROPIEDAD = "veterinaria.datos";
+
+    private DirectorioDatos() {
+    }
+
+    /**
+     * Directorio de datos, creado si no existe
+     */
+    public static Path obtener() {
+        Path directorio = Paths.get(System.getProperty(PROPIEDAD, "datos"));
+        try {
+            return Files.createDirectories(directorio);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio de datos: " + directorio, e);
+        }
+    }
+
+    /**
+     * Reemplaza un archivo de forma atómica: escribe un temporal, lo sincroniza a disco
+     * y lo renombra sobre el destino.
+     */
+    public static void reemplazarAtomicamente(Path destino, byte[] contenido) throws IOException {
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        Files.write(temporal, contenido);
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+            canal.force(true);
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
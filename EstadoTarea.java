@@ -0,0 +1,47 @@
+package com.veterinaria.modelo;
+
+import java.util.Locale;
+
+/**
+ * Estados posibles de una tarea administrativa
+ */
+public enum EstadoTarea {
+    PENDIENTE("Pendiente"),
+    EN_PROCESO("En Proceso"),
+    COMPLETADA("Completada");
+
+    private final String nombre;
+
+    EstadoTarea(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Nombre del estado tal como se muestra al usuario
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene el estado correspondiente a un nombre, sin distinguir mayúsculas.
+     * Devuelve null si el nombre no corresponde a ningún estado.
+     */
+    public static EstadoTarea buscar(String nombre) {
+        if (nombre == null) {
+            return null;
+        }
+        String normalizado = nombre.trim().toLowerCase(Locale.ROOT);
+        for (EstadoTarea estado : values()) {
+            if (estado.nombre.toLowerCase(Locale.ROOT).equals(normalizado)) {
+                return estado;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.veterinaria.eventos;
+
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.EstadoTarea;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.Tarea;
+
+/**
+ * Casillero del anillo del bus de eventos.
+ * Los casilleros se crean una sola vez y se reutilizan: el bus los rellena al
+ * publicar, así que un procesador no debe guardar la referencia al evento más
+ * allá de la llamada a procesar. Solo los campos del tipo de evento están cargados.
+ * Las entidades son las vivas del modelo y pueden haber cambiado desde la
+ * publicación; los datos copiados (DNI, nombres, IDs) reflejan ese momento.
+ */
+public final class Evento {
+    // Secuencia publicada en este casillero; -1 mientras no se usó
+    volatile long secuencia = -1;
+
+    private TipoEvento tipo;
+    private long instante;
+    private Cliente cliente;
+    private Mascota mascota;
+    private Consulta consulta;
+    private Tarea tarea;
+    private EstadoTarea estadoAnterior;
+    private EstadoTarea estadoNuevo;
+    // Copias tomadas al publicar
+    private String dniCliente;
+    private String nombreMascota;
+    private String tipoMascota;
+    private String dniVeterinario;
+    private int idConsulta;
+    private int idTarea;
+
+    Evento() {
+    }
+
+    void consultaCreada(Consulta consulta) {
+        cargar(TipoEvento.CONSULTA_CREADA, consulta.getCliente(), consulta.getMascota(), consulta, null, null, null);
+        this.idConsulta = consulta.getId();
+        this.dniVeterinario = consulta.getVeterinario().getDni();
+    }
+
+    void mascota(TipoEvento tipo, Cliente cliente, Mascota mascota) {
+        cargar(tipo, cliente, mascota, null, null, null, null);
+    }
+
+    void tareaCambioDeEstado(Tarea tarea, EstadoTarea estadoAnterior) {
+        cargar(TipoEvento.TAREA_CAMBIO_ESTADO, null, null, null, tarea, estadoAnterior, tarea.getEstadoTarea());
+    }
+
+    void tareaUrgente(Tarea tarea) {
+        cargar(TipoEvento.TAREA_URGENTE, null, null, null, tarea, null, tarea.getEstadoTarea());
+    }
+
+    // Limpia también los campos de otros tipos para no retener objetos de eventos viejos
+    private void cargar(TipoEvento tipo, Cliente cliente, Mascota mascota, Consulta consulta, Tarea tarea,
+                        EstadoTarea estadoAnterior, EstadoTarea estadoNuevo) {
+        this.tipo = tipo;
+        this.instante = System.currentTimeMillis();
+        this.cliente = cliente;
+        this.mascota = mascota;
+        this.consulta = consulta;
+        this.tarea = tarea;
+        this.estadoAnterior = estadoAnterior;
+        this.estadoNuevo = estadoNuevo;
+        this.dniCliente = cliente != null ? cliente.getDni() : null;
+        this.nombreMascota = mascota != null ? mascota.getNombre() : null;
+        this.tipoMascota = mascota != null ? mascota.getTipoMascota() : null;
+        this.dniVeterinario = null;
+        this.idConsulta = 0;
+        this.idTarea = tarea != null ? tarea.getId() : 0;
+    }
+
+    public TipoEvento getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Momento de la publicación en milisegundos desde la época
+     */
+    public long getInstante() {
+        return instante;
+    }
+
+    /**
+     * Cliente de la consulta o dueño de la mascota
+     */
+    public Cliente getCliente() {
+        return cliente;
+    }
+
+    public Mascota getMascota() {
+        return mascota;
+    }
+
+    public Consulta getConsulta() {
+        return consulta;
+    }
+
+    public Tarea getTarea() {
+        return tarea;
+    }
+
+    public EstadoTarea getEstadoAnterior() {
+        return estadoAnterior;
+    }
+
+    /**
+     * Estado de la tarea al publicarse el evento; puede diferir del actual
+     */
+    public EstadoTarea getEstadoNuevo() {
+        return estadoNuevo;
+    }
+
+    /**
+     * DNI del cliente al publicarse el evento
+     */
+    public String getDniCliente() {
+        return dniCliente;
+    }
+
+    /**
+     * Nombre de la mascota al publicarse el evento
+     */
+    public String getNombreMascota() {
+        return nombreMascota;
+    }
+
+    public String getTipoMascota() {
+        return tipoMascota;
+    }
+
+    /**
+     * DNI del veterinario de la consulta al publicarse el evento
+     */
+    public String getDniVeterinario() {
+        return dniVeterinario;
+    }
+
+    public int getIdConsulta() {
+        return idConsulta;
+    }
+
+    public int getIdTarea() {
+        return idTarea;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,269 @@
+package com.veterinaria.exportacion;
+
+import com.veterinaria.servicio.VistaConsistente;
+import com.veterinaria.servicio.VistaConsistente.FichaCliente;
+import com.veterinaria.servicio.VistaConsistente.FichaConsulta;
+import com.veterinaria.servicio.VistaConsistente.FichaMascota;
+import com.veterinaria.servicio.VistaConsistente.FichaVeterinario;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * Exportación masiva de consultas a CSV o JSON Lines para análisis externos.
+ * Cada consulta se escribe campo por campo sobre una SalidaCanal, sin armar
+ * cadenas por fila, de modo que se pueden exportar millones de consultas
+ * con memoria constante.
+ */
+public final class ExportadorConsultas {
+    private static final String CABECERA_CSV = "id,fecha,dni_cliente,cliente,mascota,tipo_mascota,raza,"
+            + "dni_veterinario,veterinario,especialidad,tratamiento,diagnostico\n";
+
+    /**
+     * Formatos de exportación disponibles
+     */
+    public enum Formato {
+        CSV,
+        JSON_LINEAS
+    }
+
+    private ExportadorConsultas() {
+    }
+
+    /**
+     * Exporta las consultas de una vista consistente, con los datos de clientes,
+     * mascotas y veterinarios tal como estaban en esa versión. Devuelve cuántas
+     * se escribieron.
+     */
+    public static long exportar(VistaConsistente vista, Formato formato, Path archivo) throws IOException {
+        if (vista == null || formato == null || archivo == null) {
+            throw new IllegalArgumentException("La vista, el formato y el archivo son obligatorios");
+        }
+        return exportar(vista, vista.getConsultas(), formato, archivo);
+    }
+
+    /**
+     * Exporta solo las consultas indicadas, que deben ser fichas de la vista
+     */
+    public static long exportar(VistaConsistente vista, Iterable<FichaConsulta> consultas, Formato formato,
+                                Path archivo) throws IOException {
+        if (vista == null || consultas == null || formato == null || archivo == null) {
+            throw new IllegalArgumentException("La vista, las consultas, el formato y el archivo son obligatorios");
+        }
+
+        long cantidad = 0;
+        Fila fila = new Fila();
+        try (SalidaCanal salida = abrir(formato, archivo)) {
+            for (FichaConsulta consulta : consultas) {
+                fila.de(consulta, vista.getCliente(consulta), vista.getMascota(consulta),
+                        vista.getVeterinario(consulta));
+                escribir(salida, formato, fila);
+                cantidad++;
+            }
+        }
+        return cantidad;
+    }
+
+    private static SalidaCanal abrir(Formato formato, Path archivo) throws IOException {
+        Path directorio = archivo.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+        SalidaCanal salida = new SalidaCanal(archivo);
+        if (formato == Formato.CSV) {
+            try {
+                salida.append(CABECERA_CSV);
+            } catch (IOException e) {
+                salida.close();
+                throw e;
+            }
+        }
+        return salida;
+    }
+
+    private static void escribir(SalidaCanal salida, Formato formato, Fila fila) throws IOException {
+        if (formato == Formato.CSV) {
+            escribirCsv(salida, fila);
+        } else {
+            escribirJson(salida, fila);
+        }
+    }
+
+    /**
+     * Campos de una fila exportada; se reutiliza entre consultas para no crear objetos por fila
+     */
+    private static final class Fila {
+        int id;
+        LocalDateTime fecha;
+        String dniCliente;
+        String nombreCliente;
+        String apellidoCliente;
+        String mascota;
+        String tipoMascota;
+        String raza;
+        String dniVeterinario;
+        String nombreVeterinario;
+        String apellidoVeterinario;
+        String especialidad;
+        String tratamiento;
+        String diagnostico;
+
+        void de(FichaConsulta consulta, FichaCliente cliente, FichaMascota mascota, FichaVeterinario veterinario) {
+            id = consulta.getId();
+            fecha = consulta.getFechaConsulta();
+            dniCliente = cliente.getDni();
+            nombreCliente = cliente.getNombre();
+            apellidoCliente = cliente.getApellido();
+            this.mascota = mascota.getNombre();
+            tipoMascota = mascota.getTipoMascota();
+            raza = mascota.getRaza();
+            dniVeterinario = veterinario.getDni();
+            nombreVeterinario = veterinario.getNombre();
+            apellidoVeterinario = veterinario.getApellido();
+            especialidad = veterinario.getEspecialidad();
+            tratamiento = consulta.getTratamiento();
+            diagnostico = consulta.getDiagnostico();
+        }
+    }
+
+    private static void escribirCsv(SalidaCanal salida, Fila fila) throws IOException {
+        Renderizado.entero(salida, fila.id);
+        salida.append(',');
+        Renderizado.fechaIso(salida, fila.fecha);
+        salida.append(',');
+        campoCsv(salida, fila.dniCliente);
+        salida.append(',');
+        nombreCompletoCsv(salida, fila.nombreCliente, fila.apellidoCliente);
+        salida.append(',');
+        campoCsv(salida, fila.mascota);
+        salida.append(',');
+        campoCsv(salida, fila.tipoMascota);
+        salida.append(',');
+        campoCsv(salida, fila.raza);
+        salida.append(',');
+        campoCsv(salida, fila.dniVeterinario);
+        salida.append(',');
+        nombreCompletoCsv(salida, fila.nombreVeterinario, fila.apellidoVeterinario);
+        salida.append(',');
+        campoCsv(salida, fila.especialidad);
+        salida.append(',');
+        campoCsv(salida, fila.tratamiento);
+        salida.append(',');
+        campoCsv(salida, fila.diagnostico);
+        salida.append('\n');
+    }
+
+    private static void nombreCompletoCsv(SalidaCanal salida, String nombre, String apellido) throws IOException {
+        if (requiereComillas(nombre) || requiereComillas(apellido)) {
+            salida.append('"');
+            textoCsv(salida, nombre);
+            salida.append(' ');
+            textoCsv(salida, apellido);
+            salida.append('"');
+        } else {
+            salida.append(nombre).append(' ').append(apellido);
+        }
+    }
+
+    /**
+     * Escribe un campo CSV, entre comillas solo si contiene separadores, comillas o saltos de línea
+     */
+    private static void campoCsv(SalidaCanal salida, String valor) throws IOException {
+        if (requiereComillas(valor)) {
+            salida.append('"');
+            textoCsv(salida, valor);
+            salida.append('"');
+        } else {
+            salida.append(valor);
+        }
+    }
+
+    private static boolean requiereComillas(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void textoCsv(SalidaCanal salida, String valor) throws IOException {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                salida.append('"');
+            }
+            salida.append(c);
+        }
+    }
+
+    private static void escribirJson(SalidaCanal salida, Fila fila) throws IOException {
+        salida.append("{\"id\":");
+        Renderizado.entero(salida, fila.id);
+        salida.append(",\"fecha\":\"");
+        Renderizado.fechaIso(salida, fila.fecha);
+        salida.append('"');
+        campoJson(salida, "dniCliente", fila.dniCliente);
+        salida.append(",\"cliente\":\"");
+        textoJson(salida, fila.nombreCliente);
+        salida.append(' ');
+        textoJson(salida, fila.apellidoCliente);
+        salida.append('"');
+        campoJson(salida, "mascota", fila.mascota);
+        campoJson(salida, "tipoMascota", fila.tipoMascota);
+        campoJson(salida, "raza", fila.raza);
+        campoJson(salida, "dniVeterinario", fila.dniVeterinario);
+        salida.append(",\"veterinario\":\"");
+        textoJson(salida, fila.nombreVeterinario);
+        salida.append(' ');
+        textoJson(salida, fila.apellidoVeterinario);
+        salida.append('"');
+        campoJson(salida, "especialidad", fila.especialidad);
+        campoJson(salida, "tratamiento", fila.tratamiento);
+        campoJson(salida, "diagnostico", fila.diagnostico);
+        salida.append("}\n");
+    }
+
+    private static void campoJson(SalidaCanal salida, String clave, String valor) throws IOException {
+        salida.append(",\"").append(clave).append("\":\"");
+        textoJson(salida, valor);
+        salida.append('"');
+    }
+
+    /**
+     * Escribe el contenido de una cadena JSON escapando comillas, barras y caracteres de control
+     */
+    private static void textoJson(SalidaCanal salida, String valor) throws IOException {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"':
+                    salida.append("\\\"");
+                    break;
+                case '\\':
+                    salida.append("\\\\");
+                    break;
+                case '\n':
+                    salida.append("\\n");
+                    break;
+                case '\r':
+                    salida.append("\\r");
+                    break;
+                case '\t':
+                    salida.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        salida.append("\\u00");
+                        salida.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        salida.append(c);
+                    }
+            }
+        }
+    }
+}
\ No newline at end of file
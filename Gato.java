@@ -1,10 +1,19 @@
 package com.veterinaria.modelo;
 
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
+
 /**
  * Clase Gato que hereda de Mascota.
  * Demuestra herencia y implementación de métodos abstractos.
  */
 public class Gato extends Mascota {
+    private static final String RONRONEAR = " está ronroneando: Prrrrr...";
+    private static final String TREPAR = " está trepando como todo buen gato.";
+    private static final String CAZAR_EN_CASA = " está cazando juguetes en casa.";
+    private static final String CAZAR_AFUERA = " está cazando en el exterior.";
+
     private boolean esDeInterior;
 
     /**
@@ -37,33 +46,33 @@ public class Gato extends Mascota {
      */
     @Override
     public String getInformacionEspecifica() {
-        return String.format("Tipo de gato: %s", 
-                           esDeInterior ? "Gato de interior" : "Gato de exterior");
+        return Renderizado.aTexto(this::escribirInformacionEspecificaEn);
+    }
+
+    @Override
+    protected void escribirInformacionEspecificaEn(Appendable destino) throws IOException {
+        destino.append("Tipo de gato: ").append(esDeInterior ? "Gato de interior" : "Gato de exterior");
     }
 
     /**
      * Método específico de los gatos
      */
     public String ronronear() {
-        return nombre + " está ronroneando: Prrrrr...";
+        return nombre + RONRONEAR;
     }
 
     /**
      * Método específico de los gatos
      */
     public String trepar() {
-        return nombre + " está trepando como todo buen gato.";
+        return nombre + TREPAR;
     }
 
     /**
      * Método específico de los gatos
      */
     public String cazar() {
-        if (esDeInterior) {
-            return nombre + " está cazando juguetes en casa.";
-        } else {
-            return nombre + " está cazando en el exterior.";
-        }
+        return nombre + (esDeInterior ? CAZAR_EN_CASA : CAZAR_AFUERA);
     }
 
     /**
@@ -93,21 +102,21 @@ public class Gato extends Mascota {
     }
 
     public void setEsDeInterior(boolean esDeInterior) {
-        this.esDeInterior = esDeInterior;
+        modificar(() -> {
+            this.esDeInterior = esDeInterior;
+            notificarModificacion();
+        });
     }
 
     /**
-     * Representación en string específica del gato
+     * Representación en texto específica del gato
      */
     @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(super.toString()).append("\n");
-        sb.append("Acciones especiales de gato:\n");
-        sb.append("- ").append(ronronear()).append("\n");
-        sb.append("- ").append(trepar()).append("\n");
-        sb.append("- ").append(cazar());
-        
-        return sb.toString();
+    public void escribirEn(Appendable destino) throws IOException {
+        super.escribirEn(destino);
+        destino.append("\nAcciones especiales de gato:\n")
+               .append("- ").append(nombre).append(RONRONEAR).append('\n')
+               .append("- ").append(nombre).append(TREPAR).append('\n')
+               .append("- ").append(nombre).append(esDeInterior ? CAZAR_EN_CASA : CAZAR_AFUERA);
     }
 }
\ No newline at end of file
@@ -0,0 +1,381 @@
+package com.veterinaria.importacion;
+
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Gato;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.Perro;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.servicio.VeterinariaService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Importación masiva de clientes, mascotas y veterinarios desde CSV.
+ * Cada línea empieza con el tipo de registro:
+ * <pre>
+ * cliente,nombre,apellido,dni,telefono,email
+ * veterinario,nombre,apellido,dni,telefono,email,especialidad
+ * mascota,dniCliente,perro|gato,nombre,edad,raza,tamaño|esDeInterior
+ * </pre>
+ * El proceso tiene tres etapas:
+ * <ol>
+ * <li>Las líneas se reparten en bloques que se interpretan y validan en paralelo
+ * sobre un ForkJoinPool, construyendo los objetos del modelo con sus validadores.</li>
+ * <li>En orden de línea se descartan los DNI repetidos (en el archivo o ya registrados)
+ * y las mascotas repetidas por cliente, y cada mascota se asocia a su cliente.</li>
+ * <li>Las altas se confirman en el servicio por lotes, en paralelo dentro de cada lote,
+ * para que el diario agrupe las escrituras a disco.</li>
+ * </ol>
+ * Una fila inválida no detiene la importación: su error queda en el resultado.
+ */
+public class ImportadorMasivo {
+    private static final int LINEAS_POR_BLOQUE = 512;
+    private static final int ALTAS_POR_LOTE = 256;
+
+    private final VeterinariaService servicio;
+    private final ForkJoinPool pool;
+
+    public ImportadorMasivo(VeterinariaService servicio) {
+        this(servicio, ForkJoinPool.commonPool());
+    }
+
+    public ImportadorMasivo(VeterinariaService servicio, ForkJoinPool pool) {
+        if (servicio == null || pool == null) {
+            throw new IllegalArgumentException("El servicio y el pool son obligatorios");
+        }
+        this.servicio = servicio;
+        this.pool = pool;
+    }
+
+    /**
+     * Importa un archivo CSV codificado en UTF-8
+     */
+    public ResultadoImportacion importar(Path archivo) throws IOException {
+        return importar(Files.readAllLines(archivo, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Importa las líneas indicadas; la primera línea es la número 1
+     */
+    public ResultadoImportacion importar(List<String> lineas) {
+        Queue<ResultadoImportacion.FilaRechazada> errores = new ConcurrentLinkedQueue<>();
+
+        // 1. Interpretar y validar en paralelo
+        Bloque filas = pool.invoke(new Interpretar(lineas, 0, lineas.size()));
+        errores.addAll(filas.errores);
+
+        // 2. Descartar duplicados y asociar mascotas, en orden de línea
+        Map<String, Fila<Cliente>> clientesNuevos = new LinkedHashMap<>();
+        for (Fila<Cliente> fila : filas.clientes) {
+            String dni = fila.valor.getDni();
+            Fila<Cliente> anterior = clientesNuevos.get(dni);
+            if (anterior != null) {
+                errores.add(rechazo(fila.linea, "DNI de cliente repetido en la línea " + anterior.linea + ": " + dni));
+            } else if (servicio.buscarClientePorDni(dni) != null) {
+                errores.add(rechazo(fila.linea, "Ya existe un cliente con DNI: " + dni));
+            } else {
+                clientesNuevos.put(dni, fila);
+            }
+        }
+
+        Map<String, Fila<Veterinario>> veterinariosNuevos = new LinkedHashMap<>();
+        for (Fila<Veterinario> fila : filas.veterinarios) {
+            String dni = fila.valor.getDni();
+            Fila<Veterinario> anterior = veterinariosNuevos.get(dni);
+            if (anterior != null) {
+                errores.add(rechazo(fila.linea, "DNI de veterinario repetido en la línea " + anterior.linea + ": " + dni));
+            } else if (servicio.buscarVeterinarioPorDni(dni) != null) {
+                errores.add(rechazo(fila.linea, "Ya existe un veterinario con DNI: " + dni));
+            } else {
+                veterinariosNuevos.put(dni, fila);
+            }
+        }
+
+        // Las mascotas de clientes nuevos viajan con su cliente; las de clientes
+        // ya registrados se agregan después, agrupadas por cliente
+        int mascotasNuevas = 0;
+        Map<Cliente, List<Fila<Mascota>>> mascotasDeExistentes = new LinkedHashMap<>();
+        Map<Cliente, Set<String>> nombresPorExistente = new HashMap<>();
+        for (FilaMascota fila : filas.mascotas) {
+            Fila<Cliente> clienteNuevo = clientesNuevos.get(fila.dniCliente);
+            Mascota mascota = fila.valor;
+            if (clienteNuevo != null) {
+                try {
+                    clienteNuevo.valor.agregarMascota(mascota);
+                    mascotasNuevas++;
+                } catch (IllegalArgumentException e) {
+                    errores.add(rechazo(fila.linea, e.getMessage()));
+                }
+                continue;
+            }
+
+            Cliente existente = servicio.buscarClientePorDni(fila.dniCliente);
+            if (existente == null) {
+                errores.add(rechazo(fila.linea, "Cliente no encontrado: " + fila.dniCliente));
+            } else if (existente.buscarMascota(mascota.getNombre()) != null
+                    || !nombresPorExistente.computeIfAbsent(existente, c -> new HashSet<>())
+                            .add(Mascota.plegarNombre(mascota.getNombre()))) {
+                errores.add(rechazo(fila.linea, "Ya existe una mascota con el nombre: " + mascota.getNombre()));
+            } else {
+                mascotasDeExistentes.computeIfAbsent(existente, c -> new ArrayList<>())
+                        .add(new Fila<>(fila.linea, mascota));
+            }
+        }
+
+        // 3. Confirmar por lotes
+        List<Alta> altas = new ArrayList<>();
+        for (Fila<Cliente> fila : clientesNuevos.values()) {
+            altas.add(new Alta(fila.linea, () -> servicio.agregarCliente(fila.valor)));
+        }
+        for (Fila<Veterinario> fila : veterinariosNuevos.values()) {
+            altas.add(new Alta(fila.linea, () -> servicio.agregarVeterinario(fila.valor)));
+        }
+        confirmar(altas, errores);
+
+        // Una tarea por cliente, para no competir por su cerrojo
+        List<Alta> altasMascotas = new ArrayList<>();
+        for (Map.Entry<Cliente, List<Fila<Mascota>>> entrada : mascotasDeExistentes.entrySet()) {
+            Cliente cliente = entrada.getKey();
+            List<Fila<Mascota>> mascotas = entrada.getValue();
+            altasMascotas.add(new Alta(mascotas.get(0).linea, () -> {
+                for (Fila<Mascota> fila : mascotas) {
+                    try {
+                        servicio.agregarMascota(cliente.getDni(), fila.valor);
+                    } catch (IllegalArgumentException e) {
+                        errores.add(rechazo(fila.linea, e.getMessage()));
+                    }
+                }
+            }));
+        }
+        confirmar(altasMascotas, errores);
+
+        // Contar solo lo que efectivamente quedó registrado
+        int clientes = 0;
+        int mascotas = mascotasNuevas;
+        for (Fila<Cliente> fila : clientesNuevos.values()) {
+            if (servicio.buscarClientePorDni(fila.valor.getDni()) == fila.valor) {
+                clientes++;
+            } else {
+                mascotas -= fila.valor.getCantidadMascotas();
+            }
+        }
+        for (List<Fila<Mascota>> pendientes : mascotasDeExistentes.values()) {
+            for (Fila<Mascota> fila : pendientes) {
+                if (fila.valor.getPropietario() != null) {
+                    mascotas++;
+                }
+            }
+        }
+        int veterinarios = 0;
+        for (Fila<Veterinario> fila : veterinariosNuevos.values()) {
+            if (servicio.buscarVeterinarioPorDni(fila.valor.getDni()) == fila.valor) {
+                veterinarios++;
+            }
+        }
+        return new ResultadoImportacion(clientes, veterinarios, mascotas, new ArrayList<>(errores));
+    }
+
+    private void confirmar(List<Alta> altas, Queue<ResultadoImportacion.FilaRechazada> errores) {
+        for (int desde = 0; desde < altas.size(); desde += ALTAS_POR_LOTE) {
+            int hasta = Math.min(desde + ALTAS_POR_LOTE, altas.size());
+            pool.invoke(new Confirmar(altas, desde, hasta, errores));
+        }
+    }
+
+    private static ResultadoImportacion.FilaRechazada rechazo(int linea, String mensaje) {
+        return new ResultadoImportacion.FilaRechazada(linea, mensaje);
+    }
+
+    // --- Etapa 1: interpretación en paralelo ---
+
+    private static final class Interpretar extends RecursiveTask<Bloque> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> lineas;
+        private final int desde;
+        private final int hasta;
+
+        Interpretar(List<String> lineas, int desde, int hasta) {
+            this.lineas = lineas;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Bloque compute() {
+            if (hasta - desde <= LINEAS_POR_BLOQUE) {
+                Bloque bloque = new Bloque();
+                for (int i = desde; i < hasta; i++) {
+                    interpretar(lineas.get(i), i + 1, bloque);
+                }
+                return bloque;
+            }
+
+            int medio = (desde + hasta) >>> 1;
+            Interpretar izquierda = new Interpretar(lineas, desde, medio);
+            izquierda.fork();
+            Bloque derecha = new Interpretar(lineas, medio, hasta).compute();
+            return izquierda.join().unir(derecha);
+        }
+    }
+
+    private static void interpretar(String linea, int numero, Bloque bloque) {
+        String contenido = linea.trim();
+        if (contenido.isEmpty() || contenido.startsWith("#") || contenido.startsWith("tipo,")) {
+            return;
+        }
+
+        try {
+            List<String> campos = LectorCsv.dividir(contenido);
+            String tipo = campos.get(0).trim().toLowerCase(Locale.ROOT);
+            switch (tipo) {
+                case "cliente":
+                    exigirCampos(campos, 5);
+                    bloque.clientes.add(new Fila<>(numero, new Cliente(campos.get(1), campos.get(2),
+                            campos.get(3), campos.get(4), campos.get(5))));
+                    break;
+                case "veterinario":
+                    exigirCampos(campos, 6);
+                    bloque.veterinarios.add(new Fila<>(numero, new Veterinario(campos.get(1), campos.get(2),
+                            campos.get(3), campos.get(4), campos.get(5), campos.get(6))));
+                    break;
+                case "mascota":
+                    exigirCampos(campos, 6);
+                    bloque.mascotas.add(new FilaMascota(numero, campos.get(1).trim(), crearMascota(campos)));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Tipo de registro desconocido: " + campos.get(0).trim());
+            }
+        } catch (IllegalArgumentException e) {
+            bloque.errores.add(rechazo(numero, e.getMessage()));
+        }
+    }
+
+    private static Mascota crearMascota(List<String> campos) {
+        int edad;
+        try {
+            edad = Integer.parseInt(campos.get(4).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("La edad debe ser un número: " + campos.get(4).trim());
+        }
+
+        switch (campos.get(2).trim().toLowerCase(Locale.ROOT)) {
+            case "perro":
+                return new Perro(campos.get(3), edad, campos.get(5), campos.get(6));
+            case "gato":
+                return new Gato(campos.get(3), edad, campos.get(5), Boolean.parseBoolean(campos.get(6).trim()));
+            default:
+                throw new IllegalArgumentException("Tipo de mascota no válido: " + campos.get(2).trim());
+        }
+    }
+
+    private static void exigirCampos(List<String> campos, int cantidad) {
+        if (campos.size() - 1 < cantidad) {
+            throw new IllegalArgumentException(campos.get(0).trim() + " requiere " + cantidad
+                    + " datos y se recibieron " + (campos.size() - 1));
+        }
+    }
+
+    // --- Etapa 3: confirmación en paralelo ---
+
+    private static final class Confirmar extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int UMBRAL = 16;
+
+        private final List<Alta> altas;
+        private final int desde;
+        private final int hasta;
+        private final Queue<ResultadoImportacion.FilaRechazada> errores;
+
+        Confirmar(List<Alta> altas, int desde, int hasta, Queue<ResultadoImportacion.FilaRechazada> errores) {
+            this.altas = altas;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.errores = errores;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= UMBRAL) {
+                for (int i = desde; i < hasta; i++) {
+                    Alta alta = altas.get(i);
+                    try {
+                        alta.accion.run();
+                    } catch (IllegalArgumentException e) {
+                        // Por ejemplo, un DNI dado de alta por otro usuario durante la importación
+                        errores.add(rechazo(alta.linea, e.getMessage()));
+                    }
+                }
+                return;
+            }
+
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new Confirmar(altas, desde, medio, errores), new Confirmar(altas, medio, hasta, errores));
+        }
+    }
+
+    // --- Estructuras intermedias ---
+
+    private static class Fila<T> {
+        final int linea;
+        final T valor;
+
+        Fila(int linea, T valor) {
+            this.linea = linea;
+            this.valor = valor;
+        }
+    }
+
+    private static final class FilaMascota extends Fila<Mascota> {
+        final String dniCliente;
+
+        FilaMascota(int linea, String dniCliente, Mascota mascota) {
+            super(linea, mascota);
+            this.dniCliente = dniCliente;
+        }
+    }
+
+    private static final class Alta {
+        final int linea;
+        final Runnable accion;
+
+        Alta(int linea, Runnable accion) {
+            this.linea = linea;
+            this.accion = accion;
+        }
+    }
+
+    /**
+     * Filas interpretadas de un rango de líneas, en orden de línea
+     */
+    private static final class Bloque {
+        final List<Fila<Cliente>> clientes = new ArrayList<>();
+        final List<Fila<Veterinario>> veterinarios = new ArrayList<>();
+        final List<FilaMascota> mascotas = new ArrayList<>();
+        final List<ResultadoImportacion.FilaRechazada> errores = new ArrayList<>();
+
+        Bloque unir(Bloque siguiente) {
+            clientes.addAll(siguiente.clientes);
+            veterinarios.addAll(siguiente.veterinarios);
+            mascotas.addAll(siguiente.mascotas);
+            errores.addAll(siguiente.errores);
+            return this;
+        }
+    }
+}
\ No newline at end of file
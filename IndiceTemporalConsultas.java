@@ -0,0 +1,89 @@
+package com.veterinaria.servicio;
+
+import com.veterinaria.modelo.Consulta;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Índice de consultas particionado por día.
+ * Cada día es una cubeta ordenada por fecha de consulta, de modo que las
+ * consultas de hoy, de las últimas 24 horas o de un rango solo visitan las
+ * cubetas involucradas y no el historial completo.
+ */
+public class IndiceTemporalConsultas {
+    private final ConcurrentSkipListMap<LocalDate, Cubeta> cubetas = new ConcurrentSkipListMap<>();
+
+    /**
+     * Agrega una consulta a la cubeta de su día
+     */
+    public void agregar(Consulta consulta) {
+        LocalDateTime fecha = consulta.getFechaConsulta();
+        Cubeta cubeta = cubetas.computeIfAbsent(fecha.toLocalDate(), dia -> new Cubeta());
+        if (cubeta.consultas.putIfAbsent(new Clave(fecha, consulta.getId()), consulta) == null) {
+            cubeta.cantidad.incrementAndGet();
+        }
+    }
+
+    /**
+     * Consultas de un día, ordenadas por hora
+     */
+    public List<Consulta> delDia(LocalDate dia) {
+        Cubeta cubeta = cubetas.get(dia);
+        return cubeta != null ? new ArrayList<>(cubeta.consultas.values()) : new ArrayList<>();
+    }
+
+    /**
+     * Consultas con fecha en el rango [desde, hasta), ordenadas por fecha.
+     * Solo se visitan las cubetas de los días del rango.
+     */
+    public List<Consulta> entre(LocalDateTime desde, LocalDateTime hasta) {
+        List<Consulta> resultado = new ArrayList<>();
+        if (!desde.isBefore(hasta)) {
+            return resultado;
+        }
+
+        Clave inicio = new Clave(desde, Integer.MIN_VALUE);
+        Clave fin = new Clave(hasta, Integer.MIN_VALUE);
+        for (Cubeta cubeta : cubetas.subMap(desde.toLocalDate(), true, hasta.toLocalDate(), true).values()) {
+            resultado.addAll(cubeta.consultas.subMap(inicio, fin).values());
+        }
+        return resultado;
+    }
+
+    /**
+     * Cantidad de consultas de un día, en tiempo constante
+     */
+    public int contarDelDia(LocalDate dia) {
+        Cubeta cubeta = cubetas.get(dia);
+        return cubeta != null ? cubeta.cantidad.get() : 0;
+    }
+
+    /**
+     * Consultas de un día ordenadas por fecha y, a igual fecha, por ID
+     */
+    private static final class Cubeta {
+        final ConcurrentSkipListMap<Clave, Consulta> consultas = new ConcurrentSkipListMap<>();
+        final AtomicInteger cantidad = new AtomicInteger();
+    }
+
+    private static final class Clave implements Comparable<Clave> {
+        final LocalDateTime fecha;
+        final int id;
+
+        Clave(LocalDateTime fecha, int id) {
+            this.fecha = fecha;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Clave otra) {
+            int comparacion = fecha.compareTo(otra.fecha);
+            return comparacion != 0 ? comparacion : Integer.compare(id, otra.id);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.veterinaria.analisis;
+
+import com.veterinaria.servicio.VistaConsistente.FichaVeterinario;
+import com.veterinaria.util.Renderizable;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resultado del análisis de consultas: una tabla por dimensión
+ */
+public final class InformeConsultas implements Renderizable {
+    private static final Function<FichaVeterinario, String> NOMBRE_VETERINARIO =
+            v -> "Dr. " + v.getNombreCompleto() + " (" + v.getDni() + ")";
+
+    private final long total;
+    private final boolean paralelo;
+    private final TablaConteos<FichaVeterinario> porVeterinario;
+    private final TablaConteos<String> porEspecialidad;
+    private final TablaConteos<String> porEspecie;
+    private final TablaConteos<String> porRaza;
+    private final TablaConteos<YearMonth> porMes;
+
+    InformeConsultas(AcumuladorConsultas acumulador, boolean paralelo) {
+        this.total = acumulador.total;
+        this.paralelo = paralelo;
+        this.porVeterinario = new TablaConteos<>(acumulador.porVeterinario,
+                TablaConteos.porCantidad(NOMBRE_VETERINARIO), NOMBRE_VETERINARIO);
+        this.porEspecialidad = tablaDeTextos(acumulador.porEspecialidad);
+        this.porEspecie = tablaDeTextos(acumulador.porEspecie);
+        this.porRaza = tablaDeTextos(acumulador.porRaza);
+        // Los meses en orden cronológico
+        this.porMes = new TablaConteos<>(acumulador.porMes,
+                Comparator.comparing(TablaConteos.Fila::getClave), YearMonth::toString);
+    }
+
+    private static TablaConteos<String> tablaDeTextos(Map<String, long[]> conteos) {
+        return new TablaConteos<>(conteos, TablaConteos.porCantidad(Function.identity()), Function.identity());
+    }
+
+    /**
+     * Cantidad de consultas analizadas
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Si el análisis se repartió entre varios hilos
+     */
+    public boolean isParalelo() {
+        return paralelo;
+    }
+
+    public TablaConteos<FichaVeterinario> getPorVeterinario() {
+        return porVeterinario;
+    }
+
+    public TablaConteos<String> getPorEspecialidad() {
+        return porEspecialidad;
+    }
+
+    /**
+     * Consultas por tipo de mascota, según Mascota.getTipoMascota
+     */
+    public TablaConteos<String> getPorEspecie() {
+        return porEspecie;
+    }
+
+    public TablaConteos<String> getPorRaza() {
+        return porRaza;
+    }
+
+    public TablaConteos<YearMonth> getPorMes() {
+        return porMes;
+    }
+
+    @Override
+    public void escribirEn(Appendable destino) throws IOException {
+        destino.append("Consultas analizadas: ");
+        Renderizado.entero(destino, total);
+        destino.append("\n--- Por veterinario ---\n");
+        porVeterinario.escribirEn(destino);
+        destino.append("--- Por especialidad ---\n");
+        porEspecialidad.escribirEn(destino);
+        destino.append("--- Por especie ---\n");
+        porEspecie.escribirEn(destino);
+        destino.append("--- Por raza ---\n");
+        porRaza.escribirEn(destino);
+        destino.append("--- Por mes ---\n");
+        porMes.escribirEn(destino);
+    }
+
+    @Override
+    public String toString() {
+        return Renderizado.aTexto(this);
+    }
+}
\ No newline at end of file
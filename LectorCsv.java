@@ -0,0 +1,49 @@
+package com.veterinaria.importacion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Separación de una línea CSV en campos.
+ * Admite campos entre comillas con comas y comillas dobladas ("") en su interior;
+ * los campos con saltos de línea no están soportados.
+ */
+final class LectorCsv {
+    private LectorCsv() {
+    }
+
+    static List<String> dividir(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+}
\ No newline at end of file
@@ -1,8 +1,27 @@
 package com.veterinaria;
 
+import com.veterinaria.eventos.BusEventos;
+import com.veterinaria.eventos.RegistroAuditoria;
+import com.veterinaria.exportacion.ExportadorConsultas;
+import com.veterinaria.historico.ArchivoHistorico;
+import com.veterinaria.importacion.ImportadorMasivo;
+import com.veterinaria.importacion.ResultadoImportacion;
 import com.veterinaria.modelo.*;
+import com.veterinaria.persistencia.ArchivoInstantanea;
+import com.veterinaria.persistencia.DiarioVeterinaria;
+import com.veterinaria.persistencia.DirectorioDatos;
+import com.veterinaria.servicio.Pagina;
 import com.veterinaria.servicio.VeterinariaService;
 import com.veterinaria.util.ConsoleHelper;
+import com.veterinaria.util.Diccionario;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
 
 /**
  * Clase principal sistema de gestión de veterinaria
@@ -11,16 +30,119 @@ import com.veterinaria.util.ConsoleHelper;
 public class Main {
     private static VeterinariaService veterinariaService = new VeterinariaService();
     private static ConsoleHelper console = new ConsoleHelper();
+    private static final int TAMANO_PAGINA = 10;
+    // Cada cuánto se buscan tareas que acaban de volverse urgentes
+    private static final Duration REVISION_URGENCIAS = Duration.ofMinutes(1);
 
-    public static void main(String[] args) {
+    /**
+     * Sin argumentos muestra el menú interactivo. Con "--lote archivo" ejecuta un
+     * script de operaciones (ver ProcesadorLotes); con "--lote -" lo lee de la entrada estándar.
+     * Con "--importar archivo.csv" incorpora clientes, mascotas y veterinarios (ver ImportadorMasivo).
+     * Con "--servidor [puerto]" atiende terminales por un socket local (ver ServidorVeterinaria).
+     */
+    public static void main(String[] args) throws IOException {
+        ConsoleHelper.activarSalidaConBufer();
+        String lote = args.length >= 2 && args[0].equals("--lote") ? args[1] : null;
+        String importacion = args.length >= 2 && args[0].equals("--importar") ? args[1] : null;
+        boolean servidor = args.length >= 1 && args[0].equals("--servidor");
+        
         System.out.println("=== Sistema de Gestión Veterinaria ===");
         System.out.println("Demostrando conceptos de POO: Herencia, Composición y Polimorfismo\n");
 
-        // Demostrar funcionalidades del sistema
-        demonstrarSistema();
+        // Recuperar el estado guardado: instantánea más los cambios posteriores del diario
+        Path datos = DirectorioDatos.obtener();
+        Path instantanea = datos.resolve("instantanea.bin");
+        long lsn = ArchivoInstantanea.cargar(instantanea, veterinariaService);
+        DiarioVeterinaria diario = DiarioVeterinaria.abrir(datos.resolve("diario.bin"), veterinariaService, lsn);
+        // La auditoría se escribe en segundo plano, fuera del camino de cada operación
+        BusEventos eventos = new BusEventos(BusEventos.CAPACIDAD_PREDETERMINADA);
+        eventos.suscribir("auditoria", new RegistroAuditoria(datos.resolve("auditoria.log")));
+        eventos.iniciar();
+        veterinariaService.agregarObservador(eventos);
+        veterinariaService.iniciarAvisosDeUrgencia(REVISION_URGENCIAS);
+        try {
+            if (lote != null) {
+                ejecutarLote(lote);
+            } else if (servidor) {
+                servir(args.length >= 2 ? Integer.parseInt(args[1]) : ServidorVeterinaria.PUERTO_PREDETERMINADO);
+            } else if (importacion != null) {
+                importar(importacion);
+            } else if (veterinariaService.getClientes().isEmpty()) {
+                // Demostrar funcionalidades del sistema
+                demonstrarSistema();
+            } else {
+                System.out.println("Datos recuperados de la instantánea y el diario.\n");
+            }
+            
+            // Menú interactivo
+            if (lote == null && importacion == null && !servidor) {
+                mostrarMenuPrincipal();
+            }
+            
+            // Al salir, consolidar el estado para acelerar el próximo inicio
+            diario.compactar(instantanea);
+        } finally {
+            veterinariaService.detenerAvisosDeUrgencia();
+            veterinariaService.quitarObservador(eventos);
+            eventos.close();
+            diario.close();
+            System.out.flush();
+        }
+    }
+
+    /**
+     * Importa un archivo CSV de clientes, mascotas y veterinarios e informa las filas rechazadas
+     */
+    private static void importar(String archivo) throws IOException {
+        long inicio = System.nanoTime();
+        ResultadoImportacion resultado = new ImportadorMasivo(veterinariaService).importar(Paths.get(archivo));
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        
+        for (ResultadoImportacion.FilaRechazada fila : resultado.getErrores()) {
+            System.err.println(fila);
+        }
+        System.out.println(resultado + " (" + milisegundos + " ms)");
+    }
+
+    /**
+     * Atiende terminales por el socket local hasta que se escriba "salir".
+     * Si la entrada estándar no es interactiva, sigue atendiendo hasta que terminen el proceso.
+     */
+    private static void servir(int puerto) throws IOException {
+        try (ServidorVeterinaria servidor = new ServidorVeterinaria(veterinariaService, puerto)) {
+            servidor.iniciar();
+            System.out.println("Servidor escuchando en localhost:" + servidor.getPuerto()
+                    + (servidor.usaHilosVirtuales() ? " (hilos virtuales)" : " (hilos de plataforma)")
+                    + ". Escriba 'salir' para detenerlo.");
+            String linea;
+            while ((linea = console.siguienteLinea()) != null) {
+                if (linea.trim().equalsIgnoreCase("salir")) {
+                    System.out.println("Conexiones atendidas: " + servidor.getConexionesAtendidas());
+                    return;
+                }
+            }
+            System.out.flush();
+            try {
+                servidor.esperar();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Ejecuta un script de operaciones desde un archivo o desde la entrada estándar ("-")
+     */
+    private static void ejecutarLote(String origen) throws IOException {
+        ConsoleHelper entrada = origen.equals("-") ? console : ConsoleHelper.desdeArchivo(Paths.get(origen));
+        ProcesadorLotes procesador = new ProcesadorLotes(veterinariaService);
         
-        // Menú interactivo
-        mostrarMenuPrincipal();
+        long inicio = System.nanoTime();
+        procesador.ejecutar(entrada);
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        
+        System.out.println("Lote procesado: " + procesador.getComandos() + " comandos, "
+                + procesador.getErrores() + " con errores, en " + milisegundos + " ms.");
     }
 
     /**
@@ -51,17 +173,17 @@ public class Main {
         
         // Crear consulta
         Consulta consulta1 = new Consulta(cliente1, perro1, vet1, "Vacunación anual", "Animal saludable");
-        vet1.agregarConsulta(consulta1);
+        veterinariaService.agregarConsulta(consulta1);
         
         // Crear tarea administrativa
         Tarea tarea1 = new Tarea("Actualizar expedientes", "Pendiente");
-        admin1.agregarTarea(tarea1);
+        veterinariaService.agregarTarea(admin1.getDni(), tarea1);
         
         // Mostrar información (Herencia - toString() polimórfico)
         System.out.println("CLIENTE REGISTRADO:");
-        System.out.println(cliente1);
+        System.out.println(veterinariaService.describirCliente(cliente1.getDni()));
         System.out.println("\nVETERINARIO REGISTRADO:");
-        System.out.println(vet1);
+        System.out.println(veterinariaService.describirVeterinario(vet1.getDni()));
         System.out.println("\nADMINISTRATIVO REGISTRADO:");
         System.out.println(admin1);
         
@@ -166,6 +288,7 @@ public class Main {
         System.out.println("\n--- Gestión de Administrativos ---");
         System.out.println("1. Agregar Administrativo");
         System.out.println("2. Listar Administrativos");
+        System.out.println("3. Ver Tareas Urgentes");
         System.out.print("Seleccione una opción: ");
         
         int opcion = console.leerEntero();
@@ -177,6 +300,22 @@ public class Main {
             case 2:
                 listarAdministrativos();
                 break;
+            case 3:
+                listarTareasUrgentes();
+                break;
+        }
+    }
+
+    private static void listarTareasUrgentes() {
+        System.out.println("\n--- Tareas Urgentes ---");
+        List<Tarea> urgentes = veterinariaService.getTareasUrgentes();
+        if (urgentes.isEmpty()) {
+            System.out.println("No hay tareas urgentes.");
+            return;
+        }
+        
+        for (Tarea tarea : urgentes) {
+            System.out.println(tarea.getResumenCorto() + " - " + tarea.getDiasTranscurridos() + " días");
         }
     }
 
@@ -202,6 +341,11 @@ public class Main {
         System.out.println("\n--- Gestión de Consultas ---");
         System.out.println("1. Crear Consulta");
         System.out.println("2. Listar Consultas por Veterinario");
+        System.out.println("3. Consultas de Hoy");
+        System.out.println("4. Consultas de las Últimas 24 Horas");
+        System.out.println("5. Exportar Consultas");
+        System.out.println("6. Estadísticas de Consultas");
+        System.out.println("7. Archivar Consultas Antiguas");
         System.out.print("Seleccione una opción: ");
         
         int opcion = console.leerEntero();
@@ -213,6 +357,22 @@ public class Main {
             case 2:
                 listarConsultasPorVeterinario();
                 break;
+            case 3:
+                listarConsultas("Consultas de hoy", veterinariaService.buscarConsultasDeHoy());
+                break;
+            case 4:
+                listarConsultas("Consultas de las últimas 24 horas", veterinariaService.buscarConsultasRecientes());
+                break;
+            case 5:
+                exportarConsultas();
+                break;
+            case 6:
+                System.out.println("\n--- Estadísticas de Consultas ---");
+                System.out.print(veterinariaService.analizarConsultas());
+                break;
+            case 7:
+                archivarConsultas();
+                break;
         }
     }
 
@@ -235,7 +395,8 @@ public class Main {
 
     private static void listarClientes() {
         System.out.println("\n--- Lista de Clientes ---");
-        veterinariaService.listarClientes();
+        mostrarPaginado(cursor -> veterinariaService.paginaClientes(cursor, TAMANO_PAGINA),
+                "No hay clientes registrados.");
     }
 
     private static void buscarCliente() {
@@ -244,7 +405,8 @@ public class Main {
         Cliente cliente = veterinariaService.buscarClientePorDni(dni);
         if (cliente != null) {
             System.out.println("\nCliente encontrado:");
-            System.out.println(cliente);
+            // La ficha se arma con el cerrojo del cliente, como en las demás terminales
+            System.out.println(veterinariaService.describirCliente(cliente.getDni()));
         } else {
             System.out.println("Cliente no encontrado.");
         }
@@ -271,7 +433,8 @@ public class Main {
 
     private static void listarVeterinarios() {
         System.out.println("\n--- Lista de Veterinarios ---");
-        veterinariaService.listarVeterinarios();
+        mostrarPaginado(cursor -> veterinariaService.paginaVeterinarios(cursor, TAMANO_PAGINA),
+                "No hay veterinarios registrados.");
     }
 
     private static void agregarAdministrativo() {
@@ -295,7 +458,8 @@ public class Main {
 
     private static void listarAdministrativos() {
         System.out.println("\n--- Lista de Administrativos ---");
-        veterinariaService.listarAdministrativos();
+        mostrarPaginado(cursor -> veterinariaService.paginaAdministrativos(cursor, TAMANO_PAGINA),
+                "No hay administrativos registrados.");
     }
 
     private static void agregarMascotaACliente() {
@@ -335,7 +499,7 @@ public class Main {
             return;
         }
         
-        cliente.agregarMascota(mascota);
+        veterinariaService.agregarMascota(cliente.getDni(), mascota);
         System.out.println("Mascota agregada exitosamente al cliente.");
     }
 
@@ -350,7 +514,8 @@ public class Main {
         }
         
         System.out.println("\nMascotas de " + cliente.getNombre() + " " + cliente.getApellido() + ":");
-        cliente.listarMascotas();
+        mostrarPaginado(cursor -> veterinariaService.paginaMascotas(cliente.getDni(), cursor, TAMANO_PAGINA),
+                "Este cliente no tiene mascotas registradas.");
     }
 
     private static void crearConsulta() {
@@ -365,25 +530,26 @@ public class Main {
         }
         
         // Mostrar mascotas del cliente
-        if (cliente.getMascotas().isEmpty()) {
+        List<Mascota> mascotas = veterinariaService.getMascotasDe(cliente.getDni());
+        if (mascotas.isEmpty()) {
             System.out.println("El cliente no tiene mascotas registradas.");
             return;
         }
         
         System.out.println("Mascotas del cliente:");
-        for (int i = 0; i < cliente.getMascotas().size(); i++) {
-            System.out.println((i + 1) + ". " + cliente.getMascotas().get(i).getNombre());
+        for (int i = 0; i < mascotas.size(); i++) {
+            System.out.println((i + 1) + ". " + mascotas.get(i).getNombre());
         }
         
         System.out.print("Seleccione la mascota (número): ");
         int indiceMascota = console.leerEntero() - 1;
         
-        if (indiceMascota < 0 || indiceMascota >= cliente.getMascotas().size()) {
+        if (indiceMascota < 0 || indiceMascota >= mascotas.size()) {
             System.out.println("Selección no válida.");
             return;
         }
         
-        Mascota mascota = cliente.getMascotas().get(indiceMascota);
+        Mascota mascota = mascotas.get(indiceMascota);
         
         // Buscar veterinario
         System.out.print("DNI del veterinario: ");
@@ -401,8 +567,8 @@ public class Main {
         System.out.print("Diagnóstico: ");
         String diagnostico = console.leerLinea();
         
-        Consulta consulta = new Consulta(cliente, mascota, veterinario, tratamiento, diagnostico);
-        veterinario.agregarConsulta(consulta);
+        veterinariaService.crearConsulta(cliente.getDni(), mascota.getNombre(), veterinario.getDni(),
+                tratamiento, diagnostico);
         
         System.out.println("Consulta creada exitosamente.");
     }
@@ -418,11 +584,89 @@ public class Main {
         }
         
         System.out.println("\nConsultas del Dr. " + veterinario.getNombre() + " " + veterinario.getApellido() + ":");
-        veterinario.listarConsultas();
+        mostrarPaginado(cursor -> veterinariaService.paginaConsultasPorVeterinario(
+                        veterinario.getDni(), cursor, TAMANO_PAGINA),
+                "Este veterinario no tiene consultas registradas.");
+    }
+
+    /**
+     * Muestra un listado de a una página por vez; Enter pide la siguiente y 0 vuelve al menú
+     */
+    private static <T> void mostrarPaginado(Function<String, Pagina<T>> paginas, String mensajeVacio) {
+        Pagina<T> pagina = paginas.apply(null);
+        if (pagina.getElementos().isEmpty()) {
+            System.out.println(mensajeVacio);
+            return;
+        }
+
+        int numero = 1;
+        while (true) {
+            for (T elemento : pagina.getElementos()) {
+                System.out.println(numero++ + ". " + elemento);
+                System.out.println("---");
+            }
+            if (!pagina.hayMas()) {
+                return;
+            }
+            System.out.print("Enter para ver más, 0 para volver: ");
+            if (console.leerLinea().trim().equals("0") || console.estaAgotada()) {
+                return;
+            }
+            pagina = paginas.apply(pagina.getSiguienteCursor());
+        }
+    }
+
+    private static void archivarConsultas() {
+        System.out.print("Archivar consultas de hace más de cuántos días: ");
+        int dias = console.leerEntero();
+        ArchivoHistorico archivo = veterinariaService.archivarConsultas(LocalDateTime.now().minusDays(dias));
+        System.out.println("\n--- Archivo Histórico ---");
+        System.out.println(archivo);
+        if (archivo.getCantidadConsultas() > 0) {
+            System.out.println("Más reciente archivada: "
+                    + archivo.getConsulta(archivo.getCantidadConsultas() - 1).getResumenCorto());
+        }
+    }
+
+    private static void exportarConsultas() {
+        System.out.print("Formato (1. CSV, 2. JSON Lines): ");
+        ExportadorConsultas.Formato formato = console.leerEntero() == 2
+                ? ExportadorConsultas.Formato.JSON_LINEAS : ExportadorConsultas.Formato.CSV;
+        String extension = formato == ExportadorConsultas.Formato.CSV ? ".csv" : ".jsonl";
+        System.out.print("Archivo de destino (Enter para consultas" + extension + "): ");
+        String nombreArchivo = console.leerLinea().trim();
+        Path archivo = Paths.get(nombreArchivo.isEmpty() ? "consultas" + extension : nombreArchivo);
+        
+        try {
+            long cantidad = veterinariaService.exportarConsultas(formato, archivo);
+            System.out.println("Se exportaron " + cantidad + " consultas a " + archivo.toAbsolutePath());
+        } catch (IOException e) {
+            System.out.println("Error al exportar: " + e.getMessage());
+        }
+    }
+
+    private static void listarConsultas(String titulo, List<Consulta> consultas) {
+        System.out.println("\n--- " + titulo + " ---");
+        if (consultas.isEmpty()) {
+            System.out.println("No hay consultas registradas.");
+            return;
+        }
+        
+        for (Consulta consulta : consultas) {
+            System.out.println(consulta.getResumenCorto());
+        }
     }
 
     private static void mostrarResumenSistema() {
         System.out.println("\n=== RESUMEN DEL SISTEMA ===");
         veterinariaService.mostrarResumen();
+        System.out.println("\n--- Consultas por veterinario ---");
+        mostrarPaginado(cursor -> veterinariaService.getResumen().paginaConsultasPorVeterinario(cursor, TAMANO_PAGINA),
+                "No hay veterinarios registrados.");
+        System.out.println("\n--- Tareas por administrativo ---");
+        mostrarPaginado(cursor -> veterinariaService.getResumen().paginaTareasPorAdministrativo(cursor, TAMANO_PAGINA),
+                "No hay administrativos registrados.");
+        System.out.println("\n--- Textos compartidos ---");
+        System.out.println(Diccionario.getInforme());
     }
 }
\ No newline at end of file
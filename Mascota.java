@@ -1,24 +1,47 @@
 package com.veterinaria.modelo;
 
+import com.veterinaria.util.Diccionario;
+import com.veterinaria.util.Renderizable;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
 /**
  * Clase base abstracta que representa una mascota en el sistema veterinario.
  * Demuestra el concepto de herencia y polimorfismo en POO.
  */
-public abstract class Mascota {
+public abstract class Mascota implements Renderizable, Versionada {
     protected String nombre;
+    private String claveNombre; // Nombre en minúsculas, cacheado para índices y hashCode
     protected int edad;
     protected String raza;
     protected Cliente propietario;
+    private long posicionAlta; // Orden de alta dentro del propietario, para paginar
+    private ObservadorModelo observador;
+    // Historial de versiones que le asocia el servicio (ver Versionada)
+    private volatile Object historialVersiones;
+    private static final AtomicReferenceFieldUpdater<Mascota, Object> HISTORIAL_VERSIONES =
+            AtomicReferenceFieldUpdater.newUpdater(Mascota.class, Object.class, "historialVersiones");
 
     /**
      * Constructor base para todas las mascotas
      */
     public Mascota(String nombre, int edad, String raza) {
         this.nombre = validarNombre(nombre);
+        this.claveNombre = plegarNombre(this.nombre);
         this.edad = validarEdad(edad);
         this.raza = validarRaza(raza);
     }
 
+    /**
+     * Normaliza un nombre para compararlo sin distinguir mayúsculas
+     */
+    public static String plegarNombre(String nombre) {
+        return nombre.trim().toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Valida que el nombre no sea nulo o vacío
      */
@@ -49,7 +72,7 @@ public abstract class Mascota {
         if (raza == null || raza.trim().isEmpty()) {
             throw new IllegalArgumentException("La raza no puede estar vacía");
         }
-        return raza.trim();
+        return Diccionario.RAZAS.canonico(raza.trim());
     }
 
     // Getters y Setters
@@ -58,7 +81,27 @@ public abstract class Mascota {
     }
 
     public void setNombre(String nombre) {
-        this.nombre = validarNombre(nombre);
+        String nuevoNombre = validarNombre(nombre);
+        String nuevaClave = plegarNombre(nuevoNombre);
+        
+        modificar(() -> {
+            // El propietario reindexa la mascota y rechaza nombres repetidos
+            if (propietario != null && !nuevaClave.equals(claveNombre)) {
+                propietario.renombrarMascota(this, nuevoNombre);
+            }
+            
+            String nombreAnterior = this.nombre;
+            this.nombre = nuevoNombre;
+            this.claveNombre = nuevaClave;
+            notificarModificacion(nombreAnterior);
+        });
+    }
+
+    /**
+     * Nombre en minúsculas usado como clave de búsqueda
+     */
+    String getClaveNombre() {
+        return claveNombre;
     }
 
     public int getEdad() {
@@ -66,7 +109,11 @@ public abstract class Mascota {
     }
 
     public void setEdad(int edad) {
-        this.edad = validarEdad(edad);
+        int valor = validarEdad(edad);
+        modificar(() -> {
+            this.edad = valor;
+            notificarModificacion();
+        });
     }
 
     public String getRaza() {
@@ -74,7 +121,11 @@ public abstract class Mascota {
     }
 
     public void setRaza(String raza) {
-        this.raza = validarRaza(raza);
+        String valor = validarRaza(raza);
+        modificar(() -> {
+            this.raza = valor;
+            notificarModificacion();
+        });
     }
 
     public Cliente getPropietario() {
@@ -85,6 +136,56 @@ public abstract class Mascota {
         this.propietario = propietario;
     }
 
+    /**
+     * Posición de alta dentro del propietario; crece con cada mascota agregada
+     */
+    public long getPosicionAlta() {
+        return posicionAlta;
+    }
+
+    void setPosicionAlta(long posicionAlta) {
+        this.posicionAlta = posicionAlta;
+    }
+
+    public ObservadorModelo getObservador() {
+        return observador;
+    }
+
+    public void setObservador(ObservadorModelo observador) {
+        this.observador = observador;
+    }
+
+    @Override
+    public Object getHistorialVersiones() {
+        return historialVersiones;
+    }
+
+    @Override
+    public boolean cambiarHistorialVersiones(Object esperado, Object nuevo) {
+        return HISTORIAL_VERSIONES.compareAndSet(this, esperado, nuevo);
+    }
+
+    /**
+     * Ejecuta un cambio avisado al observador entre antesDeModificar y
+     * modificacionTerminada (ver Modificaciones)
+     */
+    protected void modificar(Runnable cambio) {
+        Modificaciones.ejecutar(observador, cambio);
+    }
+
+    /**
+     * Avisa al observador que cambió algún dato de la mascota
+     */
+    protected void notificarModificacion() {
+        notificarModificacion(nombre);
+    }
+
+    private void notificarModificacion(String nombreAnterior) {
+        if (observador != null) {
+            observador.mascotaModificada(this, nombreAnterior);
+        }
+    }
+
     /**
      * Método abstracto que deben implementar las clases hijas
      * Demuestra polimorfismo
@@ -106,8 +207,23 @@ public abstract class Mascota {
      * Método para obtener información general de la mascota
      */
     public String getInformacionGeneral() {
-        return String.format("Nombre: %s, Edad: %d años, Raza: %s", 
-                           nombre, edad, raza);
+        return Renderizado.aTexto(this::escribirInformacionGeneralEn);
+    }
+
+    /**
+     * Escribe la información general de la mascota en el destino
+     */
+    protected void escribirInformacionGeneralEn(Appendable destino) throws IOException {
+        destino.append("Nombre: ").append(nombre).append(", Edad: ");
+        Renderizado.entero(destino, edad);
+        destino.append(" años, Raza: ").append(raza);
+    }
+
+    /**
+     * Escribe la información específica del tipo de mascota en el destino
+     */
+    protected void escribirInformacionEspecificaEn(Appendable destino) throws IOException {
+        destino.append(getInformacionEspecifica());
     }
 
     /**
@@ -122,14 +238,26 @@ public abstract class Mascota {
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format("Tipo: %s\n", getTipoMascota()));
-        sb.append(getInformacionGeneral()).append("\n");
-        sb.append(getInformacionEspecifica()).append("\n");
-        sb.append(String.format("Propietario: %s\n", getNombrePropietario()));
-        sb.append(String.format("Sonido: %s", hacerSonido()));
-        
-        return sb.toString();
+        return Renderizado.aTexto(this);
+    }
+
+    /**
+     * Escribe los datos de la mascota en el destino.
+     * Las clases hijas agregan sus propios datos a continuación.
+     */
+    @Override
+    public void escribirEn(Appendable destino) throws IOException {
+        destino.append("Tipo: ").append(getTipoMascota()).append('\n');
+        escribirInformacionGeneralEn(destino);
+        destino.append('\n');
+        escribirInformacionEspecificaEn(destino);
+        destino.append("\nPropietario: ");
+        if (propietario != null) {
+            propietario.escribirNombreCompletoEn(destino);
+        } else {
+            destino.append("Sin propietario");
+        }
+        destino.append("\nSonido: ").append(hacerSonido());
     }
 
     /**
@@ -140,7 +268,7 @@ public abstract class Mascota {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         Mascota mascota = (Mascota) obj;
-        return nombre.equalsIgnoreCase(mascota.nombre) && 
+        return claveNombre.equals(mascota.claveNombre) && 
                propietario != null && propietario.equals(mascota.propietario);
     }
 
@@ -149,7 +277,7 @@ public abstract class Mascota {
      */
     @Override
     public int hashCode() {
-        int hash = nombre.toLowerCase().hashCode();
+        int hash = claveNombre.hashCode();
         if (propietario != null) {
             hash = hash * 31 + propietario.hashCode();
         }
@@ -0,0 +1,39 @@
+package com.veterinaria.modelo;
+
+import java.util.function.Supplier;
+
+/**
+ * Encierra un cambio de una entidad entre antesDeModificar y
+ * modificacionTerminada de su observador. Así el observador puede rechazar el
+ * cambio antes de que ocurra y confirmarlo al terminar, ya sin los cerrojos de
+ * la entidad, aunque el cambio no llegue a través del servicio.
+ */
+final class Modificaciones {
+    private Modificaciones() {
+    }
+
+    static void ejecutar(ObservadorModelo observador, Runnable cambio) {
+        if (observador == null) {
+            cambio.run();
+            return;
+        }
+        observador.antesDeModificar();
+        try {
+            cambio.run();
+        } finally {
+            observador.modificacionTerminada();
+        }
+    }
+
+    static <T> T ejecutarCon(ObservadorModelo observador, Supplier<T> cambio) {
+        if (observador == null) {
+            return cambio.get();
+        }
+        observador.antesDeModificar();
+        try {
+            return cambio.get();
+        } finally {
+            observador.modificacionTerminada();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.veterinaria.modelo;
+
+/**
+ * Observador de cambios en las entidades del modelo.
+ * Permite que la capa de servicio mantenga sus índices sincronizados
+ * sin que el modelo dependa de ella. Todos los métodos son opcionales.
+ */
+public interface ObservadorModelo {
+
+    /**
+     * Se invoca antes de cambiar el DNI de una persona.
+     * Puede lanzar IllegalArgumentException para rechazar el cambio.
+     */
+    default void antesDeCambiarDni(Persona persona, String dniNuevo) {
+    }
+
+    /**
+     * Se invoca cuando un veterinario registra una nueva consulta
+     */
+    default void consultaAgregada(Veterinario veterinario, Consulta consulta) {
+    }
+
+    /**
+     * Se invoca cuando cambia el cliente, la mascota o el veterinario de una consulta.
+     * Recibe los valores anteriores; los nuevos se leen de la propia consulta.
+     */
+    default void consultaReasignada(Consulta consulta, Cliente clienteAnterior,
+                                    Mascota mascotaAnterior, Veterinario veterinarioAnterior) {
+    }
+
+    /**
+     * Se invoca cuando una persona se da de alta en el sistema
+     */
+    default void personaRegistrada(Persona persona) {
+    }
+
+    /**
+     * Se invoca cuando cambia algún dato de una persona distinto del DNI
+     */
+    default void personaModificada(Persona persona) {
+    }
+
+    /**
+     * Se invoca cuando un cliente agrega una mascota
+     */
+    default void mascotaAgregada(Cliente cliente, Mascota mascota) {
+    }
+
+    /**
+     * Se invoca cuando un cliente elimina una mascota
+     */
+    default void mascotaEliminada(Cliente cliente, Mascota mascota) {
+    }
+
+    /**
+     * Se invoca cuando cambia algún dato de una mascota.
+     * Recibe el nombre previo por si la mascota fue renombrada.
+     */
+    default void mascotaModificada(Mascota mascota, String nombreAnterior) {
+    }
+
+    /**
+     * Se invoca cuando cambia el tratamiento o el diagnóstico de una consulta
+     */
+    default void consultaModificada(Consulta consulta) {
+    }
+
+    /**
+     * Se invoca cuando se asigna una tarea a un administrativo
+     */
+    default void tareaAgregada(Administrativo administrativo, Tarea tarea) {
+    }
+
+    /**
+     * Se invoca cuando se elimina una tarea de un administrativo
+     */
+    default void tareaEliminada(Administrativo administrativo, Tarea tarea) {
+    }
+
+    /**
+     * Se invoca cuando cambia la descripción de una tarea
+     */
+    default void tareaModificada(Tarea tarea) {
+    }
+
+    /**
+     * Se invoca cuando una tarea cambia de estado
+     */
+    default void tareaEstadoCambiado(Tarea tarea, EstadoTarea estadoAnterior) {
+    }
+
+    /**
+     * Se invoca cuando una tarea pendiente supera el plazo de urgencia
+     */
+    default void tareaUrgente(Tarea tarea) {
+    }
+
+    /**
+     * Lo invoca el servicio, o la propia entidad cuando se la modifica
+     * directamente, antes de un cambio del modelo y sin cerrojos de la entidad
+     * tomados. Los cambios pueden anidarse (un setter dentro de una operación
+     * del servicio). Puede lanzar una excepción para rechazar el cambio antes
+     * de que ocurra (por ejemplo, si el diario ya no puede registrar cambios).
+     */
+    default void antesDeModificar() {
+    }
+
+    /**
+     * Lo invoca quien llamó a antesDeModificar al terminar el cambio, aunque
+     * haya fallado, ya sin cerrojos de la entidad tomados. Los cambios avisados
+     * pueden confirmarse al cerrar el más externo sin demorar a otras
+     * operaciones sobre las mismas personas.
+     */
+    default void modificacionTerminada() {
+    }
+}
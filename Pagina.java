@@ -0,0 +1,66 @@
+package com.veterinaria.servicio;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Una página de resultados y el cursor para pedir la siguiente.
+ * El cursor es opaco: codifica la posición de registro del último elemento
+ * entregado, de modo que las altas concurrentes no desplazan ni repiten
+ * elementos entre páginas.
+ */
+public class Pagina<T> {
+    private final List<T> elementos;
+    private final String siguienteCursor;
+
+    Pagina(List<T> elementos, String siguienteCursor) {
+        this.elementos = Collections.unmodifiableList(elementos);
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Cursor para pedir la página siguiente, o null si esta es la última
+     */
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public boolean hayMas() {
+        return siguienteCursor != null;
+    }
+
+    static String codificar(long posicion) {
+        byte[] bytes = ByteBuffer.allocate(Long.BYTES).putLong(posicion).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Posición codificada en el cursor, o -1 para empezar desde el principio
+     */
+    static long decodificar(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return -1;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != Long.BYTES) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            return ByteBuffer.wrap(bytes).getLong();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+
+    static void validarTamano(int tamano) {
+        if (tamano <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+    }
+}
\ No newline at end of file
@@ -1,10 +1,18 @@
-ackage com.veterinaria.modelo;
+package com.veterinaria.modelo;
+
+import com.veterinaria.util.Diccionario;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
 
 /**
  * Clase Perro que hereda de Mascota.
  * Demuestra herencia y implementación de métodos abstractos.
  */
 public class Perro extends Mascota {
+    private static final String BUSCAR_PELOTA = " está buscando la pelota con entusiasmo.";
+    private static final String MOVER_COLA = " está moviendo la cola de felicidad.";
+
     private String tamano; // Pequeño, Mediano, Grande
 
     /**
@@ -31,8 +39,8 @@ public class Perro extends Mascota {
         }
         
         // Retornar con primera letra mayúscula
-        return tamano.trim().substring(0, 1).toUpperCase() + 
-               tamano.trim().substring(1).toLowerCase();
+        return Diccionario.TAMANOS.canonico(tamano.trim().substring(0, 1).toUpperCase() + 
+               tamano.trim().substring(1).toLowerCase());
     }
 
     /**
@@ -67,42 +75,46 @@ public class Perro extends Mascota {
      */
     @Override
     public String getInformacionEspecifica() {
-        return String.format("Tamaño: %s", tamano);
+        return Renderizado.aTexto(this::escribirInformacionEspecificaEn);
+    }
+
+    @Override
+    protected void escribirInformacionEspecificaEn(Appendable destino) throws IOException {
+        destino.append("Tamaño: ").append(tamano);
     }
 
     /**
      * Método específico de los perros
      */
     public String buscarPelota() {
-        return nombre + " está buscando la pelota con entusiasmo.";
+        return nombre + BUSCAR_PELOTA;
     }
 
     /**
      * Método específico de los perros
      */
     public String moverCola() {
-        return nombre + " está moviendo la cola de felicidad.";
+        return nombre + MOVER_COLA;
     }
 
     /**
      * Método específico de los perros
      */
     public String saltar() {
-        String intensidad;
+        return nombre + " está haciendo " + getIntensidadSalto() + ".";
+    }
+
+    private String getIntensidadSalto() {
         switch (tamano.toLowerCase()) {
             case "pequeño":
-                intensidad = "pequeños saltitos";
-                break;
+                return "pequeños saltitos";
             case "mediano":
-                intensidad = "saltos moderados";
-                break;
+                return "saltos moderados";
             case "grande":
-                intensidad = "grandes saltos";
-                break;
+                return "grandes saltos";
             default:
-                intensidad = "saltos";
+                return "saltos";
         }
-        return nombre + " está haciendo " + intensidad + ".";
     }
 
     /**
@@ -149,7 +161,11 @@ public class Perro extends Mascota {
     }
 
     public void setTamano(String tamano) {
-        this.tamano = validarTamano(tamano);
+        String valor = validarTamano(tamano);
+        modificar(() -> {
+            this.tamano = valor;
+            notificarModificacion();
+        });
     }
 
     /**
@@ -174,18 +190,15 @@ public class Perro extends Mascota {
     }
 
     /**
-     * Representación en string específica del perro
+     * Representación en texto específica del perro
      */
     @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(super.toString()).append("\n");
-        sb.append("Ejercicio recomendado: ").append(getEjercicioRecomendado()).append("\n");
-        sb.append("Acciones especiales de perro:\n");
-        sb.append("- ").append(buscarPelota()).append("\n");
-        sb.append("- ").append(moverCola()).append("\n");
-        sb.append("- ").append(saltar());
-        
-        return sb.toString();
+    public void escribirEn(Appendable destino) throws IOException {
+        super.escribirEn(destino);
+        destino.append("\nEjercicio recomendado: ").append(getEjercicioRecomendado())
+               .append("\nAcciones especiales de perro:\n")
+               .append("- ").append(nombre).append(BUSCAR_PELOTA).append('\n')
+               .append("- ").append(nombre).append(MOVER_COLA).append('\n')
+               .append("- ").append(nombre).append(" está haciendo ").append(getIntensidadSalto()).append('.');
     }
 }
\ No newline at end of file
@@ -1,15 +1,33 @@
 package com.veterinaria.modelo;
 
+import com.veterinaria.util.Renderizable;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
 /**
  * Clase base abstracta que representa una persona en el sistema veterinario.
  * Demuestra el concepto de herencia en POO.
+ * Los datos personales se escriben con el cerrojo de la persona y cada cambio
+ * incrementa su versión; las lecturas de varios campos juntos (nombre completo,
+ * ficha) son optimistas y solo toman el cerrojo si coincidieron con una escritura.
  */
-public abstract class Persona {
-    protected String nombre;
-    protected String apellido;
-    protected String dni;
-    protected String telefono;
-    protected String email;
+public abstract class Persona implements Renderizable, Versionada {
+    protected volatile String nombre;
+    protected volatile String apellido;
+    protected volatile String dni;
+    protected volatile String telefono;
+    protected volatile String email;
+    private volatile long version;
+    private final StampedLock cerrojo = new StampedLock();
+    private ObservadorModelo observador;
+    // Historial de versiones que le asocia el servicio (ver Versionada)
+    private volatile Object historialVersiones;
+    private static final AtomicReferenceFieldUpdater<Persona, Object> HISTORIAL_VERSIONES =
+            AtomicReferenceFieldUpdater.newUpdater(Persona.class, Object.class, "historialVersiones");
 
     /**
      * Constructor base para todas las personas
@@ -48,7 +66,17 @@ public abstract class Persona {
     }
 
     public void setNombre(String nombre) {
-        this.nombre = validarTexto(nombre, "Nombre");
+        String valor = validarTexto(nombre, "Nombre");
+        modificar(() -> {
+            long sello = cerrojo.writeLock();
+            try {
+                this.nombre = valor;
+                version++;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            notificarModificacion();
+        });
     }
 
     public String getApellido() {
@@ -56,7 +84,17 @@ public abstract class Persona {
     }
 
     public void setApellido(String apellido) {
-        this.apellido = validarTexto(apellido, "Apellido");
+        String valor = validarTexto(apellido, "Apellido");
+        modificar(() -> {
+            long sello = cerrojo.writeLock();
+            try {
+                this.apellido = valor;
+                version++;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            notificarModificacion();
+        });
     }
 
     public String getDni() {
@@ -64,7 +102,22 @@ public abstract class Persona {
     }
 
     public void setDni(String dni) {
-        this.dni = validarTexto(dni, "DNI");
+        String nuevoDni = validarTexto(dni, "DNI");
+        modificar(() -> {
+            // Avisar antes del cambio para que los índices por DNI puedan rechazarlo
+            if (observador != null && !nuevoDni.equals(this.dni)) {
+                observador.antesDeCambiarDni(this, nuevoDni);
+            }
+
+            long sello = cerrojo.writeLock();
+            try {
+                this.dni = nuevoDni;
+                version++;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            notificarModificacion();
+        });
     }
 
     public String getTelefono() {
@@ -72,7 +125,17 @@ public abstract class Persona {
     }
 
     public void setTelefono(String telefono) {
-        this.telefono = validarTexto(telefono, "Teléfono");
+        String valor = validarTexto(telefono, "Teléfono");
+        modificar(() -> {
+            long sello = cerrojo.writeLock();
+            try {
+                this.telefono = valor;
+                version++;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            notificarModificacion();
+        });
     }
 
     public String getEmail() {
@@ -80,14 +143,132 @@ public abstract class Persona {
     }
 
     public void setEmail(String email) {
-        this.email = validarEmail(email);
+        String valor = validarEmail(email);
+        modificar(() -> {
+            long sello = cerrojo.writeLock();
+            try {
+                this.email = valor;
+                version++;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            notificarModificacion();
+        });
+    }
+
+    /**
+     * Versión de los datos personales; cambia con cada modificación
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Reemplaza nombre, apellido, teléfono y email juntos, solo si la persona no
+     * cambió desde que se leyó la versión indicada. Devuelve false sin modificar
+     * nada si otra terminal la modificó en el medio.
+     */
+    public boolean actualizarSiVersion(long versionLeida, String nombre, String apellido,
+                                       String telefono, String email) {
+        String nuevoNombre = validarTexto(nombre, "Nombre");
+        String nuevoApellido = validarTexto(apellido, "Apellido");
+        String nuevoTelefono = validarTexto(telefono, "Teléfono");
+        String nuevoEmail = validarEmail(email);
+
+        return modificarCon(() -> {
+            long sello = cerrojo.writeLock();
+            try {
+                if (version != versionLeida) {
+                    return false;
+                }
+                this.nombre = nuevoNombre;
+                this.apellido = nuevoApellido;
+                this.telefono = nuevoTelefono;
+                this.email = nuevoEmail;
+                version++;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            notificarModificacion();
+            return true;
+        });
+    }
+
+    public ObservadorModelo getObservador() {
+        return observador;
+    }
+
+    public void setObservador(ObservadorModelo observador) {
+        this.observador = observador;
+    }
+
+    @Override
+    public Object getHistorialVersiones() {
+        return historialVersiones;
+    }
+
+    @Override
+    public boolean cambiarHistorialVersiones(Object esperado, Object nuevo) {
+        return HISTORIAL_VERSIONES.compareAndSet(this, esperado, nuevo);
+    }
+
+    /**
+     * Ejecuta un cambio avisado al observador entre antesDeModificar y
+     * modificacionTerminada (ver Modificaciones)
+     */
+    protected void modificar(Runnable cambio) {
+        Modificaciones.ejecutar(observador, cambio);
+    }
+
+    protected <T> T modificarCon(Supplier<T> cambio) {
+        return Modificaciones.ejecutarCon(observador, cambio);
+    }
+
+    /**
+     * Avisa al observador que cambió algún dato de la persona
+     */
+    protected void notificarModificacion() {
+        if (observador != null) {
+            observador.personaModificada(this);
+        }
     }
 
     /**
      * Método para obtener el nombre completo
      */
     public String getNombreCompleto() {
-        return nombre + " " + apellido;
+        long sello = cerrojo.tryOptimisticRead();
+        String n = nombre;
+        String a = apellido;
+        if (!cerrojo.validate(sello)) {
+            sello = cerrojo.readLock();
+            try {
+                n = nombre;
+                a = apellido;
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+        return n + " " + a;
+    }
+
+    /**
+     * Escribe el nombre completo en el destino
+     */
+    public void escribirNombreCompletoEn(Appendable destino) throws IOException {
+        long sello = cerrojo.tryOptimisticRead();
+        String n = nombre;
+        String a = apellido;
+        if (!cerrojo.validate(sello)) {
+            sello = cerrojo.readLock();
+            try {
+                n = nombre;
+                a = apellido;
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+        destino.append(n).append(' ').append(a);
     }
 
     /**
@@ -101,8 +282,39 @@ public abstract class Persona {
      */
     @Override
     public String toString() {
-        return String.format("Tipo: %s\nNombre: %s\nApellido: %s\nDNI: %s\nTeléfono: %s\nEmail: %s",
-                getTipoPersona(), nombre, apellido, dni, telefono, email);
+        return Renderizado.aTexto(this);
+    }
+
+    /**
+     * Escribe los datos de la persona en el destino.
+     * Las clases hijas agregan sus propios datos a continuación.
+     */
+    @Override
+    public void escribirEn(Appendable destino) throws IOException {
+        long sello = cerrojo.tryOptimisticRead();
+        String n = nombre;
+        String a = apellido;
+        String d = dni;
+        String t = telefono;
+        String e = email;
+        if (!cerrojo.validate(sello)) {
+            sello = cerrojo.readLock();
+            try {
+                n = nombre;
+                a = apellido;
+                d = dni;
+                t = telefono;
+                e = email;
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+        destino.append("Tipo: ").append(getTipoPersona())
+               .append("\nNombre: ").append(n)
+               .append("\nApellido: ").append(a)
+               .append("\nDNI: ").append(d)
+               .append("\nTeléfono: ").append(t)
+               .append("\nEmail: ").append(e);
     }
 
     /**
@@ -0,0 +1,17 @@
+package com.veterinaria.eventos;
+
+/**
+ * Consumidor de los eventos del bus. Cada procesador corre en su propio hilo
+ * y recibe los eventos en orden de publicación, agrupados en lotes: finDeLote
+ * marca el último evento disponible por ahora, el momento de vaciar buferes.
+ */
+public interface ProcesadorEventos {
+
+    void procesar(Evento evento, long secuencia, boolean finDeLote);
+
+    /**
+     * Se invoca en el hilo del procesador después del último evento, al cerrar el bus
+     */
+    default void alTerminar() {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,269 @@
+package com.veterinaria;
+
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.Gato;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.Perro;
+import com.veterinaria.modelo.Tarea;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.servicio.Pagina;
+import com.veterinaria.servicio.VeterinariaService;
+import com.veterinaria.util.ConsoleHelper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ejecuta un script de operaciones de mostrador sin pasar por los menús.
+ * Cada línea es un comando con sus datos separados por '|', por ejemplo:
+ * <pre>
+ * agregarCliente|Juan|Pérez|12345678|555-0123|juan@email.com
+ * agregarVeterinario|María|García|87654321|555-0456|maria@vet.com|Medicina General
+ * agregarAdministrativo|Carlos|López|11223344|555-0789|carlos@admin.com|Recepción
+ * agregarMascotaACliente|12345678|perro|Rex|3|Golden Retriever|Mediano
+ * agregarMascotaACliente|12345678|gato|Miau|2|Persa|true
+ * crearConsulta|12345678|Rex|87654321|Vacunación anual|Animal saludable
+ * agregarTarea|11223344|Actualizar expedientes
+ * iniciarTarea|11223344|Actualizar expedientes
+ * completarTarea|11223344|Actualizar expedientes
+ * </pre>
+ * También admite consultas, cuyo resultado se escribe en la salida:
+ * <pre>
+ * buscarCliente|12345678
+ * buscarVeterinario|87654321
+ * mascotas|12345678
+ * consultasCliente|12345678            (opcionalmente |cursor para la página siguiente)
+ * consultasVeterinario|87654321        (ídem)
+ * consultasHoy
+ * resumen
+ * resumenVeterinarios                   (consultas por veterinario; opcionalmente |cursor)
+ * resumenAdministrativos                (tareas por administrativo; ídem)
+ * estadisticas
+ * archivar|30                           (consultas de hace más de 30 días; sin días, todas)
+ * </pre>
+ * Las líneas vacías y las que empiezan con '#' se ignoran. Una línea con error
+ * se informa y no detiene el resto del script.
+ */
+public class ProcesadorLotes {
+    /**
+     * Consultas por página en los listados; si hay más, la última línea es "siguiente|cursor"
+     */
+    public static final int TAMANO_PAGINA = 50;
+
+    private final VeterinariaService servicio;
+    private int comandos;
+    private int errores;
+
+    public ProcesadorLotes(VeterinariaService servicio) {
+        this.servicio = servicio;
+    }
+
+    /**
+     * Ejecuta todas las líneas del script hasta agotar la entrada
+     */
+    public void ejecutar(ConsoleHelper entrada) {
+        int numeroLinea = 0;
+        String linea;
+        while ((linea = entrada.siguienteLinea()) != null) {
+            numeroLinea++;
+            String contenido = linea.trim();
+            if (contenido.isEmpty() || contenido.startsWith("#")) {
+                continue;
+            }
+
+            comandos++;
+            try {
+                String resultado = ejecutar(contenido);
+                if (!resultado.isEmpty()) {
+                    System.out.println(resultado);
+                }
+            } catch (IllegalArgumentException e) {
+                errores++;
+                System.err.println("Línea " + numeroLinea + ": " + e.getMessage());
+            } catch (RuntimeException e) {
+                // Fallos del modelo o del diario: se informan igual y el script sigue
+                errores++;
+                System.err.println("Línea " + numeroLinea + ": error interno: " + e);
+            }
+        }
+    }
+
+    /**
+     * Ejecuta un único comando y devuelve su resultado en texto, vacío si el
+     * comando no devuelve datos. Lanza IllegalArgumentException si los datos no
+     * son válidos, u otra RuntimeException si falla el modelo o el diario.
+     * No modifica los contadores, así que puede usarse desde varios hilos.
+     */
+    public String ejecutar(String linea) {
+        String[] campos = linea.trim().split("\\|", -1);
+        switch (campos[0].trim()) {
+            case "agregarCliente":
+                exigirCampos(campos, 5);
+                servicio.agregarCliente(new Cliente(campos[1], campos[2], campos[3], campos[4], campos[5]));
+                break;
+            case "agregarVeterinario":
+                exigirCampos(campos, 6);
+                servicio.agregarVeterinario(new Veterinario(campos[1], campos[2], campos[3], campos[4],
+                        campos[5], campos[6]));
+                break;
+            case "agregarAdministrativo":
+                exigirCampos(campos, 6);
+                servicio.agregarAdministrativo(new Administrativo(campos[1], campos[2], campos[3], campos[4],
+                        campos[5], campos[6]));
+                break;
+            case "agregarMascotaACliente":
+                exigirCampos(campos, 6);
+                agregarMascota(campos);
+                break;
+            case "crearConsulta":
+                exigirCampos(campos, 5);
+                return "Consulta #" + servicio.crearConsulta(campos[1], campos[2].trim(), campos[3],
+                        campos[4], campos[5]).getId();
+            case "agregarTarea":
+                exigirCampos(campos, 2);
+                servicio.agregarTarea(campos[1], new Tarea(campos[2]));
+                break;
+            case "iniciarTarea":
+                exigirCampos(campos, 2);
+                servicio.iniciarTarea(campos[1], campos[2]);
+                break;
+            case "completarTarea":
+                exigirCampos(campos, 2);
+                servicio.completarTarea(campos[1], campos[2]);
+                break;
+            case "buscarCliente":
+                exigirCampos(campos, 1);
+                return servicio.describirCliente(campos[1]);
+            case "buscarVeterinario":
+                exigirCampos(campos, 1);
+                return servicio.describirVeterinario(campos[1]);
+            case "mascotas":
+                exigirCampos(campos, 1);
+                return listarMascotas(servicio.getMascotasDe(campos[1]));
+            case "consultasCliente":
+                exigirCampos(campos, 1);
+                return listarConsultas(servicio.paginaConsultasPorCliente(campos[1], cursor(campos), TAMANO_PAGINA));
+            case "consultasVeterinario":
+                exigirCampos(campos, 1);
+                return listarConsultas(servicio.paginaConsultasPorVeterinario(campos[1], cursor(campos), TAMANO_PAGINA));
+            case "consultasHoy":
+                return listarConsultas(servicio.buscarConsultasDeHoy());
+            case "resumen":
+                return servicio.getResumen().toString();
+            case "resumenVeterinarios":
+                return listarLineas(servicio.getResumen().paginaConsultasPorVeterinario(cursor(campos, 1), TAMANO_PAGINA));
+            case "resumenAdministrativos":
+                return listarLineas(servicio.getResumen().paginaTareasPorAdministrativo(cursor(campos, 1), TAMANO_PAGINA));
+            case "estadisticas":
+                String informe = servicio.analizarConsultas().toString();
+                return informe.endsWith("\n") ? informe.substring(0, informe.length() - 1) : informe;
+            case "archivar":
+                int dias = campos.length > 1 && !campos[1].trim().isEmpty() ? leerEntero(campos[1], "cantidad de días") : 0;
+                return servicio.archivarConsultas(LocalDateTime.now().minusDays(dias)).toString();
+            default:
+                throw new IllegalArgumentException("Comando desconocido: " + campos[0].trim());
+        }
+        return "";
+    }
+
+    private static String cursor(String[] campos) {
+        return cursor(campos, 2);
+    }
+
+    private static String cursor(String[] campos, int posicion) {
+        return campos.length > posicion && !campos[posicion].trim().isEmpty() ? campos[posicion].trim() : null;
+    }
+
+    private static String listarMascotas(List<Mascota> mascotas) {
+        StringBuilder sb = new StringBuilder();
+        for (Mascota mascota : mascotas) {
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append(mascota.getNombre()).append(" (").append(mascota.getTipoMascota())
+              .append(", ").append(mascota.getRaza()).append(", ").append(mascota.getEdad()).append(" años)");
+        }
+        return sb.toString();
+    }
+
+    private static String listarConsultas(List<Consulta> consultas) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            for (Consulta consulta : consultas) {
+                if (sb.length() > 0) {
+                    sb.append('\n');
+                }
+                consulta.escribirResumenEn(sb);
+            }
+        } catch (IOException e) {
+            // StringBuilder nunca lanza IOException
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    private static String listarConsultas(Pagina<Consulta> pagina) {
+        return conSiguiente(listarConsultas(pagina.getElementos()), pagina);
+    }
+
+    private static String listarLineas(Pagina<String> pagina) {
+        return conSiguiente(String.join("\n", pagina.getElementos()), pagina);
+    }
+
+    private static String conSiguiente(String lineas, Pagina<?> pagina) {
+        if (!pagina.hayMas()) {
+            return lineas;
+        }
+        return lineas + "\nsiguiente|" + pagina.getSiguienteCursor();
+    }
+
+    private void agregarMascota(String[] campos) {
+        int edad = leerEntero(campos[4], "edad");
+        Mascota mascota;
+        switch (campos[2].trim().toLowerCase(Locale.ROOT)) {
+            case "perro":
+                mascota = new Perro(campos[3], edad, campos[5], campos[6]);
+                break;
+            case "gato":
+                mascota = new Gato(campos[3], edad, campos[5], Boolean.parseBoolean(campos[6].trim()));
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de mascota no válido: " + campos[2].trim());
+        }
+        servicio.agregarMascota(campos[1], mascota);
+    }
+
+    private static void exigirCampos(String[] campos, int cantidad) {
+        if (campos.length - 1 < cantidad) {
+            throw new IllegalArgumentException(campos[0].trim() + " requiere " + cantidad
+                    + " datos y se recibieron " + (campos.length - 1));
+        }
+    }
+
+    private static int leerEntero(String texto, String campo) {
+        try {
+            return Integer.parseInt(texto.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("La " + campo + " debe ser un número: " + texto.trim());
+        }
+    }
+
+    /**
+     * Cantidad de comandos ejecutados, incluidos los que fallaron
+     */
+    public int getComandos() {
+        return comandos;
+    }
+
+    /**
+     * Cantidad de comandos que fallaron
+     */
+    public int getErrores() {
+        return errores;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.veterinaria.eventos;
+
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Procesador que agrega cada evento como una línea de texto al registro de
+ * auditoría. Solo usa los datos copiados al publicar, no las entidades vivas.
+ * Escribe sobre un búfer y lo vacía al final de cada lote, así que una ráfaga
+ * de eventos cuesta una sola escritura al archivo.
+ */
+public final class RegistroAuditoria implements ProcesadorEventos {
+    private final Writer salida;
+    private final ZoneId zona = ZoneId.systemDefault();
+
+    public RegistroAuditoria(Path archivo) throws IOException {
+        this.salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void procesar(Evento evento, long secuencia, boolean finDeLote) {
+        try {
+            Renderizado.fechaIso(salida, LocalDateTime.ofInstant(Instant.ofEpochMilli(evento.getInstante()), zona));
+            salida.append(' ').append(evento.getTipo().name()).append(' ');
+            switch (evento.getTipo()) {
+                case CONSULTA_CREADA:
+                    salida.append("Consulta #");
+                    Renderizado.entero(salida, evento.getIdConsulta());
+                    salida.append(" cliente ").append(evento.getDniCliente())
+                          .append(" mascota ").append(evento.getNombreMascota())
+                          .append(" veterinario ").append(evento.getDniVeterinario());
+                    break;
+                case MASCOTA_AGREGADA:
+                case MASCOTA_ELIMINADA:
+                    salida.append("cliente ").append(evento.getDniCliente())
+                          .append(" mascota ").append(evento.getNombreMascota())
+                          .append(" (").append(evento.getTipoMascota()).append(')');
+                    break;
+                case TAREA_CAMBIO_ESTADO:
+                    salida.append("Tarea #");
+                    Renderizado.entero(salida, evento.getIdTarea());
+                    salida.append(' ').append(evento.getEstadoAnterior().getNombre())
+                          .append(" -> ").append(evento.getEstadoNuevo().getNombre());
+                    break;
+                case TAREA_URGENTE:
+                    salida.append("Tarea #");
+                    Renderizado.entero(salida, evento.getIdTarea());
+                    salida.append(" sigue ").append(evento.getEstadoNuevo().getNombre())
+                          .append(" después del plazo de urgencia");
+                    break;
+                default:
+                    break;
+            }
+            salida.append('\n');
+            if (finDeLote) {
+                salida.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void alTerminar() {
+        try {
+            salida.close();
+        } catch (IOException e) {
+            System.err.println("No se pudo cerrar el registro de auditoría: " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,334 @@
+package com.veterinaria.servicio;
+
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.Persona;
+import com.veterinaria.modelo.Veterinario;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Almacén central de consultas de la veterinaria.
+ * Mantiene índices secundarios por DNI del cliente, por mascota, por DNI del
+ * veterinario y por fecha, de modo que cada búsqueda cuesta en proporción
+ * al resultado y no al total de consultas registradas.
+ */
+public class RegistroConsultas {
+    private final List<Consulta> consultas = new ArrayList<>();
+    private final Map<Integer, Consulta> porId = new HashMap<>();
+    private final Map<String, List<Consulta>> porCliente = new HashMap<>();
+    // Las mascotas se indexan por identidad: su equals depende de campos mutables
+    private final Map<Mascota, List<Consulta>> porMascota = new IdentityHashMap<>();
+    private final Map<String, List<Consulta>> porVeterinario = new HashMap<>();
+    private final IndiceTemporalConsultas porFecha = new IndiceTemporalConsultas();
+    // Posición de registro de cada consulta (su índice en la lista general);
+    // los índices secundarios se mantienen ordenados por esta posición para paginar
+    private final Map<Consulta, Integer> posiciones = new IdentityHashMap<>();
+    // Cliente, mascota y veterinario bajo los que está indexada cada consulta
+    private final Map<Consulta, Ubicacion> ubicaciones = new IdentityHashMap<>();
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+    /**
+     * Agrega una consulta al almacén. Ignora consultas ya registradas.
+     */
+    public void agregar(Consulta consulta) {
+        if (consulta == null) {
+            throw new IllegalArgumentException("La consulta no puede ser nula");
+        }
+
+        cerrojo.writeLock().lock();
+        try {
+            if (porId.putIfAbsent(consulta.getId(), consulta) != null) {
+                return;
+            }
+            posiciones.put(consulta, consultas.size());
+            consultas.add(consulta);
+            indexar(consulta);
+            porFecha.agregar(consulta);
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega varias consultas en orden tomando el cerrojo una sola vez.
+     * Ignora las ya registradas, igual que agregar.
+     */
+    public void agregarTodas(Collection<Consulta> nuevas) {
+        cerrojo.writeLock().lock();
+        try {
+            for (Consulta consulta : nuevas) {
+                if (porId.putIfAbsent(consulta.getId(), consulta) != null) {
+                    continue;
+                }
+                posiciones.put(consulta, consultas.size());
+                consultas.add(consulta);
+                indexar(consulta);
+                porFecha.agregar(consulta);
+            }
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mueve una consulta cuyo cliente, mascota o veterinario cambió desde donde
+     * está indexada hasta sus relaciones actuales. La consulta avisa sus cambios
+     * después de soltar su cerrojo, así que dos avisos pueden llegar en otro
+     * orden; como siempre se parte de lo indexado y se llega al estado actual,
+     * el resultado no depende de ese orden. Si el veterinario indexado cambia,
+     * se informa a cambioDeVeterinario con el cerrojo tomado.
+     */
+    public void reindexar(Consulta consulta, BiConsumer<Veterinario, Veterinario> cambioDeVeterinario) {
+        cerrojo.writeLock().lock();
+        try {
+            if (porId.get(consulta.getId()) != consulta) {
+                return;
+            }
+            Ubicacion anterior = ubicaciones.get(consulta);
+            desindexar(consulta, anterior);
+            Ubicacion actual = indexar(consulta);
+            if (anterior.veterinario != actual.veterinario) {
+                cambioDeVeterinario.accept(anterior.veterinario, actual.veterinario);
+            }
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mueve las consultas de una persona a su nuevo DNI
+     */
+    public void cambiarDni(Persona persona, String dniNuevo) {
+        Map<String, List<Consulta>> indice;
+        if (persona instanceof Cliente) {
+            indice = porCliente;
+        } else if (persona instanceof Veterinario) {
+            indice = porVeterinario;
+        } else {
+            return;
+        }
+
+        cerrojo.writeLock().lock();
+        try {
+            List<Consulta> lista = indice.remove(persona.getDni());
+            if (lista != null) {
+                indice.put(dniNuevo, lista);
+            }
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    private Ubicacion indexar(Consulta consulta) {
+        Ubicacion ubicacion = new Ubicacion(consulta.getCliente(), consulta.getMascota(), consulta.getVeterinario());
+        insertarEnOrden(porCliente.computeIfAbsent(ubicacion.cliente.getDni(), d -> new ArrayList<>()), consulta);
+        insertarEnOrden(porMascota.computeIfAbsent(ubicacion.mascota, m -> new ArrayList<>()), consulta);
+        insertarEnOrden(porVeterinario.computeIfAbsent(ubicacion.veterinario.getDni(), d -> new ArrayList<>()),
+                consulta);
+        ubicaciones.put(consulta, ubicacion);
+        return ubicacion;
+    }
+
+    /**
+     * Agrega al final en el caso habitual; una consulta reasignada se intercala
+     * según su posición de registro
+     */
+    private void insertarEnOrden(List<Consulta> lista, Consulta consulta) {
+        int posicion = posiciones.get(consulta);
+        if (lista.isEmpty() || posiciones.get(lista.get(lista.size() - 1)) < posicion) {
+            lista.add(consulta);
+        } else {
+            lista.add(primeraDespuesDe(lista, posicion), consulta);
+        }
+    }
+
+    /**
+     * Índice del primer elemento de una lista ordenada con posición mayor a la indicada
+     */
+    private int primeraDespuesDe(List<Consulta> lista, long posicion) {
+        int desde = 0;
+        int hasta = lista.size();
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (posiciones.get(lista.get(medio)) <= posicion) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde;
+    }
+
+    private void desindexar(Consulta consulta, Ubicacion ubicacion) {
+        quitar(porCliente, ubicacion.cliente.getDni(), consulta);
+        quitar(porMascota, ubicacion.mascota, consulta);
+        quitar(porVeterinario, ubicacion.veterinario.getDni(), consulta);
+    }
+
+    private static <K> void quitar(Map<K, List<Consulta>> indice, K clave, Consulta consulta) {
+        List<Consulta> lista = indice.get(clave);
+        if (lista != null) {
+            lista.remove(consulta);
+            if (lista.isEmpty()) {
+                indice.remove(clave);
+            }
+        }
+    }
+
+    /**
+     * Busca una consulta por su ID
+     */
+    public Consulta buscarPorId(int id) {
+        cerrojo.readLock().lock();
+        try {
+            return porId.get(id);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Historial de consultas de un cliente, en orden de registro
+     */
+    public List<Consulta> buscarPorCliente(String dni) {
+        return copiar(porCliente, dni);
+    }
+
+    /**
+     * Historial médico de una mascota con todos los veterinarios
+     */
+    public List<Consulta> buscarPorMascota(Mascota mascota) {
+        return copiar(porMascota, mascota);
+    }
+
+    /**
+     * Consultas atendidas por un veterinario
+     */
+    public List<Consulta> buscarPorVeterinario(String dni) {
+        return copiar(porVeterinario, dni);
+    }
+
+    /**
+     * Consultas con fecha en el rango [desde, hasta), ordenadas por fecha
+     */
+    public List<Consulta> buscarPorFecha(LocalDateTime desde, LocalDateTime hasta) {
+        return porFecha.entre(desde, hasta);
+    }
+
+    /**
+     * Consultas de un día, ordenadas por hora
+     */
+    public List<Consulta> buscarPorDia(LocalDate dia) {
+        return porFecha.delDia(dia);
+    }
+
+    /**
+     * Cantidad de consultas de un día
+     */
+    public int contarPorDia(LocalDate dia) {
+        return porFecha.contarDelDia(dia);
+    }
+
+    /**
+     * Página de todas las consultas en orden de registro
+     */
+    public Pagina<Consulta> pagina(String cursor, int tamano) {
+        cerrojo.readLock().lock();
+        try {
+            return paginar(consultas, cursor, tamano);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Página del historial de un cliente
+     */
+    public Pagina<Consulta> paginaPorCliente(String dni, String cursor, int tamano) {
+        return paginar(porCliente, dni, cursor, tamano);
+    }
+
+    /**
+     * Página de las consultas de un veterinario
+     */
+    public Pagina<Consulta> paginaPorVeterinario(String dni, String cursor, int tamano) {
+        return paginar(porVeterinario, dni, cursor, tamano);
+    }
+
+    private <K> Pagina<Consulta> paginar(Map<K, List<Consulta>> indice, K clave, String cursor, int tamano) {
+        cerrojo.readLock().lock();
+        try {
+            List<Consulta> lista = indice.get(clave);
+            return paginar(lista != null ? lista : Collections.emptyList(), cursor, tamano);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    private Pagina<Consulta> paginar(List<Consulta> lista, String cursor, int tamano) {
+        Pagina.validarTamano(tamano);
+        int desde = primeraDespuesDe(lista, Pagina.decodificar(cursor));
+        int hasta = Math.min(lista.size(), desde + tamano);
+        String siguiente = hasta < lista.size()
+                ? Pagina.codificar(posiciones.get(lista.get(hasta - 1))) : null;
+        return new Pagina<>(new ArrayList<>(lista.subList(desde, hasta)), siguiente);
+    }
+
+    private <K> List<Consulta> copiar(Map<K, List<Consulta>> indice, K clave) {
+        cerrojo.readLock().lock();
+        try {
+            List<Consulta> lista = indice.get(clave);
+            return lista != null ? new ArrayList<>(lista) : Collections.emptyList();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copia de todas las consultas en orden de registro
+     */
+    public List<Consulta> getConsultas() {
+        cerrojo.readLock().lock();
+        try {
+            return new ArrayList<>(consultas);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad total de consultas registradas
+     */
+    public int getCantidad() {
+        cerrojo.readLock().lock();
+        try {
+            return consultas.size();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    private static final class Ubicacion {
+        final Cliente cliente;
+        final Mascota mascota;
+        final Veterinario veterinario;
+
+        Ubicacion(Cliente cliente, Mascota mascota, Veterinario veterinario) {
+            this.cliente = cliente;
+            this.mascota = mascota;
+            this.veterinario = veterinario;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.veterinaria.servicio;
+
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Persona;
+import com.veterinaria.modelo.Veterinario;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registro de personas del sistema indexado por DNI.
+ * Mantiene un índice concurrente por tipo de persona, igual que Persona.equals,
+ * de modo que las búsquedas y la detección de duplicados son O(1).
+ */
+public class RegistroPersonas {
+    private final IndicePersonas<Cliente> clientes = new IndicePersonas<>("cliente");
+    private final IndicePersonas<Veterinario> veterinarios = new IndicePersonas<>("veterinario");
+    private final IndicePersonas<Administrativo> administrativos = new IndicePersonas<>("administrativo");
+
+    /**
+     * Registra un cliente, rechazando DNIs duplicados
+     */
+    public void agregarCliente(Cliente cliente) {
+        clientes.agregar(cliente);
+    }
+
+    /**
+     * Registra un veterinario, rechazando DNIs duplicados
+     */
+    public void agregarVeterinario(Veterinario veterinario) {
+        veterinarios.agregar(veterinario);
+    }
+
+    /**
+     * Registra un administrativo, rechazando DNIs duplicados
+     */
+    public void agregarAdministrativo(Administrativo administrativo) {
+        administrativos.agregar(administrativo);
+    }
+
+    public Cliente buscarCliente(String dni) {
+        return clientes.buscar(dni);
+    }
+
+    public Veterinario buscarVeterinario(String dni) {
+        return veterinarios.buscar(dni);
+    }
+
+    public Administrativo buscarAdministrativo(String dni) {
+        return administrativos.buscar(dni);
+    }
+
+    /**
+     * Reindexa una persona cuyo DNI está por cambiar.
+     * Lanza IllegalArgumentException si el nuevo DNI ya está registrado.
+     */
+    public void cambiarDni(Persona persona, String dniNuevo) {
+        if (persona instanceof Cliente) {
+            clientes.cambiarDni((Cliente) persona, dniNuevo);
+        } else if (persona instanceof Veterinario) {
+            veterinarios.cambiarDni((Veterinario) persona, dniNuevo);
+        } else if (persona instanceof Administrativo) {
+            administrativos.cambiarDni((Administrativo) persona, dniNuevo);
+        }
+    }
+
+    // Vistas de solo lectura en orden de registro
+    public Collection<Cliente> getClientes() {
+        return clientes.getTodos();
+    }
+
+    public Collection<Veterinario> getVeterinarios() {
+        return veterinarios.getTodos();
+    }
+
+    public Collection<Administrativo> getAdministrativos() {
+        return administrativos.getTodos();
+    }
+
+    // Listados paginados en orden de registro
+    public Pagina<Cliente> paginaClientes(String cursor, int tamano) {
+        return clientes.pagina(cursor, tamano);
+    }
+
+    public Pagina<Veterinario> paginaVeterinarios(String cursor, int tamano) {
+        return veterinarios.pagina(cursor, tamano);
+    }
+
+    public Pagina<Administrativo> paginaAdministrativos(String cursor, int tamano) {
+        return administrativos.pagina(cursor, tamano);
+    }
+
+    public int getCantidadClientes() {
+        return clientes.getCantidad();
+    }
+
+    public int getCantidadVeterinarios() {
+        return veterinarios.getCantidad();
+    }
+
+    public int getCantidadAdministrativos() {
+        return administrativos.getCantidad();
+    }
+
+    /**
+     * Índice por DNI de un tipo de persona, con orden de registro para los listados
+     */
+    private static final class IndicePersonas<T extends Persona> {
+        private final String tipo;
+        private final ConcurrentHashMap<String, T> porDni = new ConcurrentHashMap<>();
+        // Posición de registro -> persona; las posiciones nunca se reutilizan
+        private final ConcurrentSkipListMap<Long, T> orden = new ConcurrentSkipListMap<>();
+        private long siguientePosicion;
+
+        IndicePersonas(String tipo) {
+            this.tipo = tipo;
+        }
+
+        void agregar(T persona) {
+            if (persona == null) {
+                throw new IllegalArgumentException("El " + tipo + " no puede ser nulo");
+            }
+            if (porDni.putIfAbsent(persona.getDni(), persona) != null) {
+                throw new IllegalArgumentException("Ya existe un " + tipo + " con DNI: " + persona.getDni());
+            }
+            // Asignar la posición y publicar juntos, para que ningún lector vea una
+            // posición mayor antes que una menor y la saltee al paginar
+            synchronized (orden) {
+                orden.put(siguientePosicion++, persona);
+            }
+        }
+
+        T buscar(String dni) {
+            if (dni == null) {
+                return null;
+            }
+            return porDni.get(dni.trim());
+        }
+
+        void cambiarDni(T persona, String dniNuevo) {
+            String dniAnterior = persona.getDni();
+            if (porDni.get(dniAnterior) != persona) {
+                return; // La persona no pertenece a este registro
+            }
+            if (porDni.putIfAbsent(dniNuevo, persona) != null) {
+                throw new IllegalArgumentException("Ya existe un " + tipo + " con DNI: " + dniNuevo);
+            }
+            porDni.remove(dniAnterior, persona);
+        }
+
+        Collection<T> getTodos() {
+            return Collections.unmodifiableCollection(orden.values());
+        }
+
+        Pagina<T> pagina(String cursor, int tamano) {
+            Pagina.validarTamano(tamano);
+            List<T> elementos = new ArrayList<>(tamano);
+            long ultima = Pagina.decodificar(cursor);
+            Iterator<Map.Entry<Long, T>> siguientes = orden.tailMap(ultima, false).entrySet().iterator();
+            while (elementos.size() < tamano && siguientes.hasNext()) {
+                Map.Entry<Long, T> entrada = siguientes.next();
+                elementos.add(entrada.getValue());
+                ultima = entrada.getKey();
+            }
+            return new Pagina<>(elementos, siguientes.hasNext() ? Pagina.codificar(ultima) : null);
+        }
+
+        int getCantidad() {
+            return porDni.size();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.veterinaria.util;
+
+import java.io.IOException;
+
+/**
+ * Objeto que sabe escribir su representación en texto sobre un destino
+ */
+@FunctionalInterface
+public interface Renderizable {
+    /**
+     * Escribe la representación en el destino, sin crear cadenas intermedias
+     */
+    void escribirEn(Appendable destino) throws IOException;
+}
\ No newline at end of file
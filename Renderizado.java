@@ -0,0 +1,110 @@
+package com.veterinaria.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Utilidades para escribir texto directamente sobre un Appendable.
+ * Los números y las fechas se escriben carácter por carácter, sin pasar por
+ * String.format ni por cadenas temporales, de modo que los listados grandes
+ * se pueden volcar a un único búfer o flujo sin generar basura.
+ */
+public final class Renderizado {
+    /**
+     * Formato de fecha y hora que se muestra al usuario
+     */
+    public static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private Renderizado() {
+    }
+
+    /**
+     * Representación en texto de un objeto renderizable
+     */
+    public static String aTexto(Renderizable renderizable) {
+        StringBuilder sb = new StringBuilder(128);
+        try {
+            renderizable.escribirEn(sb);
+        } catch (IOException e) {
+            // StringBuilder nunca lanza IOException
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Escribe un número entero en base decimal
+     */
+    public static void entero(Appendable destino, long valor) throws IOException {
+        if (destino instanceof StringBuilder) {
+            ((StringBuilder) destino).append(valor);
+            return;
+        }
+        if (valor == Long.MIN_VALUE) {
+            destino.append("-9223372036854775808");
+            return;
+        }
+        if (valor < 0) {
+            destino.append('-');
+            valor = -valor;
+        }
+        long divisor = 1;
+        while (valor / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            destino.append((char) ('0' + valor / divisor % 10));
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * Escribe una fecha con el formato dd/MM/yyyy HH:mm
+     */
+    public static void fecha(Appendable destino, LocalDateTime fecha) throws IOException {
+        dosDigitos(destino, fecha.getDayOfMonth());
+        destino.append('/');
+        dosDigitos(destino, fecha.getMonthValue());
+        destino.append('/');
+        int anio = fecha.getYear();
+        if (anio >= 0 && anio < 1000) {
+            dosDigitos(destino, anio / 100);
+            dosDigitos(destino, anio % 100);
+        } else {
+            entero(destino, anio);
+        }
+        destino.append(' ');
+        dosDigitos(destino, fecha.getHour());
+        destino.append(':');
+        dosDigitos(destino, fecha.getMinute());
+    }
+
+    /**
+     * Escribe una fecha en formato ISO-8601 con segundos: yyyy-MM-ddTHH:mm:ss
+     */
+    public static void fechaIso(Appendable destino, LocalDateTime fecha) throws IOException {
+        int anio = fecha.getYear();
+        if (anio >= 0 && anio < 10000) {
+            dosDigitos(destino, anio / 100);
+            dosDigitos(destino, anio % 100);
+        } else {
+            entero(destino, anio);
+        }
+        destino.append('-');
+        dosDigitos(destino, fecha.getMonthValue());
+        destino.append('-');
+        dosDigitos(destino, fecha.getDayOfMonth());
+        destino.append('T');
+        dosDigitos(destino, fecha.getHour());
+        destino.append(':');
+        dosDigitos(destino, fecha.getMinute());
+        destino.append(':');
+        dosDigitos(destino, fecha.getSecond());
+    }
+
+    private static void dosDigitos(Appendable destino, int valor) throws IOException {
+        destino.append((char) ('0' + valor / 10)).append((char) ('0' + valor % 10));
+    }
+}
\ No newline at end of file
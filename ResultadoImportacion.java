@@ -0,0 +1,78 @@
+package com.veterinaria.importacion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva: cuántos registros se incorporaron
+ * y los errores de cada fila rechazada, ordenados por número de línea
+ */
+public class ResultadoImportacion {
+    private final int clientes;
+    private final int veterinarios;
+    private final int mascotas;
+    private final List<FilaRechazada> errores;
+
+    ResultadoImportacion(int clientes, int veterinarios, int mascotas, List<FilaRechazada> errores) {
+        this.clientes = clientes;
+        this.veterinarios = veterinarios;
+        this.mascotas = mascotas;
+        List<FilaRechazada> ordenados = new ArrayList<>(errores);
+        ordenados.sort(Comparator.comparingInt(FilaRechazada::getLinea));
+        this.errores = Collections.unmodifiableList(ordenados);
+    }
+
+    public int getClientes() {
+        return clientes;
+    }
+
+    public int getVeterinarios() {
+        return veterinarios;
+    }
+
+    public int getMascotas() {
+        return mascotas;
+    }
+
+    public List<FilaRechazada> getErrores() {
+        return errores;
+    }
+
+    public boolean tieneErrores() {
+        return !errores.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "Importados: " + clientes + " clientes, " + veterinarios + " veterinarios, "
+                + mascotas + " mascotas. Filas con errores: " + errores.size();
+    }
+
+    /**
+     * Fila rechazada y el motivo
+     */
+    public static class FilaRechazada {
+        private final int linea;
+        private final String mensaje;
+
+        FilaRechazada(int linea, String mensaje) {
+            this.linea = linea;
+            this.mensaje = mensaje;
+        }
+
+        public int getLinea() {
+            return linea;
+        }
+
+        public String getMensaje() {
+            return mensaje;
+        }
+
+        @Override
+        public String toString() {
+            return "Línea " + linea + ": " + mensaje;
+        }
+    }
+}
\ No newline at end of file
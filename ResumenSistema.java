@@ -0,0 +1,276 @@
+package com.veterinaria.servicio;
+
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.EstadoTarea;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.Persona;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.util.Renderizable;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totales del sistema mantenidos en cada alta, baja o cambio de estado.
+ * Leerlos cuesta lo mismo con diez registros que con un millón, de modo que el
+ * resumen puede refrescarse tan seguido como se quiera. El detalle por
+ * veterinario y por administrativo crece con el personal, así que no forma
+ * parte del resumen: se pide aparte, de a una página.
+ */
+public class ResumenSistema implements Renderizable {
+    private final RegistroPersonas registro;
+    private final RegistroConsultas consultas;
+    private final SeguimientoTareasUrgentes tareasUrgentes;
+    private final LongAdder mascotas = new LongAdder();
+    private final Map<String, LongAdder> mascotasPorTipo = new ConcurrentSkipListMap<>();
+    private final LongAdder tareas = new LongAdder();
+    private final Map<EstadoTarea, LongAdder> tareasPorEstado = new EnumMap<>(EstadoTarea.class);
+    // Por DNI
+    private final Map<String, LongAdder> consultasPorVeterinario = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder[]> tareasPorAdministrativo = new ConcurrentHashMap<>();
+
+    ResumenSistema(RegistroPersonas registro, RegistroConsultas consultas,
+                   SeguimientoTareasUrgentes tareasUrgentes) {
+        this.registro = registro;
+        this.consultas = consultas;
+        this.tareasUrgentes = tareasUrgentes;
+        for (EstadoTarea estado : EstadoTarea.values()) {
+            tareasPorEstado.put(estado, new LongAdder());
+        }
+    }
+
+    // Actualizaciones, invocadas por el servicio en cada cambio del modelo
+    void mascotaAgregada(Mascota mascota) {
+        mascotas.increment();
+        mascotasPorTipo.computeIfAbsent(mascota.getTipoMascota(), t -> new LongAdder()).increment();
+    }
+
+    void mascotaEliminada(Mascota mascota) {
+        mascotas.decrement();
+        mascotasPorTipo.get(mascota.getTipoMascota()).decrement();
+    }
+
+    void consultaAgregada(String dniVeterinario) {
+        consultasPorVeterinario.computeIfAbsent(dniVeterinario, d -> new LongAdder()).increment();
+    }
+
+    void consultaReasignada(String dniAnterior, String dniNuevo) {
+        if (!dniAnterior.equals(dniNuevo)) {
+            consultasPorVeterinario.get(dniAnterior).decrement();
+            consultaAgregada(dniNuevo);
+        }
+    }
+
+    void tareaAgregada(String dniAdministrativo, EstadoTarea estado) {
+        tareas.increment();
+        tareasPorEstado.get(estado).increment();
+        tareasDe(dniAdministrativo)[estado.ordinal()].increment();
+    }
+
+    void tareaEliminada(String dniAdministrativo, EstadoTarea estado) {
+        tareas.decrement();
+        tareasPorEstado.get(estado).decrement();
+        tareasDe(dniAdministrativo)[estado.ordinal()].decrement();
+    }
+
+    void tareaCambioDeEstado(String dniAdministrativo, EstadoTarea anterior, EstadoTarea nuevo) {
+        tareasPorEstado.get(anterior).decrement();
+        tareasPorEstado.get(nuevo).increment();
+        if (dniAdministrativo != null) {
+            LongAdder[] porEstado = tareasDe(dniAdministrativo);
+            porEstado[anterior.ordinal()].decrement();
+            porEstado[nuevo.ordinal()].increment();
+        }
+    }
+
+    private LongAdder[] tareasDe(String dniAdministrativo) {
+        return tareasPorAdministrativo.computeIfAbsent(dniAdministrativo, d -> {
+            LongAdder[] porEstado = new LongAdder[EstadoTarea.values().length];
+            for (int i = 0; i < porEstado.length; i++) {
+                porEstado[i] = new LongAdder();
+            }
+            return porEstado;
+        });
+    }
+
+    /**
+     * Pasa los contadores de un veterinario o administrativo a su DNI nuevo
+     */
+    void cambiarDni(Persona persona, String dniNuevo) {
+        if (persona instanceof Veterinario) {
+            LongAdder contador = consultasPorVeterinario.remove(persona.getDni());
+            if (contador != null) {
+                consultasPorVeterinario.put(dniNuevo, contador);
+            }
+        } else if (persona instanceof Administrativo) {
+            LongAdder[] porEstado = tareasPorAdministrativo.remove(persona.getDni());
+            if (porEstado != null) {
+                tareasPorAdministrativo.put(dniNuevo, porEstado);
+            }
+        }
+    }
+
+    // Getters
+    public int getClientes() {
+        return registro.getCantidadClientes();
+    }
+
+    public int getVeterinarios() {
+        return registro.getCantidadVeterinarios();
+    }
+
+    public int getAdministrativos() {
+        return registro.getCantidadAdministrativos();
+    }
+
+    public long getMascotas() {
+        return mascotas.sum();
+    }
+
+    /**
+     * Cantidad de mascotas de un tipo, según Mascota.getTipoMascota
+     */
+    public long getMascotas(String tipo) {
+        LongAdder contador = mascotasPorTipo.get(tipo);
+        return contador != null ? contador.sum() : 0;
+    }
+
+    /**
+     * Cantidad de mascotas por tipo, en orden alfabético
+     */
+    public Map<String, Long> getMascotasPorTipo() {
+        Map<String, Long> resultado = new ConcurrentSkipListMap<>();
+        for (Map.Entry<String, LongAdder> entrada : mascotasPorTipo.entrySet()) {
+            resultado.put(entrada.getKey(), entrada.getValue().sum());
+        }
+        return Collections.unmodifiableMap(resultado);
+    }
+
+    public int getConsultas() {
+        return consultas.getCantidad();
+    }
+
+    public int getConsultasDeHoy() {
+        return consultas.contarPorDia(LocalDate.now());
+    }
+
+    public long getTareas() {
+        return tareas.sum();
+    }
+
+    public long getTareas(EstadoTarea estado) {
+        return tareasPorEstado.get(estado).sum();
+    }
+
+    /**
+     * Cantidad de consultas atendidas por el veterinario con ese DNI
+     */
+    public long getConsultasDe(String dniVeterinario) {
+        LongAdder contador = consultasPorVeterinario.get(dniVeterinario);
+        return contador != null ? contador.sum() : 0;
+    }
+
+    /**
+     * Cantidad de tareas en un estado asignadas al administrativo con ese DNI
+     */
+    public long getTareasDe(String dniAdministrativo, EstadoTarea estado) {
+        LongAdder[] porEstado = tareasPorAdministrativo.get(dniAdministrativo);
+        return porEstado != null ? porEstado[estado.ordinal()].sum() : 0;
+    }
+
+    public int getTareasUrgentes() {
+        return tareasUrgentes.getCantidadUrgentes();
+    }
+
+    @Override
+    public void escribirEn(Appendable destino) throws IOException {
+        destino.append("Clientes registrados: ");
+        Renderizado.entero(destino, getClientes());
+        destino.append("\nMascotas registradas: ");
+        Renderizado.entero(destino, getMascotas());
+        String separador = " (";
+        for (Map.Entry<String, LongAdder> entrada : mascotasPorTipo.entrySet()) {
+            destino.append(separador).append(entrada.getKey()).append(": ");
+            Renderizado.entero(destino, entrada.getValue().sum());
+            separador = ", ";
+        }
+        if (!mascotasPorTipo.isEmpty()) {
+            destino.append(')');
+        }
+        destino.append("\nVeterinarios registrados: ");
+        Renderizado.entero(destino, getVeterinarios());
+        destino.append("\nAdministrativos registrados: ");
+        Renderizado.entero(destino, getAdministrativos());
+        destino.append("\nConsultas realizadas: ");
+        Renderizado.entero(destino, getConsultas());
+        destino.append("\nConsultas de hoy: ");
+        Renderizado.entero(destino, getConsultasDeHoy());
+        destino.append("\nTareas creadas: ");
+        Renderizado.entero(destino, getTareas());
+        separador = " (";
+        for (EstadoTarea estado : EstadoTarea.values()) {
+            destino.append(separador).append(estado.getNombre()).append(": ");
+            Renderizado.entero(destino, getTareas(estado));
+            separador = ", ";
+        }
+        destino.append(")\nTareas urgentes: ");
+        Renderizado.entero(destino, getTareasUrgentes());
+    }
+
+    /**
+     * Página del detalle de consultas por veterinario, en orden de registro.
+     * Cada línea es "DNI (nombre): cantidad"; cuesta en proporción a la página.
+     */
+    public Pagina<String> paginaConsultasPorVeterinario(String cursor, int tamano) {
+        Pagina<Veterinario> veterinarios = registro.paginaVeterinarios(cursor, tamano);
+        List<String> lineas = new ArrayList<>(veterinarios.getElementos().size());
+        for (Veterinario veterinario : veterinarios.getElementos()) {
+            lineas.add(Renderizado.aTexto(destino -> {
+                escribirPersonaEn(destino, veterinario);
+                Renderizado.entero(destino, getConsultasDe(veterinario.getDni()));
+            }));
+        }
+        return new Pagina<>(lineas, veterinarios.getSiguienteCursor());
+    }
+
+    /**
+     * Página del detalle de tareas por administrativo, en orden de registro.
+     * Cada línea es "DNI (nombre): cantidad por estado".
+     */
+    public Pagina<String> paginaTareasPorAdministrativo(String cursor, int tamano) {
+        Pagina<Administrativo> administrativos = registro.paginaAdministrativos(cursor, tamano);
+        List<String> lineas = new ArrayList<>(administrativos.getElementos().size());
+        for (Administrativo administrativo : administrativos.getElementos()) {
+            lineas.add(Renderizado.aTexto(destino -> {
+                escribirPersonaEn(destino, administrativo);
+                String separador = "";
+                for (EstadoTarea estado : EstadoTarea.values()) {
+                    destino.append(separador).append(estado.getNombre()).append(' ');
+                    Renderizado.entero(destino, getTareasDe(administrativo.getDni(), estado));
+                    separador = ", ";
+                }
+            }));
+        }
+        return new Pagina<>(lineas, administrativos.getSiguienteCursor());
+    }
+
+    private static void escribirPersonaEn(Appendable destino, Persona persona) throws IOException {
+        destino.append(persona.getDni()).append(" (");
+        persona.escribirNombreCompletoEn(destino);
+        destino.append("): ");
+    }
+
+    @Override
+    public String toString() {
+        return Renderizado.aTexto(this);
+    }
+}
\ No newline at end of file
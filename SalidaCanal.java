@@ -0,0 +1,102 @@
+package com.veterinaria.exportacion;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Salida de texto UTF-8 hacia un archivo a través de un FileChannel.
+ * Los caracteres se acumulan en un búfer fijo, se codifican sobre un búfer
+ * directo grande y se escriben al canal cuando se llena, por lo que la memoria
+ * usada no depende del tamaño de lo exportado.
+ */
+final class SalidaCanal implements Appendable, Closeable {
+    private static final int TAMANO_CARACTERES = 64 * 1024;
+    private static final int TAMANO_BYTES = 4 * 1024 * 1024;
+
+    private final FileChannel canal;
+    private final CharsetEncoder codificador = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer caracteres = CharBuffer.allocate(TAMANO_CARACTERES);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(TAMANO_BYTES);
+
+    SalidaCanal(Path archivo) throws IOException {
+        this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    @Override
+    public SalidaCanal append(char c) throws IOException {
+        if (!caracteres.hasRemaining()) {
+            codificar(false);
+        }
+        caracteres.put(c);
+        return this;
+    }
+
+    @Override
+    public SalidaCanal append(CharSequence texto) throws IOException {
+        return append(texto, 0, texto.length());
+    }
+
+    @Override
+    public SalidaCanal append(CharSequence texto, int inicio, int fin) throws IOException {
+        for (int i = inicio; i < fin; i++) {
+            if (!caracteres.hasRemaining()) {
+                codificar(false);
+            }
+            caracteres.put(texto.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Codifica los caracteres acumulados. Un carácter suplente suelto al final
+     * queda en el búfer hasta que llegue su pareja.
+     */
+    private void codificar(boolean finDeEntrada) throws IOException {
+        caracteres.flip();
+        while (codificador.encode(caracteres, bytes, finDeEntrada).isOverflow()) {
+            escribirBytes();
+        }
+        caracteres.compact();
+    }
+
+    private void escribirBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            canal.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    /**
+     * Vuelca todo lo pendiente al archivo y lo cierra
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            codificar(true);
+            CoderResult resultado;
+            while ((resultado = codificador.flush(bytes)).isOverflow()) {
+                escribirBytes();
+            }
+            if (resultado.isError()) {
+                resultado.throwException();
+            }
+            escribirBytes();
+            canal.force(false);
+        } finally {
+            canal.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.veterinaria.servicio;
+
+import com.veterinaria.modelo.Tarea;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Seguimiento de las tareas pendientes ordenadas por su fecha de urgencia.
+ * Las tareas que aún no vencieron esperan en una cola ordenada por vencimiento;
+ * cada revisión solo examina la cabeza de esa cola y mueve a la lista de urgentes
+ * las que cruzaron el plazo, avisando a quien corresponda. Así la lista de
+ * urgentes está siempre lista sin recorrer todas las tareas.
+ */
+public class SeguimientoTareasUrgentes {
+    private final TreeMap<Clave, Tarea> enEspera = new TreeMap<>();
+    private final TreeMap<Clave, Tarea> urgentes = new TreeMap<>();
+    private final Map<Integer, Clave> claves = new HashMap<>();
+    private final Consumer<Tarea> aviso;
+    private ScheduledExecutorService revisor;
+
+    /**
+     * Crea el seguimiento indicando a quién avisar cuando una tarea se vuelve urgente
+     */
+    public SeguimientoTareasUrgentes(Consumer<Tarea> aviso) {
+        if (aviso == null) {
+            throw new IllegalArgumentException("El aviso de urgencia no puede ser nulo");
+        }
+        this.aviso = aviso;
+    }
+
+    /**
+     * Sigue una tarea mientras esté pendiente y la deja de seguir en cualquier otro estado
+     */
+    public void actualizar(Tarea tarea) {
+        if (!tarea.estaPendiente()) {
+            quitar(tarea);
+            return;
+        }
+
+        boolean vencida;
+        synchronized (this) {
+            if (claves.containsKey(tarea.getId())) {
+                return;
+            }
+            Clave clave = new Clave(tarea.getFechaUrgencia(), tarea.getId());
+            claves.put(tarea.getId(), clave);
+            vencida = !LocalDateTime.now().isBefore(clave.vencimiento);
+            (vencida ? urgentes : enEspera).put(clave, tarea);
+        }
+        if (vencida) {
+            aviso.accept(tarea);
+        }
+    }
+
+    /**
+     * Deja de seguir una tarea
+     */
+    public synchronized void quitar(Tarea tarea) {
+        Clave clave = claves.remove(tarea.getId());
+        if (clave != null && enEspera.remove(clave) == null) {
+            urgentes.remove(clave);
+        }
+    }
+
+    /**
+     * Mueve a urgentes las tareas cuyo plazo venció y avisa por cada una.
+     * Devuelve las tareas que se volvieron urgentes en esta revisión.
+     */
+    public List<Tarea> revisar() {
+        return revisar(LocalDateTime.now());
+    }
+
+    private List<Tarea> revisar(LocalDateTime ahora) {
+        List<Tarea> nuevas = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<Clave, Tarea>> vencidas =
+                    enEspera.headMap(new Clave(ahora, Integer.MAX_VALUE), true).entrySet().iterator();
+            while (vencidas.hasNext()) {
+                Map.Entry<Clave, Tarea> entrada = vencidas.next();
+                urgentes.put(entrada.getKey(), entrada.getValue());
+                nuevas.add(entrada.getValue());
+                vencidas.remove();
+            }
+        }
+        // Avisar fuera del cerrojo para no bloquear a quien actualiza tareas
+        for (Tarea tarea : nuevas) {
+            aviso.accept(tarea);
+        }
+        return nuevas;
+    }
+
+    /**
+     * Tareas urgentes, de la más antigua a la más reciente
+     */
+    public List<Tarea> getUrgentes() {
+        revisar();
+        synchronized (this) {
+            return new ArrayList<>(urgentes.values());
+        }
+    }
+
+    /**
+     * Cantidad de tareas urgentes
+     */
+    public int getCantidadUrgentes() {
+        revisar();
+        synchronized (this) {
+            return urgentes.size();
+        }
+    }
+
+    /**
+     * Fecha en que vencerá la próxima tarea pendiente, o null si no hay ninguna en espera
+     */
+    public synchronized LocalDateTime getProximoVencimiento() {
+        return enEspera.isEmpty() ? null : enEspera.firstKey().vencimiento;
+    }
+
+    /**
+     * Revisa periódicamente en segundo plano para avisar apenas una tarea se vuelve urgente
+     */
+    public synchronized void iniciarRevisionPeriodica(Duration intervalo) {
+        if (revisor != null) {
+            return;
+        }
+        revisor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "revision-tareas-urgentes");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long periodo = intervalo.toMillis();
+        revisor.scheduleWithFixedDelay(this::revisar, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detiene la revisión periódica
+     */
+    public synchronized void detenerRevisionPeriodica() {
+        if (revisor != null) {
+            revisor.shutdownNow();
+            revisor = null;
+        }
+    }
+
+    /**
+     * Orden por vencimiento y, a igual vencimiento, por ID de tarea
+     */
+    private static final class Clave implements Comparable<Clave> {
+        final LocalDateTime vencimiento;
+        final int id;
+
+        Clave(LocalDateTime vencimiento, int id) {
+            this.vencimiento = vencimiento;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Clave otra) {
+            int comparacion = vencimiento.compareTo(otra.vencimiento);
+            return comparacion != 0 ? comparacion : Integer.compare(id, otra.id);
+        }
+    }
+}
\ No newline at end of file
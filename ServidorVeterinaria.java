@@ -0,0 +1,199 @@
+package com.veterinaria;
+
+import com.veterinaria.servicio.VeterinariaService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor local que expone el servicio a varias terminales por un socket TCP.
+ * Cada línea recibida es un comando de ProcesadorLotes y se responde con
+ * "OK n" o "ERROR n" seguido de n líneas de resultado. "salir" cierra la conexión.
+ * <pre>
+ * &gt; buscarCliente|12345678
+ * &lt; OK 6
+ * &lt; Cliente: Juan Pérez
+ * &lt; ...
+ * </pre>
+ * Cada conexión se atiende en su propio hilo virtual cuando la JVM los ofrece
+ * (Java 21 o posterior) y en un hilo de plataforma en caso contrario.
+ * Solo escucha en la interfaz local.
+ */
+public class ServidorVeterinaria implements Closeable {
+    public static final int PUERTO_PREDETERMINADO = 7070;
+    // Cuánto se espera al cerrar a que terminen los comandos en curso
+    private static final long ESPERA_CIERRE_SEGUNDOS = 10;
+
+    private final VeterinariaService servicio;
+    private final ServerSocket socket;
+    private final ExecutorService conexiones;
+    private final boolean hilosVirtuales;
+    private final Set<Socket> abiertas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger atendidas = new AtomicInteger();
+    private final Thread aceptador;
+
+    /**
+     * Abre el puerto indicado en la interfaz local; con 0 elige uno libre
+     */
+    public ServidorVeterinaria(VeterinariaService servicio, int puerto) throws IOException {
+        this.servicio = servicio;
+        this.socket = new ServerSocket(puerto, 256, InetAddress.getLoopbackAddress());
+        ExecutorService virtuales = ejecutorVirtual();
+        this.hilosVirtuales = virtuales != null;
+        this.conexiones = virtuales != null ? virtuales : Executors.newCachedThreadPool(tarea -> {
+            Thread hilo = new Thread(tarea, "conexion-veterinaria");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.aceptador = new Thread(this::aceptar, "servidor-veterinaria");
+    }
+
+    /**
+     * Ejecutor de un hilo virtual por tarea, o null si la JVM no los soporta.
+     * Se obtiene por reflexión para seguir compilando con Java 17.
+     */
+    private static ExecutorService ejecutorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Empieza a aceptar conexiones en segundo plano
+     */
+    public void iniciar() {
+        aceptador.start();
+    }
+
+    /**
+     * Espera hasta que el servidor se cierre
+     */
+    public void esperar() throws InterruptedException {
+        aceptador.join();
+    }
+
+    private void aceptar() {
+        while (!socket.isClosed()) {
+            try {
+                Socket conexion = socket.accept();
+                abiertas.add(conexion);
+                conexiones.execute(() -> atender(conexion));
+            } catch (SocketException e) {
+                return; // El servidor se cerró
+            } catch (IOException e) {
+                System.err.println("Error al aceptar una conexión: " + e.getMessage());
+            }
+        }
+    }
+
+    private void atender(Socket conexion) {
+        atendidas.incrementAndGet();
+        ProcesadorLotes procesador = new ProcesadorLotes(servicio);
+        try (Socket s = conexion;
+             BufferedReader entrada = new BufferedReader(
+                     new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             Writer salida = new BufferedWriter(
+                     new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                String comando = linea.trim();
+                if (comando.isEmpty()) {
+                    continue;
+                }
+                if (comando.equals("salir")) {
+                    break;
+                }
+                try {
+                    responder(salida, "OK", procesador.ejecutar(comando));
+                } catch (IllegalArgumentException e) {
+                    responder(salida, "ERROR", e.getMessage());
+                } catch (RuntimeException e) {
+                    responder(salida, "ERROR", "Error interno: " + e);
+                }
+                salida.flush();
+            }
+        } catch (IOException e) {
+            // La terminal cortó la conexión
+        } finally {
+            abiertas.remove(conexion);
+        }
+    }
+
+    private static void responder(Writer salida, String estado, String resultado) throws IOException {
+        String[] lineas = resultado == null || resultado.isEmpty() ? new String[0] : resultado.split("\n", -1);
+        salida.write(estado);
+        salida.write(' ');
+        salida.write(Integer.toString(lineas.length));
+        salida.write('\n');
+        for (String linea : lineas) {
+            salida.write(linea);
+            salida.write('\n');
+        }
+    }
+
+    // Getters
+    public int getPuerto() {
+        return socket.getLocalPort();
+    }
+
+    public boolean usaHilosVirtuales() {
+        return hilosVirtuales;
+    }
+
+    /**
+     * Cantidad de conexiones atendidas desde el inicio
+     */
+    public int getConexionesAtendidas() {
+        return atendidas.get();
+    }
+
+    public int getConexionesAbiertas() {
+        return abiertas.size();
+    }
+
+    /**
+     * Deja de aceptar conexiones, corta las abiertas y espera a que terminen
+     * los comandos en curso, para que ninguno modifique el servicio después
+     * de cerrar (por ejemplo, mientras se compacta el diario)
+     */
+    @Override
+    public void close() throws IOException {
+        socket.close();
+        try {
+            // Después de esto no entran conexiones nuevas a la lista de abiertas
+            aceptador.join();
+            for (Socket conexion : abiertas) {
+                try {
+                    conexion.close();
+                } catch (IOException e) {
+                    // Se está cerrando de todos modos
+                }
+            }
+            conexiones.shutdown();
+            if (!conexiones.awaitTermination(ESPERA_CIERRE_SEGUNDOS, TimeUnit.SECONDS)) {
+                throw new IOException("Hay comandos que no terminaron en " + ESPERA_CIERRE_SEGUNDOS + " segundos");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Se interrumpió la espera de las conexiones", e);
+        }
+    }
+}
\ No newline at end of file
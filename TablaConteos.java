@@ -0,0 +1,103 @@
+package com.veterinaria.analisis;
+
+import com.veterinaria.util.Renderizable;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Tabla de resultados de un análisis: cantidad de consultas por clave,
+ * con las filas ya ordenadas para mostrarlas
+ */
+public final class TablaConteos<K> implements Renderizable {
+    private final List<Fila<K>> filas;
+    private final Map<K, Long> porClave;
+    private final Function<K, String> etiqueta;
+    private final long total;
+
+    /**
+     * Fila de la tabla
+     */
+    public static final class Fila<K> {
+        private final K clave;
+        private final long cantidad;
+
+        Fila(K clave, long cantidad) {
+            this.clave = clave;
+            this.cantidad = cantidad;
+        }
+
+        public K getClave() {
+            return clave;
+        }
+
+        public long getCantidad() {
+            return cantidad;
+        }
+    }
+
+    TablaConteos(Map<K, long[]> conteos, Comparator<Fila<K>> orden, Function<K, String> etiqueta) {
+        List<Fila<K>> lista = new ArrayList<>(conteos.size());
+        Map<K, Long> indice = new HashMap<>(conteos.size() * 2);
+        long suma = 0;
+        for (Map.Entry<K, long[]> entrada : conteos.entrySet()) {
+            long cantidad = entrada.getValue()[0];
+            lista.add(new Fila<>(entrada.getKey(), cantidad));
+            indice.put(entrada.getKey(), cantidad);
+            suma += cantidad;
+        }
+        lista.sort(orden);
+        this.filas = Collections.unmodifiableList(lista);
+        this.porClave = indice;
+        this.etiqueta = etiqueta;
+        this.total = suma;
+    }
+
+    /**
+     * Orden de mayor a menor cantidad, y por etiqueta a igual cantidad
+     */
+    static <K> Comparator<Fila<K>> porCantidad(Function<K, String> etiqueta) {
+        return Comparator.<Fila<K>>comparingLong(Fila::getCantidad).reversed()
+                .thenComparing(fila -> etiqueta.apply(fila.getClave()));
+    }
+
+    public List<Fila<K>> getFilas() {
+        return filas;
+    }
+
+    /**
+     * Cantidad de consultas de una clave, 0 si no aparece
+     */
+    public long getCantidad(K clave) {
+        Long cantidad = porClave.get(clave);
+        return cantidad != null ? cantidad : 0;
+    }
+
+    /**
+     * Suma de todas las filas
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    @Override
+    public void escribirEn(Appendable destino) throws IOException {
+        for (Fila<K> fila : filas) {
+            destino.append(etiqueta.apply(fila.getClave())).append(": ");
+            Renderizado.entero(destino, fila.getCantidad());
+            destino.append('\n');
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Renderizado.aTexto(this);
+    }
+}
\ No newline at end of file
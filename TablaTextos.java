@@ -0,0 +1,46 @@
+package com.veterinaria.historico;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codificación de textos como enteros: cada valor distinto se guarda una sola vez
+ */
+final class TablaTextos {
+    private final List<String> textos = new ArrayList<>();
+    private final Map<String, Integer> codigos = new HashMap<>();
+
+    /**
+     * Código del texto, incorporándolo si es la primera vez que aparece
+     */
+    int codigo(String texto) {
+        Integer codigo = codigos.get(texto);
+        if (codigo == null) {
+            codigo = textos.size();
+            textos.add(texto);
+            codigos.put(texto, codigo);
+        }
+        return codigo;
+    }
+
+    String texto(int codigo) {
+        return textos.get(codigo);
+    }
+
+    int getCantidad() {
+        return textos.size();
+    }
+
+    /**
+     * Memoria estimada de los textos distintos y del índice que los codifica
+     */
+    long getBytesEstimados() {
+        long total = 0;
+        for (String texto : textos) {
+            total += 24 + 16 + texto.length() * 2L + 48;
+        }
+        return total;
+    }
+}
\ No newline at end of file
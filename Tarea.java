@@ -1,38 +1,73 @@
 package com.veterinaria.modelo;
 
+import com.veterinaria.persistencia.AsignadorIds;
+import com.veterinaria.util.Renderizable;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Clase Tarea que representa una tarea administrativa.
  * Demuestra encapsulación y composición.
  */
-public class Tarea {
-    private static int contadorTareas = 0;
+public class Tarea implements Renderizable, Versionada {
+    private static final AsignadorIds IDS = AsignadorIds.para("tareas");
+    
+    /**
+     * Días que puede permanecer pendiente una tarea antes de volverse urgente
+     */
+    public static final int DIAS_HASTA_URGENCIA = 7;
     
     private int id;
     private String descripcion;
-    private String estado; // Pendiente, En Proceso, Completada
+    private EstadoTarea estado;
     private LocalDateTime fechaCreacion;
     private LocalDateTime fechaCompletada;
     private Administrativo asignadoA;
+    private ObservadorModelo observador;
+    // Historial de versiones que le asocia el servicio (ver Versionada)
+    private volatile Object historialVersiones;
+    private static final AtomicReferenceFieldUpdater<Tarea, Object> HISTORIAL_VERSIONES =
+            AtomicReferenceFieldUpdater.newUpdater(Tarea.class, Object.class, "historialVersiones");
 
     /**
      * Constructor de Tarea
      */
     public Tarea(String descripcion, String estado) {
-        this.id = ++contadorTareas;
         this.descripcion = validarDescripcion(descripcion);
         this.estado = validarEstado(estado);
+        // El ID se toma recién con los datos validados, para no gastarlo en una tarea rechazada
+        this.id = IDS.siguiente();
         this.fechaCreacion = LocalDateTime.now();
         this.fechaCompletada = null;
     }
 
+    /**
+     * Reconstruye una tarea guardada conservando su ID y sus fechas
+     */
+    public static Tarea restaurar(int id, String descripcion, String estado,
+                                  LocalDateTime fechaCreacion, LocalDateTime fechaCompletada) {
+        Tarea tarea = new Tarea(id, descripcion, estado);
+        IDS.asegurarMayorQue(id);
+        tarea.fechaCreacion = fechaCreacion;
+        tarea.fechaCompletada = fechaCompletada;
+        return tarea;
+    }
+
+    private Tarea(int id, String descripcion, String estado) {
+        this.id = id;
+        this.descripcion = validarDescripcion(descripcion);
+        this.estado = validarEstado(estado);
+    }
+
     /**
      * Constructor de Tarea con estado por defecto "Pendiente"
      */
     public Tarea(String descripcion) {
-        this(descripcion, "Pendiente");
+        this(descripcion, EstadoTarea.PENDIENTE.getNombre());
     }
 
     /**
@@ -48,29 +83,16 @@ public class Tarea {
     /**
      * Valida que el estado sea válido
      */
-    private String validarEstado(String estado) {
+    private EstadoTarea validarEstado(String estado) {
         if (estado == null || estado.trim().isEmpty()) {
             throw new IllegalArgumentException("El estado de la tarea no puede estar vacío");
         }
         
-        String estadoNormalizado = estado.trim().toLowerCase();
-        if (!estadoNormalizado.equals("pendiente") && 
-            !estadoNormalizado.equals("en proceso") && 
-            !estadoNormalizado.equals("completada")) {
+        EstadoTarea estadoTarea = EstadoTarea.buscar(estado);
+        if (estadoTarea == null) {
             throw new IllegalArgumentException("El estado debe ser: Pendiente, En Proceso o Completada");
         }
-        
-        // Retornar con formato correcto
-        switch (estadoNormalizado) {
-            case "pendiente":
-                return "Pendiente";
-            case "en proceso":
-                return "En Proceso";
-            case "completada":
-                return "Completada";
-            default:
-                return "Pendiente";
-        }
+        return estadoTarea;
     }
 
     // Getters y Setters
@@ -83,26 +105,66 @@ public class Tarea {
     }
 
     public void setDescripcion(String descripcion) {
-        this.descripcion = validarDescripcion(descripcion);
+        String valor = validarDescripcion(descripcion);
+        Modificaciones.ejecutar(observador, () -> {
+            this.descripcion = valor;
+            if (observador != null) {
+                observador.tareaModificada(this);
+            }
+        });
     }
 
     public String getEstado() {
+        return estado.getNombre();
+    }
+
+    public EstadoTarea getEstadoTarea() {
         return estado;
     }
 
     public void setEstado(String estado) {
-        String nuevoEstado = validarEstado(estado);
-        
-        // Si se marca como completada, establecer fecha de completado
-        if (nuevoEstado.equals("Completada") && !this.estado.equals("Completada")) {
-            this.fechaCompletada = LocalDateTime.now();
+        setEstado(validarEstado(estado));
+    }
+
+    public void setEstado(EstadoTarea nuevoEstado) {
+        if (nuevoEstado == null) {
+            throw new IllegalArgumentException("El estado de la tarea no puede estar vacío");
         }
-        // Si se cambia de completada a otro estado, limpiar fecha de completado
-        else if (!nuevoEstado.equals("Completada") && this.estado.equals("Completada")) {
-            this.fechaCompletada = null;
+        if (nuevoEstado == this.estado) {
+            return;
         }
         
-        this.estado = nuevoEstado;
+        // Si se marca como completada, establecer fecha de completado;
+        // si se cambia de completada a otro estado, limpiarla
+        cambiarEstado(nuevoEstado, nuevoEstado == EstadoTarea.COMPLETADA ? LocalDateTime.now() : null);
+    }
+
+    /**
+     * Restablece un estado guardado junto con su fecha de completado original.
+     * Asigna ambos campos antes de avisar, así el observador registra una sola
+     * vez el estado con la fecha guardada y no una fecha de completado nueva.
+     */
+    public void restaurarEstado(String estado, LocalDateTime fechaCompletada) {
+        EstadoTarea nuevoEstado = validarEstado(estado);
+        LocalDateTime nuevaFecha = nuevoEstado == EstadoTarea.COMPLETADA ? fechaCompletada : null;
+        if (nuevoEstado == this.estado && Objects.equals(nuevaFecha, this.fechaCompletada)) {
+            return;
+        }
+        cambiarEstado(nuevoEstado, nuevaFecha);
+    }
+
+    private void cambiarEstado(EstadoTarea nuevoEstado, LocalDateTime nuevaFecha) {
+        Modificaciones.ejecutar(observador, () -> {
+            EstadoTarea estadoAnterior = this.estado;
+            this.estado = nuevoEstado;
+            this.fechaCompletada = nuevaFecha;
+            if (asignadoA != null && estadoAnterior != nuevoEstado) {
+                asignadoA.moverTarea(this, estadoAnterior);
+            }
+            if (observador != null) {
+                observador.tareaEstadoCambiado(this, estadoAnterior);
+            }
+        });
     }
 
     public LocalDateTime getFechaCreacion() {
@@ -121,12 +183,29 @@ public class Tarea {
         this.asignadoA = asignadoA;
     }
 
+    public ObservadorModelo getObservador() {
+        return observador;
+    }
+
+    public void setObservador(ObservadorModelo observador) {
+        this.observador = observador;
+    }
+
+    @Override
+    public Object getHistorialVersiones() {
+        return historialVersiones;
+    }
+
+    @Override
+    public boolean cambiarHistorialVersiones(Object esperado, Object nuevo) {
+        return HISTORIAL_VERSIONES.compareAndSet(this, esperado, nuevo);
+    }
+
     /**
      * Obtiene la fecha de creación formateada
      */
     public String getFechaCreacionFormateada() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        return fechaCreacion.format(formatter);
+        return fechaCreacion.format(Renderizado.FORMATO_FECHA);
     }
 
     /**
@@ -136,23 +215,22 @@ public class Tarea {
         if (fechaCompletada == null) {
             return "No completada";
         }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        return fechaCompletada.format(formatter);
+        return fechaCompletada.format(Renderizado.FORMATO_FECHA);
     }
 
     /**
      * Marca la tarea como completada
      */
     public void completar() {
-        setEstado("Completada");
+        setEstado(EstadoTarea.COMPLETADA);
     }
 
     /**
      * Marca la tarea como en proceso
      */
     public void iniciar() {
-        if (estado.equals("Pendiente")) {
-            setEstado("En Proceso");
+        if (estado == EstadoTarea.PENDIENTE) {
+            setEstado(EstadoTarea.EN_PROCESO);
         }
     }
 
@@ -160,21 +238,21 @@ public class Tarea {
      * Verifica si la tarea está pendiente
      */
     public boolean estaPendiente() {
-        return estado.equals("Pendiente");
+        return estado == EstadoTarea.PENDIENTE;
     }
 
     /**
      * Verifica si la tarea está en proceso
      */
     public boolean estaEnProceso() {
-        return estado.equals("En Proceso");
+        return estado == EstadoTarea.EN_PROCESO;
     }
 
     /**
      * Verifica si la tarea está completada
      */
     public boolean estaCompletada() {
-        return estado.equals("Completada");
+        return estado == EstadoTarea.COMPLETADA;
     }
 
     /**
@@ -194,51 +272,93 @@ public class Tarea {
         );
     }
 
+    /**
+     * Momento a partir del cual la tarea, si sigue pendiente, es urgente:
+     * el inicio del primer día con más de 7 días transcurridos
+     */
+    public LocalDateTime getFechaUrgencia() {
+        return fechaCreacion.toLocalDate().plusDays(DIAS_HASTA_URGENCIA + 1).atStartOfDay();
+    }
+
     /**
      * Verifica si la tarea es urgente (más de 7 días pendiente)
      */
     public boolean esUrgente() {
-        return estaPendiente() && getDiasTranscurridos() > 7;
+        return estaPendiente() && getDiasTranscurridos() > DIAS_HASTA_URGENCIA;
     }
 
     /**
      * Obtiene un resumen corto de la tarea
      */
     public String getResumenCorto() {
-        return String.format("Tarea #%d - %s - %s - %s", 
-                           id, 
-                           descripcion.length() > 30 ? 
-                               descripcion.substring(0, 30) + "..." : descripcion,
-                           estado,
-                           getNombreAsignado());
+        return Renderizado.aTexto(this::escribirResumenEn);
+    }
+
+    /**
+     * Escribe el resumen corto de la tarea en el destino
+     */
+    public void escribirResumenEn(Appendable destino) throws IOException {
+        destino.append("Tarea #");
+        Renderizado.entero(destino, id);
+        destino.append(" - ");
+        if (descripcion.length() > 30) {
+            destino.append(descripcion, 0, 30).append("...");
+        } else {
+            destino.append(descripcion);
+        }
+        destino.append(" - ").append(estado.getNombre()).append(" - ");
+        escribirNombreAsignadoEn(destino);
     }
 
     /**
      * Obtiene información detallada de la tarea
      */
     public String getInformacionDetallada() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("=== TAREA ADMINISTRATIVA ===\n");
-        sb.append(String.format("ID: %d\n", id));
-        sb.append(String.format("Descripción: %s\n", descripcion));
-        sb.append(String.format("Estado: %s\n", estado));
-        sb.append(String.format("Asignada a: %s\n", getNombreAsignado()));
-        sb.append(String.format("Fecha de creación: %s\n", getFechaCreacionFormateada()));
-        sb.append(String.format("Fecha de completado: %s\n", getFechaCompletadaFormateada()));
-        sb.append(String.format("Días transcurridos: %d\n", getDiasTranscurridos()));
-        
-        if (esUrgente()) {
-            sb.append("*** TAREA URGENTE ***");
+        return Renderizado.aTexto(this);
+    }
+
+    /**
+     * Escribe la información detallada de la tarea en el destino
+     */
+    @Override
+    public void escribirEn(Appendable destino) throws IOException {
+        destino.append("=== TAREA ADMINISTRATIVA ===\nID: ");
+        Renderizado.entero(destino, id);
+        destino.append("\nDescripción: ").append(descripcion)
+               .append("\nEstado: ").append(estado.getNombre())
+               .append("\nAsignada a: ");
+        escribirNombreAsignadoEn(destino);
+        destino.append("\nFecha de creación: ");
+        Renderizado.fecha(destino, fechaCreacion);
+        destino.append("\nFecha de completado: ");
+        if (fechaCompletada != null) {
+            Renderizado.fecha(destino, fechaCompletada);
+        } else {
+            destino.append("No completada");
         }
+        destino.append("\nDías transcurridos: ");
+        long dias = getDiasTranscurridos();
+        Renderizado.entero(destino, dias);
+        destino.append('\n');
         
-        return sb.toString();
+        if (estaPendiente() && dias > DIAS_HASTA_URGENCIA) {
+            destino.append("*** TAREA URGENTE ***");
+        }
+    }
+
+    private void escribirNombreAsignadoEn(Appendable destino) throws IOException {
+        if (asignadoA != null) {
+            asignadoA.escribirNombreCompletoEn(destino);
+        } else {
+            destino.append("Sin asignar");
+        }
     }
 
     /**
      * Obtiene el contador total de tareas
      */
     public static int getTotalTareas() {
-        return contadorTareas;
+        return IDS.getEmitidos();
     }
 
     /**
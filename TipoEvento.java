@@ -0,0 +1,12 @@
+package com.veterinaria.eventos;
+
+/**
+ * Tipos de evento de dominio que publica el bus
+ */
+public enum TipoEvento {
+    CONSULTA_CREADA,
+    MASCOTA_AGREGADA,
+    MASCOTA_ELIMINADA,
+    TAREA_CAMBIO_ESTADO,
+    TAREA_URGENTE
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.veterinaria.modelo;
+
+/**
+ * Entidad del modelo que conserva el historial de versiones que le asocia el
+ * servicio para las lecturas consistentes. El modelo no lo interpreta; solo lo
+ * guarda, igual que al observador, para que el servicio no necesite un mapa
+ * aparte de objeto a historial.
+ */
+public interface Versionada {
+
+    /**
+     * Historial asociado, o null si todavía no tiene
+     */
+    Object getHistorialVersiones();
+
+    /**
+     * Reemplaza el historial solo si sigue siendo el esperado.
+     * Devuelve false sin cambiar nada si otro hilo lo reemplazó antes.
+     */
+    boolean cambiarHistorialVersiones(Object esperado, Object nuevo);
+}
@@ -0,0 +1,645 @@
+package com.veterinaria.servicio;
+
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.Persona;
+import com.veterinaria.modelo.Tarea;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.modelo.Versionada;
+import com.veterinaria.servicio.VistaConsistente.FichaAdministrativo;
+import com.veterinaria.servicio.VistaConsistente.FichaCliente;
+import com.veterinaria.servicio.VistaConsistente.FichaConsulta;
+import com.veterinaria.servicio.VistaConsistente.FichaMascota;
+import com.veterinaria.servicio.VistaConsistente.FichaTarea;
+import com.veterinaria.servicio.VistaConsistente.FichaVeterinario;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Historial de versiones inmutables del modelo para lecturas consistentes.
+ * Cada cambio publica una ficha nueva de las entidades que toca, con un número
+ * de versión global; una VistaConsistente fija un número y ve de cada entidad
+ * la última ficha publicada hasta él. No hay un cerrojo común de escritura:
+ * cada escritor toma su número de un contador atómico, agrega sus fichas a la
+ * cadena de cada entidad con el cerrojo propio de esa entidad, y su versión
+ * queda visible cuando terminaron todas las anteriores, sin que ningún
+ * escritor espere a otro. Los lectores nunca
+ * toman cerrojos. La cadena de cada entidad se guarda en el propio objeto del
+ * modelo (Versionada), sin un mapa aparte. Las fichas que ya no puede ver
+ * ninguna vista abierta se descartan.
+ * Las mascotas de un cliente se versionan por pertenencia: cada alta agrega
+ * una entrada a la lista del cliente y la baja la cierra, así que ninguna
+ * publicación copia la lista completa. Las entradas y tareas dadas de baja se
+ * quitan de sus colas en barridos periódicos, cuando ya ninguna vista las ve.
+ */
+final class VersionesModelo {
+    // Bajas pendientes a partir de las cuales conviene barrer las colas
+    private static final int BAJAS_POR_BARRIDO = 256;
+
+    final Queue<Entidad<FichaCliente>> clientes = new ConcurrentLinkedQueue<>();
+    final Queue<Entidad<FichaVeterinario>> veterinarios = new ConcurrentLinkedQueue<>();
+    final Queue<Entidad<FichaAdministrativo>> administrativos = new ConcurrentLinkedQueue<>();
+    final Queue<Entidad<FichaConsulta>> consultas = new ConcurrentLinkedQueue<>();
+    final Queue<Entidad<FichaTarea>> tareas = new ConcurrentLinkedQueue<>();
+
+    // Último número entregado a un escritor
+    private final AtomicLong entregada = new AtomicLong();
+    // Todos los escritores hasta este número terminaron; las vistas se abren en él
+    private volatile long publicada;
+    // Números terminados que esperan a uno anterior para quedar visibles
+    private final ConcurrentSkipListSet<Long> terminadas = new ConcurrentSkipListSet<>();
+    // Versión -> cantidad de vistas abiertas en ella
+    private final TreeMap<Long, Integer> fijadas = new TreeMap<>();
+    // La menor de fijadas, o Long.MAX_VALUE si no hay vistas; los escritores solo leen esta
+    private volatile long minimaFijada = Long.MAX_VALUE;
+
+    // Colas con entradas dadas de baja que todavía no se quitaron
+    private final Set<Queue<? extends Entidad<?>>> conBajas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger bajas = new AtomicInteger();
+    private volatile int proximoBarrido = BAJAS_POR_BARRIDO;
+    private final AtomicBoolean barriendo = new AtomicBoolean();
+
+    /**
+     * Cadena de versiones de una entidad, de la más nueva a la más vieja.
+     * Las publicaciones usan el cerrojo de la entidad; las lecturas, ninguno.
+     */
+    static class Entidad<F> {
+        private volatile Version<F> cabeza;
+        // Si ya está en la cola de recorrido
+        private volatile boolean enRecorrido;
+
+        /**
+         * Ficha vigente en la versión indicada, o null si no existía o estaba eliminada
+         */
+        F en(long version) {
+            for (Version<F> v = cabeza; v != null; v = v.anterior) {
+                if (v.numero <= version) {
+                    return v.ficha;
+                }
+            }
+            return null;
+        }
+
+        boolean publicada() {
+            return cabeza != null;
+        }
+
+        boolean dadaDeBaja() {
+            Version<F> v = cabeza;
+            return v != null && v.ficha == null;
+        }
+
+        /**
+         * Dada de baja en una versión que ya no precede a ninguna vista abierta:
+         * todas la ven como inexistente y nadie vuelve a publicarla
+         */
+        boolean descartable(long masAntigua) {
+            Version<F> v = cabeza;
+            return v != null && v.ficha == null && v.numero <= masAntigua;
+        }
+
+        synchronized boolean marcarEnRecorrido() {
+            if (enRecorrido) {
+                return false;
+            }
+            enRecorrido = true;
+            return true;
+        }
+
+        /**
+         * Agrega la ficha en orden de número. Los cambios de una misma entidad
+         * llegan en orden porque el servicio los hace con el cerrojo de su DNI,
+         * así que casi siempre va a la cabeza.
+         */
+        synchronized void publicar(F ficha, long numero, long masAntigua) {
+            Version<F> nueva;
+            if (cabeza == null || cabeza.numero < numero) {
+                nueva = new Version<>(numero, ficha, cabeza);
+                cabeza = nueva;
+            } else {
+                Version<F> siguiente = cabeza;
+                while (siguiente.anterior != null && siguiente.anterior.numero > numero) {
+                    siguiente = siguiente.anterior;
+                }
+                nueva = new Version<>(numero, ficha, siguiente.anterior);
+                siguiente.anterior = nueva;
+                nueva = cabeza;
+            }
+            // Lo anterior a la primera versión visible para la vista más vieja ya no lo lee nadie
+            for (Version<F> v = nueva; v != null; v = v.anterior) {
+                if (v.numero <= masAntigua) {
+                    v.anterior = null;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Entidad de un cliente: además de sus fichas, la lista de pertenencias de
+     * sus mascotas. Cada entrada tiene por ficha la entidad de la mascota
+     * mientras pertenece y null desde la baja.
+     */
+    static final class EntidadCliente extends Entidad<FichaCliente> {
+        final Queue<Entidad<Entidad<FichaMascota>>> mascotas = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Entidad de una mascota: además de sus fichas, la entrada abierta en la
+     * lista del cliente al que pertenece, si pertenece a alguno
+     */
+    static final class EntidadMascota extends Entidad<FichaMascota> {
+        // Se usa con el cerrojo de la entidad
+        private Pertenencia pertenencia;
+    }
+
+    private static final class Pertenencia {
+        final EntidadCliente cliente;
+        final Entidad<Entidad<FichaMascota>> entrada;
+
+        Pertenencia(EntidadCliente cliente, Entidad<Entidad<FichaMascota>> entrada) {
+            this.cliente = cliente;
+            this.entrada = entrada;
+        }
+    }
+
+    private static final class Version<F> {
+        final long numero;
+        final F ficha;
+        volatile Version<F> anterior;
+
+        Version(long numero, F ficha, Version<F> anterior) {
+            this.numero = numero;
+            this.ficha = ficha;
+            this.anterior = anterior;
+        }
+    }
+
+    // --- Lectura ---
+
+    VistaConsistente abrirVista() {
+        long version = publicada;
+        fijar(version);
+        // Un escritor que leyó las vistas fijadas antes de este registro pudo podar
+        // hasta la versión publicada en ese momento; si avanzó, se fija la nueva
+        long actual;
+        while ((actual = publicada) != version) {
+            fijar(actual);
+            liberar(version);
+            version = actual;
+        }
+        return new VistaConsistente(this, version);
+    }
+
+    private void fijar(long version) {
+        synchronized (fijadas) {
+            fijadas.merge(version, 1, Integer::sum);
+            minimaFijada = fijadas.firstKey();
+        }
+    }
+
+    void liberar(long version) {
+        synchronized (fijadas) {
+            fijadas.computeIfPresent(version, (v, cantidad) -> cantidad > 1 ? cantidad - 1 : null);
+            minimaFijada = fijadas.isEmpty() ? Long.MAX_VALUE : fijadas.firstKey();
+        }
+    }
+
+    long getVersionPublicada() {
+        return publicada;
+    }
+
+    /**
+     * Versión más vieja que todavía puede leer alguna vista, abierta o por abrirse.
+     * Lee la versión publicada antes que las fijadas; abrirVista depende de ese orden.
+     */
+    private long versionMasAntigua() {
+        long version = publicada;
+        return Math.min(version, minimaFijada);
+    }
+
+    /**
+     * Entidad con las fichas publicadas del objeto, o null si nunca se publicó
+     */
+    @SuppressWarnings("unchecked")
+    static <F> Entidad<F> publicadaDe(Versionada objeto) {
+        return (Entidad<F>) objeto.getHistorialVersiones();
+    }
+
+    // --- Escritura: cada método publica una versión nueva ---
+
+    /**
+     * Versión en curso de un escritor. Se confirma siempre, aunque la
+     * publicación falle, para no detener a los escritores siguientes.
+     */
+    private final class Publicacion {
+        final long masAntigua = versionMasAntigua();
+        final long numero = entregada.incrementAndGet();
+        private boolean barrer;
+
+        <F> void publicar(Entidad<F> entidad, F ficha) {
+            entidad.publicar(ficha, numero, masAntigua);
+        }
+
+        void darDeBaja(Entidad<?> entidad, Queue<? extends Entidad<?>> cola) {
+            entidad.publicar(null, numero, masAntigua);
+            conBajas.add(cola);
+            if (bajas.incrementAndGet() >= proximoBarrido) {
+                barrer = true;
+            }
+        }
+
+        /**
+         * Marca esta versión como terminada y publica las terminadas que siguen a
+         * la última visible. No espera a nadie: si falta terminar una anterior,
+         * la publica el escritor de esa, al confirmar la suya.
+         */
+        void confirmar() {
+            terminadas.add(numero);
+            // Solo quien quita el número siguiente lo publica, así que no hay escrituras cruzadas
+            long siguiente;
+            while (terminadas.remove(siguiente = publicada + 1)) {
+                publicada = siguiente;
+            }
+            if (barrer) {
+                barrer();
+            }
+        }
+    }
+
+    void personaRegistrada(Persona persona) {
+        Publicacion p = new Publicacion();
+        try {
+            publicarRegistrada(p, persona);
+        } finally {
+            p.confirmar();
+        }
+    }
+
+    /**
+     * Publica en una sola versión todo el estado cargado de una instantánea.
+     * Las consultas se publican en el orden indicado, que es el de los recorridos.
+     */
+    void cargaInicial(Collection<Cliente> clientesCargados, Collection<Veterinario> veterinariosCargados,
+                      Collection<Administrativo> administrativosCargados, List<Consulta> consultasCargadas) {
+        Publicacion p = new Publicacion();
+        try {
+            for (Cliente cliente : clientesCargados) {
+                publicarRegistrada(p, cliente);
+            }
+            for (Veterinario veterinario : veterinariosCargados) {
+                publicarVeterinario(p, veterinario, veterinario.getDni());
+            }
+            for (Administrativo administrativo : administrativosCargados) {
+                publicarRegistrada(p, administrativo);
+            }
+            for (Consulta consulta : consultasCargadas) {
+                publicarConsulta(p, consulta);
+            }
+        } finally {
+            p.confirmar();
+        }
+    }
+
+    private void publicarRegistrada(Publicacion p, Persona persona) {
+        if (persona instanceof Cliente) {
+            Cliente cliente = (Cliente) persona;
+            publicarCliente(p, cliente, cliente.getDni());
+            altasIniciales(p, cliente);
+        } else if (persona instanceof Veterinario) {
+            Veterinario veterinario = (Veterinario) persona;
+            publicarVeterinario(p, veterinario, veterinario.getDni());
+            for (Consulta consulta : veterinario.getConsultas()) {
+                publicarConsulta(p, consulta);
+            }
+        } else if (persona instanceof Administrativo) {
+            Administrativo administrativo = (Administrativo) persona;
+            publicarAdministrativo(p, administrativo, administrativo.getDni());
+            for (Tarea tarea : administrativo.getTareas()) {
+                publicarTarea(p, tarea);
+            }
+        }
+    }
+
+    void personaModificada(Persona persona) {
+        publicarPersona(persona, persona.getDni());
+    }
+
+    /**
+     * El DNI todavía no cambió en la persona, así que la ficha se arma con el nuevo
+     */
+    void antesDeCambiarDni(Persona persona, String dniNuevo) {
+        publicarPersona(persona, dniNuevo);
+    }
+
+    private void publicarPersona(Persona persona, String dni) {
+        if (publicadaDe(persona) == null) {
+            return; // Todavía no se registró
+        }
+        Publicacion p = new Publicacion();
+        try {
+            if (persona instanceof Cliente) {
+                publicarCliente(p, (Cliente) persona, dni);
+            } else if (persona instanceof Veterinario) {
+                publicarVeterinario(p, (Veterinario) persona, dni);
+            } else if (persona instanceof Administrativo) {
+                publicarAdministrativo(p, (Administrativo) persona, dni);
+            }
+        } finally {
+            p.confirmar();
+        }
+    }
+
+    void mascotaAgregada(Cliente cliente, Mascota mascota) {
+        FichaMascota ficha = fichaMascota(mascota);
+        Publicacion p = new Publicacion();
+        try {
+            p.publicar(entidadMascota(mascota), ficha);
+            alta(p, cliente, mascota);
+        } finally {
+            p.confirmar();
+        }
+    }
+
+    /**
+     * La ficha de la mascota se conserva porque sus consultas la siguen nombrando
+     */
+    void mascotaEliminada(Cliente cliente, Mascota mascota) {
+        if (publicadaDe(mascota) == null) {
+            return;
+        }
+        EntidadMascota entidad = entidadMascota(mascota);
+        Publicacion p = new Publicacion();
+        try {
+            synchronized (entidad) {
+                Pertenencia pertenencia = entidad.pertenencia;
+                if (pertenencia != null) {
+                    entidad.pertenencia = null;
+                    p.darDeBaja(pertenencia.entrada, pertenencia.cliente.mascotas);
+                }
+            }
+        } finally {
+            p.confirmar();
+        }
+    }
+
+    void mascotaModificada(Mascota mascota) {
+        FichaMascota ficha = fichaMascota(mascota);
+        Publicacion p = new Publicacion();
+        try {
+            p.publicar(entidadMascota(mascota), ficha);
+        } finally {
+            p.confirmar();
+        }
+    }
+
+    void consultaAgregada(Consulta consulta) {
+        Publicacion p = new Publicacion();
+        try {
+            publicarConsulta(p, consulta);
+            publicarVeterinario(p, consulta.getVeterinario(), consulta.getVeterinario().getDni());
+        } finally {
+            p.confirmar();
+        }
+    }
+
+    void consultaReasignada(Consulta consulta, Veterinario veterinarioAnterior) {
+        Publicacion p = new Publicacion();
+        try {
+            publicarConsulta(p, consulta);
+            publicarVeterinario(p, veterinarioAnterior, veterinarioAnterior.getDni());
+            publicarVeterinario(p, consulta.getVeterinario(), consulta.getVeterinario().getDni());
+        } finally {
+            p.confirmar();
+        }
+    }
+
+    void consultaModificada(Consulta consulta) {
+        Publicacion p = new Publicacion();
+        try {
+            publicarConsulta(p, consulta);
+        } finally {
+            p.confirmar();
+        }
+    }
+
+    void tareaModificada(Tarea tarea) {
+        Publicacion p = new Publicacion();
+        try {
+            publicarTarea(p, tarea);
+        } finally {
+            p.confirmar();
+        }
+    }
+
+    void tareaEliminada(Tarea tarea) {
+        Entidad<FichaTarea> entidad = publicadaDe(tarea);
+        if (entidad == null) {
+            return;
+        }
+        Publicacion p = new Publicacion();
+        try {
+            p.darDeBaja(entidad, tareas);
+            // Si la tarea vuelve a agregarse, empieza una entidad nueva
+            tarea.cambiarHistorialVersiones(entidad, null);
+        } finally {
+            p.confirmar();
+        }
+    }
+
+    // --- Bajas ---
+
+    /**
+     * Quita de las colas las entradas dadas de baja que ya no ve ninguna vista.
+     * Las colas admiten quitar elementos mientras otros las recorren o agregan.
+     * Solo barre un escritor a la vez; los demás siguen de largo.
+     */
+    private void barrer() {
+        if (!barriendo.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Queue<? extends Entidad<?>>> colas = new ArrayList<>(conBajas);
+            conBajas.removeAll(colas);
+            bajas.set(0);
+
+            long limite = versionMasAntigua();
+            int restantes = 0;
+            for (Queue<? extends Entidad<?>> cola : colas) {
+                int antes = restantes;
+                for (Iterator<? extends Entidad<?>> it = cola.iterator(); it.hasNext(); ) {
+                    Entidad<?> entidad = it.next();
+                    if (entidad.descartable(limite)) {
+                        it.remove();
+                    } else if (entidad.dadaDeBaja()) {
+                        restantes++;
+                    }
+                }
+                if (restantes > antes) {
+                    conBajas.add(cola);
+                }
+            }
+            bajas.addAndGet(restantes);
+            // Si una vista larga retiene muchas bajas, esperar a que se acumulen otras tantas
+            proximoBarrido = Math.max(BAJAS_POR_BARRIDO, 2 * restantes);
+        } finally {
+            barriendo.set(false);
+        }
+    }
+
+    // --- Armado de fichas ---
+
+    /**
+     * Entidad del objeto, creándola si es nueva. Si dos hilos la crean a la vez,
+     * queda la del primero.
+     */
+    private static <F> Entidad<F> entidad(Versionada objeto, Entidad<F> nueva) {
+        Entidad<F> actual = publicadaDe(objeto);
+        if (actual != null) {
+            return actual;
+        }
+        if (objeto.cambiarHistorialVersiones(null, nueva)) {
+            return nueva;
+        }
+        return publicadaDe(objeto);
+    }
+
+    private static EntidadCliente entidadCliente(Cliente cliente) {
+        Entidad<FichaCliente> entidad = publicadaDe(cliente);
+        return (EntidadCliente) (entidad != null ? entidad : entidad(cliente, new EntidadCliente()));
+    }
+
+    private static EntidadMascota entidadMascota(Mascota mascota) {
+        Entidad<FichaMascota> entidad = publicadaDe(mascota);
+        return (EntidadMascota) (entidad != null ? entidad : entidad(mascota, new EntidadMascota()));
+    }
+
+    private static <F> Entidad<F> entidadGeneral(Versionada objeto) {
+        Entidad<F> entidad = publicadaDe(objeto);
+        return entidad != null ? entidad : entidad(objeto, new Entidad<>());
+    }
+
+    /**
+     * Agrega la entidad a la cola de recorrido si todavía no estaba
+     */
+    private static <F> Entidad<F> enRecorrido(Entidad<F> entidad, Queue<Entidad<F>> recorrido) {
+        if (!entidad.enRecorrido && entidad.marcarEnRecorrido()) {
+            recorrido.add(entidad);
+        }
+        return entidad;
+    }
+
+    private void publicarCliente(Publicacion p, Cliente cliente, String dni) {
+        p.publicar(enRecorrido(entidadCliente(cliente), clientes), fichaCliente(cliente, dni));
+    }
+
+    /**
+     * La ficha comparte la lista de pertenencias del cliente: cada vista filtra
+     * las entradas por su versión, así que no hace falta copiarla
+     */
+    private static FichaCliente fichaCliente(Cliente cliente, String dni) {
+        return new FichaCliente(dni, cliente.getNombre(), cliente.getApellido(),
+                cliente.getTelefono(), cliente.getEmail(), entidadCliente(cliente).mascotas);
+    }
+
+    /**
+     * Abre una entrada de pertenencia de la mascota en la lista del cliente
+     */
+    private static void alta(Publicacion p, Cliente cliente, Mascota mascota) {
+        EntidadCliente entidadCliente = entidadCliente(cliente);
+        EntidadMascota entidadMascota = entidadMascota(mascota);
+        synchronized (entidadMascota) {
+            Pertenencia anterior = entidadMascota.pertenencia;
+            if (anterior != null) {
+                if (anterior.cliente == entidadCliente) {
+                    return; // Ya figura en este cliente
+                }
+                p.darDeBaja(anterior.entrada, anterior.cliente.mascotas);
+            }
+            Entidad<Entidad<FichaMascota>> entrada = new Entidad<>();
+            p.publicar(entrada, entidadMascota);
+            entidadMascota.pertenencia = new Pertenencia(entidadCliente, entrada);
+            entidadCliente.mascotas.add(entrada);
+        }
+    }
+
+    /**
+     * Publica las mascotas que el cliente ya tenía al registrarse o al aparecer
+     * por primera vez en una consulta
+     */
+    private static void altasIniciales(Publicacion p, Cliente cliente) {
+        for (Mascota mascota : cliente.getMascotas()) {
+            p.publicar(entidadMascota(mascota), fichaMascota(mascota));
+            alta(p, cliente, mascota);
+        }
+    }
+
+    private void publicarVeterinario(Publicacion p, Veterinario veterinario, String dni) {
+        p.publicar(enRecorrido(entidadGeneral(veterinario), veterinarios), fichaVeterinario(veterinario, dni));
+    }
+
+    private static FichaVeterinario fichaVeterinario(Veterinario veterinario, String dni) {
+        return new FichaVeterinario(dni, veterinario.getNombre(), veterinario.getApellido(),
+                veterinario.getTelefono(), veterinario.getEmail(), veterinario.getEspecialidad(),
+                veterinario.getCantidadConsultas());
+    }
+
+    private void publicarAdministrativo(Publicacion p, Administrativo administrativo, String dni) {
+        p.publicar(enRecorrido(entidadGeneral(administrativo), administrativos),
+                new FichaAdministrativo(dni, administrativo.getNombre(), administrativo.getApellido(),
+                        administrativo.getTelefono(), administrativo.getEmail(), administrativo.getArea()));
+    }
+
+    private static FichaMascota fichaMascota(Mascota mascota) {
+        return new FichaMascota(mascota.getNombre(), mascota.getTipoMascota(), mascota.getRaza(),
+                mascota.getEdad(), mascota.getInformacionEspecifica());
+    }
+
+    /**
+     * Si el cliente, la mascota o el veterinario todavía no tienen ficha (por
+     * ejemplo, consultas cargadas antes de registrar al cliente) se les publica
+     * una sin agregarlos a los recorridos, para que la consulta siempre se resuelva
+     */
+    private void publicarConsulta(Publicacion p, Consulta consulta) {
+        Cliente cliente = consulta.getCliente();
+        EntidadCliente entidadCliente = entidadCliente(cliente);
+        if (!entidadCliente.publicada()) {
+            p.publicar(entidadCliente, fichaCliente(cliente, cliente.getDni()));
+            altasIniciales(p, cliente);
+        }
+        EntidadMascota entidadMascota = entidadMascota(consulta.getMascota());
+        if (!entidadMascota.publicada()) {
+            p.publicar(entidadMascota, fichaMascota(consulta.getMascota()));
+        }
+        Veterinario veterinario = consulta.getVeterinario();
+        Entidad<FichaVeterinario> entidadVeterinario = entidadGeneral(veterinario);
+        if (!entidadVeterinario.publicada()) {
+            p.publicar(entidadVeterinario, fichaVeterinario(veterinario, veterinario.getDni()));
+        }
+
+        p.publicar(enRecorrido(entidadGeneral(consulta), consultas), new FichaConsulta(consulta.getId(),
+                consulta.getFechaConsulta(), consulta.getTratamiento(), consulta.getDiagnostico(),
+                entidadCliente, entidadMascota, entidadVeterinario));
+    }
+
+    private void publicarTarea(Publicacion p, Tarea tarea) {
+        Administrativo asignado = tarea.getAsignadoA();
+        p.publicar(enRecorrido(entidadGeneral(tarea), tareas), new FichaTarea(tarea.getId(),
+                tarea.getDescripcion(), tarea.getEstadoTarea(), tarea.getFechaCreacion(),
+                asignado != null ? entidadGeneral(asignado) : null));
+    }
+}
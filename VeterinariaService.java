@@ -0,0 +1,783 @@
+package com.veterinaria.servicio;
+
+import com.veterinaria.analisis.AnalisisConsultas;
+import com.veterinaria.analisis.InformeConsultas;
+import com.veterinaria.exportacion.ExportadorConsultas;
+import com.veterinaria.historico.ArchivoHistorico;
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.EstadoTarea;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.ObservadorModelo;
+import com.veterinaria.modelo.Persona;
+import com.veterinaria.modelo.Tarea;
+import com.veterinaria.modelo.Veterinario;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Servicio principal del sistema veterinario.
+ * Centraliza el registro de clientes, veterinarios y administrativos,
+ * y el almacén de consultas de toda la clínica. Otros componentes (por ejemplo
+ * el diario de persistencia) pueden suscribirse a los cambios con agregarObservador.
+ * Es seguro para varios hilos siempre que las mascotas, consultas y tareas se
+ * modifiquen a través del servicio: cada operación toma el cerrojo del DNI de
+ * las personas que toca, así que dos terminales que atienden a clientes
+ * distintos no se esperan entre sí.
+ */
+public class VeterinariaService {
+    private final RegistroPersonas registro = new RegistroPersonas();
+    private final RegistroConsultas consultas = new RegistroConsultas();
+    private final ConcurrentHashMap<Integer, Tarea> tareas = new ConcurrentHashMap<>();
+    private final List<ObservadorModelo> observadores = new CopyOnWriteArrayList<>();
+    private final SeguimientoTareasUrgentes tareasUrgentes = new SeguimientoTareasUrgentes(this::avisarTareaUrgente);
+    private final ResumenSistema resumen = new ResumenSistema(registro, consultas, tareasUrgentes);
+    private final CerrojosPorDni cerrojos = new CerrojosPorDni(Runtime.getRuntime().availableProcessors() * 16);
+    private final VersionesModelo versiones = new VersionesModelo();
+
+    /**
+     * Observador que mantiene sincronizados los índices del servicio
+     * y reenvía cada cambio a los observadores suscritos
+     */
+    private final ObservadorModelo observador = new ObservadorModelo() {
+        // Los cambios hechos directamente sobre una entidad registrada también
+        // pasan por los suscritos, así el diario los confirma aunque no haya
+        // una operación del servicio abierta
+        @Override
+        public void antesDeModificar() {
+            VeterinariaService.this.antesDeModificar();
+        }
+
+        @Override
+        public void modificacionTerminada() {
+            VeterinariaService.this.modificacionTerminada();
+        }
+
+        @Override
+        public void antesDeCambiarDni(Persona persona, String dniNuevo) {
+            registro.cambiarDni(persona, dniNuevo);
+            consultas.cambiarDni(persona, dniNuevo);
+            resumen.cambiarDni(persona, dniNuevo);
+            versiones.antesDeCambiarDni(persona, dniNuevo);
+            for (ObservadorModelo o : observadores) {
+                o.antesDeCambiarDni(persona, dniNuevo);
+            }
+        }
+
+        @Override
+        public void consultaAgregada(Veterinario veterinario, Consulta consulta) {
+            consultas.agregar(consulta);
+            resumen.consultaAgregada(veterinario.getDni());
+            versiones.consultaAgregada(consulta);
+            for (ObservadorModelo o : observadores) {
+                o.consultaAgregada(veterinario, consulta);
+            }
+        }
+
+        @Override
+        public void consultaReasignada(Consulta consulta, Cliente clienteAnterior,
+                                       Mascota mascotaAnterior, Veterinario veterinarioAnterior) {
+            // El resumen sigue al índice y no al aviso, que puede llegar fuera de orden
+            consultas.reindexar(consulta,
+                    (indexado, actual) -> resumen.consultaReasignada(indexado.getDni(), actual.getDni()));
+            versiones.consultaReasignada(consulta, veterinarioAnterior);
+            for (ObservadorModelo o : observadores) {
+                o.consultaReasignada(consulta, clienteAnterior, mascotaAnterior, veterinarioAnterior);
+            }
+        }
+
+        @Override
+        public void personaRegistrada(Persona persona) {
+            versiones.personaRegistrada(persona);
+            for (ObservadorModelo o : observadores) {
+                o.personaRegistrada(persona);
+            }
+        }
+
+        @Override
+        public void personaModificada(Persona persona) {
+            versiones.personaModificada(persona);
+            for (ObservadorModelo o : observadores) {
+                o.personaModificada(persona);
+            }
+        }
+
+        @Override
+        public void mascotaAgregada(Cliente cliente, Mascota mascota) {
+            resumen.mascotaAgregada(mascota);
+            versiones.mascotaAgregada(cliente, mascota);
+            for (ObservadorModelo o : observadores) {
+                o.mascotaAgregada(cliente, mascota);
+            }
+        }
+
+        @Override
+        public void mascotaEliminada(Cliente cliente, Mascota mascota) {
+            resumen.mascotaEliminada(mascota);
+            versiones.mascotaEliminada(cliente, mascota);
+            for (ObservadorModelo o : observadores) {
+                o.mascotaEliminada(cliente, mascota);
+            }
+        }
+
+        @Override
+        public void mascotaModificada(Mascota mascota, String nombreAnterior) {
+            versiones.mascotaModificada(mascota);
+            for (ObservadorModelo o : observadores) {
+                o.mascotaModificada(mascota, nombreAnterior);
+            }
+        }
+
+        @Override
+        public void consultaModificada(Consulta consulta) {
+            versiones.consultaModificada(consulta);
+            for (ObservadorModelo o : observadores) {
+                o.consultaModificada(consulta);
+            }
+        }
+
+        @Override
+        public void tareaAgregada(Administrativo administrativo, Tarea tarea) {
+            tareas.put(tarea.getId(), tarea);
+            tareasUrgentes.actualizar(tarea);
+            resumen.tareaAgregada(administrativo.getDni(), tarea.getEstadoTarea());
+            versiones.tareaModificada(tarea);
+            for (ObservadorModelo o : observadores) {
+                o.tareaAgregada(administrativo, tarea);
+            }
+        }
+
+        @Override
+        public void tareaEliminada(Administrativo administrativo, Tarea tarea) {
+            tareas.remove(tarea.getId(), tarea);
+            tareasUrgentes.quitar(tarea);
+            resumen.tareaEliminada(administrativo.getDni(), tarea.getEstadoTarea());
+            versiones.tareaEliminada(tarea);
+            for (ObservadorModelo o : observadores) {
+                o.tareaEliminada(administrativo, tarea);
+            }
+        }
+
+        @Override
+        public void tareaModificada(Tarea tarea) {
+            versiones.tareaModificada(tarea);
+            for (ObservadorModelo o : observadores) {
+                o.tareaModificada(tarea);
+            }
+        }
+
+        @Override
+        public void tareaEstadoCambiado(Tarea tarea, EstadoTarea estadoAnterior) {
+            tareasUrgentes.actualizar(tarea);
+            Administrativo asignado = tarea.getAsignadoA();
+            resumen.tareaCambioDeEstado(asignado != null ? asignado.getDni() : null,
+                    estadoAnterior, tarea.getEstadoTarea());
+            versiones.tareaModificada(tarea);
+            for (ObservadorModelo o : observadores) {
+                o.tareaEstadoCambiado(tarea, estadoAnterior);
+            }
+        }
+    };
+
+    private void avisarTareaUrgente(Tarea tarea) {
+        for (ObservadorModelo o : observadores) {
+            o.tareaUrgente(tarea);
+        }
+    }
+
+    /**
+     * Suscribe un observador a todos los cambios de las entidades registradas
+     */
+    public void agregarObservador(ObservadorModelo nuevo) {
+        if (nuevo == null) {
+            throw new IllegalArgumentException("El observador no puede ser nulo");
+        }
+        observadores.add(nuevo);
+    }
+
+    /**
+     * Cancela la suscripción de un observador
+     */
+    public boolean quitarObservador(ObservadorModelo existente) {
+        return observadores.remove(existente);
+    }
+
+    /**
+     * Agrega un cliente al sistema
+     */
+    public void agregarCliente(Cliente cliente) {
+        if (cliente == null) {
+            throw new IllegalArgumentException("El cliente no puede ser nulo");
+        }
+        // Otra terminal no puede tocar al cliente hasta que quede suscrito
+        modificar(cliente.getDni(), () -> {
+            registro.agregarCliente(cliente);
+            cliente.setObservador(observador);
+            for (Mascota mascota : cliente.getMascotas()) {
+                resumen.mascotaAgregada(mascota);
+            }
+            observador.personaRegistrada(cliente);
+        });
+    }
+
+    /**
+     * Agrega un veterinario al sistema
+     */
+    public void agregarVeterinario(Veterinario veterinario) {
+        if (veterinario == null) {
+            throw new IllegalArgumentException("El veterinario no puede ser nulo");
+        }
+        modificar(veterinario.getDni(), () -> {
+            registro.agregarVeterinario(veterinario);
+            veterinario.setObservador(observador);
+            // Incorporar al almacén las consultas registradas antes de darlo de alta
+            for (Consulta consulta : veterinario.getConsultas()) {
+                consultas.agregar(consulta);
+                resumen.consultaAgregada(veterinario.getDni());
+            }
+            observador.personaRegistrada(veterinario);
+        });
+    }
+
+    /**
+     * Agrega un administrativo al sistema
+     */
+    public void agregarAdministrativo(Administrativo administrativo) {
+        if (administrativo == null) {
+            throw new IllegalArgumentException("El administrativo no puede ser nulo");
+        }
+        modificar(administrativo.getDni(), () -> {
+            registro.agregarAdministrativo(administrativo);
+            administrativo.setObservador(observador);
+            for (Tarea tarea : administrativo.getTareas()) {
+                tareas.put(tarea.getId(), tarea);
+                tareasUrgentes.actualizar(tarea);
+                resumen.tareaAgregada(administrativo.getDni(), tarea.getEstadoTarea());
+            }
+            observador.personaRegistrada(administrativo);
+        });
+    }
+
+    /**
+     * Incorpora de una vez el estado leído de una instantánea. Las entidades
+     * pasan directo a los registros e índices, sin cerrojos por DNI ni avisos a
+     * los observadores suscritos, y el historial de versiones las publica en una
+     * sola versión. Solo se admite sobre un servicio vacío, antes de abrir el
+     * diario o atender terminales. Las consultas, ya agregadas a sus
+     * veterinarios, se registran en el orden de la lista.
+     */
+    public void cargarInstantanea(Collection<Cliente> clientesCargados,
+                                  Collection<Veterinario> veterinariosCargados,
+                                  Collection<Administrativo> administrativosCargados,
+                                  List<Consulta> consultasCargadas) {
+        if (!registro.getClientes().isEmpty() || !registro.getVeterinarios().isEmpty()
+                || !registro.getAdministrativos().isEmpty()) {
+            throw new IllegalStateException("La instantánea solo se carga sobre un servicio vacío");
+        }
+        for (Cliente cliente : clientesCargados) {
+            registro.agregarCliente(cliente);
+            cliente.setObservador(observador);
+            for (Mascota mascota : cliente.getMascotas()) {
+                resumen.mascotaAgregada(mascota);
+            }
+        }
+        for (Veterinario veterinario : veterinariosCargados) {
+            registro.agregarVeterinario(veterinario);
+            veterinario.setObservador(observador);
+        }
+        for (Administrativo administrativo : administrativosCargados) {
+            registro.agregarAdministrativo(administrativo);
+            administrativo.setObservador(observador);
+            for (Tarea tarea : administrativo.getTareas()) {
+                tareas.put(tarea.getId(), tarea);
+                tareasUrgentes.actualizar(tarea);
+                resumen.tareaAgregada(administrativo.getDni(), tarea.getEstadoTarea());
+            }
+        }
+        consultas.agregarTodas(consultasCargadas);
+        for (Consulta consulta : consultasCargadas) {
+            resumen.consultaAgregada(consulta.getVeterinario().getDni());
+        }
+        versiones.cargaInicial(clientesCargados, veterinariosCargados, administrativosCargados, consultasCargadas);
+    }
+
+    /**
+     * Busca un cliente por DNI
+     */
+    public Cliente buscarClientePorDni(String dni) {
+        return registro.buscarCliente(dni);
+    }
+
+    /**
+     * Busca un veterinario por DNI
+     */
+    public Veterinario buscarVeterinarioPorDni(String dni) {
+        return registro.buscarVeterinario(dni);
+    }
+
+    /**
+     * Busca un administrativo por DNI
+     */
+    public Administrativo buscarAdministrativoPorDni(String dni) {
+        return registro.buscarAdministrativo(dni);
+    }
+
+    /**
+     * Registra una consulta en el veterinario que la atendió.
+     * El veterinario debe estar dado de alta en el sistema.
+     */
+    public void agregarConsulta(Consulta consulta) {
+        if (consulta == null) {
+            throw new IllegalArgumentException("La consulta no puede ser nula");
+        }
+        Veterinario veterinario = consulta.getVeterinario();
+        modificar(veterinario.getDni(), () -> {
+            if (registro.buscarVeterinario(veterinario.getDni()) != veterinario) {
+                throw new IllegalArgumentException("El veterinario no está registrado en el sistema");
+            }
+            veterinario.agregarConsulta(consulta);
+        });
+    }
+
+    /**
+     * Crea y registra una consulta para la mascota de un cliente.
+     * Toma los cerrojos del cliente y del veterinario mientras la valida y la agrega.
+     */
+    public Consulta crearConsulta(String dniCliente, String nombreMascota, String dniVeterinario,
+                                  String tratamiento, String diagnostico) {
+        Cliente cliente = clienteRegistrado(dniCliente);
+        Veterinario veterinario = veterinarioRegistrado(dniVeterinario);
+        return modificarCon(cliente.getDni(), veterinario.getDni(), () -> {
+            Mascota mascota = cliente.buscarMascota(nombreMascota);
+            if (mascota == null) {
+                throw new IllegalArgumentException("El cliente no tiene una mascota llamada " + nombreMascota);
+            }
+            Consulta consulta = new Consulta(cliente, mascota, veterinario, tratamiento, diagnostico);
+            veterinario.agregarConsulta(consulta);
+            return consulta;
+        });
+    }
+
+    /**
+     * Agrega una mascota a un cliente registrado
+     */
+    public void agregarMascota(String dniCliente, Mascota mascota) {
+        Cliente cliente = clienteRegistrado(dniCliente);
+        modificar(cliente.getDni(), () -> cliente.agregarMascota(mascota));
+    }
+
+    /**
+     * Quita una mascota de un cliente registrado
+     */
+    public boolean eliminarMascota(String dniCliente, String nombreMascota) {
+        Cliente cliente = clienteRegistrado(dniCliente);
+        return modificarCon(cliente.getDni(), () -> cliente.eliminarMascota(nombreMascota));
+    }
+
+    /**
+     * Copia de las mascotas de un cliente, tomada con su cerrojo
+     */
+    public List<Mascota> getMascotasDe(String dniCliente) {
+        Cliente cliente = clienteRegistrado(dniCliente);
+        return cerrojos.con(cliente.getDni(), () -> new ArrayList<>(cliente.getMascotas()));
+    }
+
+    /**
+     * Ficha en texto de un cliente y sus mascotas, armada con su cerrojo
+     */
+    public String describirCliente(String dniCliente) {
+        Cliente cliente = clienteRegistrado(dniCliente);
+        return cerrojos.con(cliente.getDni(), cliente::toString);
+    }
+
+    /**
+     * Ficha en texto de un veterinario y sus consultas, armada con su cerrojo
+     */
+    public String describirVeterinario(String dniVeterinario) {
+        Veterinario veterinario = veterinarioRegistrado(dniVeterinario);
+        return cerrojos.con(veterinario.getDni(), veterinario::toString);
+    }
+
+    /**
+     * Asigna una tarea nueva a un administrativo registrado
+     */
+    public void agregarTarea(String dniAdministrativo, Tarea tarea) {
+        Administrativo administrativo = administrativoRegistrado(dniAdministrativo);
+        modificar(administrativo.getDni(), () -> administrativo.agregarTarea(tarea));
+    }
+
+    /**
+     * Pasa a En Proceso una tarea pendiente de un administrativo y la devuelve
+     */
+    public Tarea iniciarTarea(String dniAdministrativo, String descripcion) {
+        return modificarTarea(dniAdministrativo, descripcion, Tarea::iniciar);
+    }
+
+    /**
+     * Marca como completada una tarea de un administrativo y la devuelve
+     */
+    public Tarea completarTarea(String dniAdministrativo, String descripcion) {
+        return modificarTarea(dniAdministrativo, descripcion, Tarea::completar);
+    }
+
+    /**
+     * Cambia el estado de una tarea de un administrativo y la devuelve
+     */
+    public Tarea cambiarEstadoTarea(String dniAdministrativo, String descripcion, EstadoTarea estado) {
+        return modificarTarea(dniAdministrativo, descripcion, tarea -> tarea.setEstado(estado));
+    }
+
+    private Tarea modificarTarea(String dniAdministrativo, String descripcion, Consumer<Tarea> cambio) {
+        Administrativo administrativo = administrativoRegistrado(dniAdministrativo);
+        return modificarCon(administrativo.getDni(), () -> {
+            Tarea tarea = descripcion == null ? null : administrativo.buscarTarea(descripcion.trim());
+            if (tarea == null) {
+                throw new IllegalArgumentException("Tarea no encontrada: " + (descripcion == null ? null : descripcion.trim()));
+            }
+            cambio.accept(tarea);
+            return tarea;
+        });
+    }
+
+    /**
+     * Ejecuta una operación que modifica el modelo con el cerrojo del DNI.
+     * Los observadores pueden rechazarla antes de tomar el cerrojo y confirman
+     * sus cambios después de soltarlo: el diario sincroniza a disco sin demorar
+     * a otras operaciones de la misma franja.
+     */
+    private <T> T modificarCon(String dni, Supplier<T> accion) {
+        antesDeModificar();
+        try {
+            return cerrojos.con(dni, accion);
+        } finally {
+            modificacionTerminada();
+        }
+    }
+
+    private <T> T modificarCon(String dni, String otroDni, Supplier<T> accion) {
+        antesDeModificar();
+        try {
+            return cerrojos.con(dni, otroDni, accion);
+        } finally {
+            modificacionTerminada();
+        }
+    }
+
+    private void modificar(String dni, Runnable accion) {
+        antesDeModificar();
+        try {
+            cerrojos.ejecutar(dni, accion);
+        } finally {
+            modificacionTerminada();
+        }
+    }
+
+    private void antesDeModificar() {
+        for (ObservadorModelo o : observadores) {
+            o.antesDeModificar();
+        }
+    }
+
+    private void modificacionTerminada() {
+        for (ObservadorModelo o : observadores) {
+            o.modificacionTerminada();
+        }
+    }
+
+    private Cliente clienteRegistrado(String dni) {
+        Cliente cliente = registro.buscarCliente(dni);
+        if (cliente == null) {
+            throw new IllegalArgumentException("Cliente no encontrado: " + (dni == null ? null : dni.trim()));
+        }
+        return cliente;
+    }
+
+    private Veterinario veterinarioRegistrado(String dni) {
+        Veterinario veterinario = registro.buscarVeterinario(dni);
+        if (veterinario == null) {
+            throw new IllegalArgumentException("Veterinario no encontrado: " + (dni == null ? null : dni.trim()));
+        }
+        return veterinario;
+    }
+
+    private Administrativo administrativoRegistrado(String dni) {
+        Administrativo administrativo = registro.buscarAdministrativo(dni);
+        if (administrativo == null) {
+            throw new IllegalArgumentException("Administrativo no encontrado: " + (dni == null ? null : dni.trim()));
+        }
+        return administrativo;
+    }
+
+    /**
+     * Busca una consulta por su ID
+     */
+    public Consulta buscarConsultaPorId(int id) {
+        return consultas.buscarPorId(id);
+    }
+
+    /**
+     * Busca una tarea administrativa por su ID
+     */
+    public Tarea buscarTareaPorId(int id) {
+        return tareas.get(id);
+    }
+
+    /**
+     * Tareas pendientes que superaron el plazo de urgencia, de la más antigua a la más reciente
+     */
+    public List<Tarea> getTareasUrgentes() {
+        return tareasUrgentes.getUrgentes();
+    }
+
+    /**
+     * Revisa en segundo plano las tareas pendientes para avisar a los observadores
+     * (tareaUrgente) apenas una supera el plazo de urgencia
+     */
+    public void iniciarAvisosDeUrgencia(Duration intervalo) {
+        tareasUrgentes.iniciarRevisionPeriodica(intervalo);
+    }
+
+    /**
+     * Detiene los avisos de urgencia en segundo plano
+     */
+    public void detenerAvisosDeUrgencia() {
+        tareasUrgentes.detenerRevisionPeriodica();
+    }
+
+    /**
+     * Historial de consultas de un cliente con todos los veterinarios
+     */
+    public List<Consulta> buscarConsultasPorCliente(String dniCliente) {
+        return consultas.buscarPorCliente(dniCliente == null ? null : dniCliente.trim());
+    }
+
+    /**
+     * Historial médico de una mascota con todos los veterinarios
+     */
+    public List<Consulta> buscarConsultasPorMascota(Mascota mascota) {
+        return consultas.buscarPorMascota(mascota);
+    }
+
+    /**
+     * Consultas atendidas por un veterinario
+     */
+    public List<Consulta> buscarConsultasPorVeterinario(String dniVeterinario) {
+        return consultas.buscarPorVeterinario(dniVeterinario == null ? null : dniVeterinario.trim());
+    }
+
+    /**
+     * Consultas realizadas en el rango [desde, hasta)
+     */
+    public List<Consulta> buscarConsultasPorFecha(LocalDateTime desde, LocalDateTime hasta) {
+        return consultas.buscarPorFecha(desde, hasta);
+    }
+
+    /**
+     * Consultas realizadas hoy, ordenadas por hora
+     */
+    public List<Consulta> buscarConsultasDeHoy() {
+        return consultas.buscarPorDia(LocalDate.now());
+    }
+
+    /**
+     * Consultas realizadas en las últimas 24 horas
+     */
+    public List<Consulta> buscarConsultasRecientes() {
+        LocalDateTime ahora = LocalDateTime.now();
+        return consultas.buscarPorFecha(ahora.minusDays(1), LocalDateTime.MAX);
+    }
+
+    /**
+     * Consultas por veterinario, especialidad, especie, raza y mes de todo el
+     * historial; con muchas consultas el conteo se reparte entre varios hilos.
+     * Se cuentan sobre una vista consistente, igual que la exportación.
+     */
+    public InformeConsultas analizarConsultas() {
+        try (VistaConsistente vista = versiones.abrirVista()) {
+            return AnalisisConsultas.analizar(vista);
+        }
+    }
+
+    /**
+     * Copia compacta de las consultas anteriores a la fecha indicada, para el
+     * archivo histórico; se lee con VistaConsulta sin reconstruir los objetos
+     */
+    public ArchivoHistorico archivarConsultas(LocalDateTime hasta) {
+        return ArchivoHistorico.de(consultas.buscarPorFecha(LocalDateTime.MIN, hasta));
+    }
+
+    /**
+     * Abre una fotografía consistente de todo el sistema para reportes largos.
+     * Se lee sin cerrojos, así que el mostrador puede seguir registrando cambios
+     * mientras tanto; hay que cerrarla al terminar.
+     */
+    public VistaConsistente abrirVista() {
+        return versiones.abrirVista();
+    }
+
+    /**
+     * Exporta todas las consultas al archivo indicado y devuelve cuántas se escribieron.
+     * Se exportan desde una vista consistente: los cambios registrados durante
+     * la exportación no la frenan ni aparecen a medias.
+     */
+    public long exportarConsultas(ExportadorConsultas.Formato formato, Path archivo) throws IOException {
+        try (VistaConsistente vista = versiones.abrirVista()) {
+            return ExportadorConsultas.exportar(vista, formato, archivo);
+        }
+    }
+
+    /**
+     * Exporta las consultas del rango [desde, hasta), ordenadas por fecha.
+     * El rango se busca en el índice por fecha y cada consulta se lee de una
+     * vista consistente abierta antes, como en la exportación completa.
+     */
+    public long exportarConsultas(ExportadorConsultas.Formato formato, Path archivo,
+                                  LocalDateTime desde, LocalDateTime hasta) throws IOException {
+        try (VistaConsistente vista = versiones.abrirVista()) {
+            return ExportadorConsultas.exportar(vista, vista.getConsultas(consultas.buscarPorFecha(desde, hasta)),
+                    formato, archivo);
+        }
+    }
+
+    /**
+     * Página de clientes en orden de registro. Con cursor null empieza desde el
+     * principio; el cursor de cada página pide la siguiente.
+     */
+    public Pagina<Cliente> paginaClientes(String cursor, int tamano) {
+        return registro.paginaClientes(cursor, tamano);
+    }
+
+    /**
+     * Página de veterinarios en orden de registro
+     */
+    public Pagina<Veterinario> paginaVeterinarios(String cursor, int tamano) {
+        return registro.paginaVeterinarios(cursor, tamano);
+    }
+
+    /**
+     * Página de administrativos en orden de registro
+     */
+    public Pagina<Administrativo> paginaAdministrativos(String cursor, int tamano) {
+        return registro.paginaAdministrativos(cursor, tamano);
+    }
+
+    /**
+     * Página de todas las consultas en orden de registro
+     */
+    public Pagina<Consulta> paginaConsultas(String cursor, int tamano) {
+        return consultas.pagina(cursor, tamano);
+    }
+
+    /**
+     * Página de las mascotas de un cliente en orden de alta, tomada con su cerrojo
+     */
+    public Pagina<Mascota> paginaMascotas(String dniCliente, String cursor, int tamano) {
+        Pagina.validarTamano(tamano);
+        long ultima = Pagina.decodificar(cursor);
+        Cliente cliente = clienteRegistrado(dniCliente);
+        return cerrojos.con(cliente.getDni(), () -> {
+            List<Mascota> elementos = new ArrayList<>(tamano);
+            long posicion = ultima;
+            Iterator<Mascota> siguientes = cliente.getMascotasDespuesDe(ultima).iterator();
+            while (elementos.size() < tamano && siguientes.hasNext()) {
+                Mascota mascota = siguientes.next();
+                elementos.add(mascota);
+                posicion = mascota.getPosicionAlta();
+            }
+            return new Pagina<>(elementos, siguientes.hasNext() ? Pagina.codificar(posicion) : null);
+        });
+    }
+
+    /**
+     * Página del historial de consultas de un cliente
+     */
+    public Pagina<Consulta> paginaConsultasPorCliente(String dniCliente, String cursor, int tamano) {
+        return consultas.paginaPorCliente(dniCliente == null ? null : dniCliente.trim(), cursor, tamano);
+    }
+
+    /**
+     * Página de las consultas atendidas por un veterinario
+     */
+    public Pagina<Consulta> paginaConsultasPorVeterinario(String dniVeterinario, String cursor, int tamano) {
+        return consultas.paginaPorVeterinario(dniVeterinario == null ? null : dniVeterinario.trim(), cursor, tamano);
+    }
+
+    /**
+     * Lista todos los clientes registrados
+     */
+    public void listarClientes() {
+        listar(registro.getClientes(), "No hay clientes registrados.");
+    }
+
+    /**
+     * Lista todos los veterinarios registrados
+     */
+    public void listarVeterinarios() {
+        listar(registro.getVeterinarios(), "No hay veterinarios registrados.");
+    }
+
+    /**
+     * Lista todos los administrativos registrados
+     */
+    public void listarAdministrativos() {
+        listar(registro.getAdministrativos(), "No hay administrativos registrados.");
+    }
+
+    private void listar(Collection<? extends Persona> personas, String mensajeVacio) {
+        if (personas.isEmpty()) {
+            System.out.println(mensajeVacio);
+            return;
+        }
+
+        int i = 1;
+        for (Persona persona : personas) {
+            // Igual que describirCliente: la ficha se arma con el cerrojo de la persona
+            System.out.println(i++ + ". " + cerrojos.con(persona.getDni(), persona::toString));
+            System.out.println("---");
+        }
+    }
+
+    /**
+     * Muestra un resumen con los totales del sistema
+     */
+    public void mostrarResumen() {
+        System.out.println(resumen);
+    }
+
+    /**
+     * Totales del sistema, actualizados en vivo; consultarlos no recorre los registros
+     */
+    public ResumenSistema getResumen() {
+        return resumen;
+    }
+
+    // Getters de solo lectura
+    public Collection<Cliente> getClientes() {
+        return registro.getClientes();
+    }
+
+    public Collection<Veterinario> getVeterinarios() {
+        return registro.getVeterinarios();
+    }
+
+    public Collection<Administrativo> getAdministrativos() {
+        return registro.getAdministrativos();
+    }
+
+    public List<Consulta> getConsultas() {
+        return consultas.getConsultas();
+    }
+}
@@ -1,6 +1,11 @@
 package com.veterinaria.modelo;
 
+import com.veterinaria.util.Diccionario;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -10,6 +15,7 @@ import java.util.List;
 public class Veterinario extends Persona {
     private String especialidad;
     private List<Consulta> consultas;
+    private List<Consulta> vistaConsultas;
 
     /**
      * Constructor de Veterinario
@@ -18,6 +24,7 @@ public class Veterinario extends Persona {
         super(nombre, apellido, dni, telefono, email);
         this.especialidad = validarEspecialidad(especialidad);
         this.consultas = new ArrayList<>();
+        this.vistaConsultas = Collections.unmodifiableList(consultas);
     }
 
     /**
@@ -27,7 +34,7 @@ public class Veterinario extends Persona {
         if (especialidad == null || especialidad.trim().isEmpty()) {
             throw new IllegalArgumentException("La especialidad no puede estar vacía");
         }
-        return especialidad.trim();
+        return Diccionario.ESPECIALIDADES.canonico(especialidad.trim());
     }
 
     /**
@@ -51,7 +58,13 @@ public class Veterinario extends Persona {
             throw new IllegalArgumentException("La consulta no corresponde a este veterinario");
         }
         
-        consultas.add(consulta);
+        modificar(() -> {
+            consultas.add(consulta);
+            consulta.setObservador(getObservador());
+            if (getObservador() != null) {
+                getObservador().consultaAgregada(this, consulta);
+            }
+        });
     }
 
     /**
@@ -110,11 +123,29 @@ public class Veterinario extends Persona {
     }
 
     public void setEspecialidad(String especialidad) {
-        this.especialidad = validarEspecialidad(especialidad);
+        String valor = validarEspecialidad(especialidad);
+        modificar(() -> {
+            this.especialidad = valor;
+            notificarModificacion();
+        });
     }
 
+    /**
+     * Propaga el observador a las consultas ya registradas
+     */
+    @Override
+    public void setObservador(ObservadorModelo observador) {
+        super.setObservador(observador);
+        for (Consulta consulta : consultas) {
+            consulta.setObservador(observador);
+        }
+    }
+
+    /**
+     * Vista de solo lectura de las consultas; no copia y refleja las altas posteriores
+     */
     public List<Consulta> getConsultas() {
-        return new ArrayList<>(consultas); // Retorna una copia para evitar modificaciones externas
+        return vistaConsultas;
     }
 
     /**
@@ -125,15 +156,13 @@ public class Veterinario extends Persona {
     }
 
     /**
-     * Representación en string del veterinario incluyendo su información
+     * Representación en texto del veterinario incluyendo su información
      */
     @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(super.toString());
-        sb.append(String.format("\nEspecialidad: %s", especialidad));
-        sb.append(String.format("\nConsultas realizadas: %d", consultas.size()));
-        
-        return sb.toString();
+    public void escribirEn(Appendable destino) throws IOException {
+        super.escribirEn(destino);
+        destino.append("\nEspecialidad: ").append(especialidad)
+               .append("\nConsultas realizadas: ");
+        Renderizado.entero(destino, consultas.size());
     }
 }
\ No newline at end of file
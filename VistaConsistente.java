@@ -0,0 +1,347 @@
+package com.veterinaria.servicio;
+
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.EstadoTarea;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * Fotografía consistente del sistema en una versión fija.
+ * Se recorre sin cerrojos mientras el mostrador sigue registrando cambios:
+ * lo publicado después de abrirla no aparece. Debe cerrarse al terminar
+ * (try-with-resources) para que las versiones viejas puedan descartarse.
+ */
+public final class VistaConsistente implements AutoCloseable {
+    private final VersionesModelo versiones;
+    private final long version;
+    private boolean cerrada;
+
+    VistaConsistente(VersionesModelo versiones, long version) {
+        this.versiones = versiones;
+        this.version = version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Recorridos en orden de registro
+    public Iterable<FichaCliente> getClientes() {
+        return vigentes(versiones.clientes);
+    }
+
+    public Iterable<FichaVeterinario> getVeterinarios() {
+        return vigentes(versiones.veterinarios);
+    }
+
+    public Iterable<FichaAdministrativo> getAdministrativos() {
+        return vigentes(versiones.administrativos);
+    }
+
+    public Iterable<FichaConsulta> getConsultas() {
+        return vigentes(versiones.consultas);
+    }
+
+    public Iterable<FichaTarea> getTareas() {
+        return vigentes(versiones.tareas);
+    }
+
+    /**
+     * Fichas en esta versión de las consultas indicadas, en el mismo orden.
+     * Se omiten las registradas después de abrir la vista. Como las consultas
+     * no se borran ni cambian de fecha, alcanza con un índice del servicio
+     * leído después de abrirla para recorrer solo una parte.
+     */
+    List<FichaConsulta> getConsultas(List<Consulta> consultas) {
+        if (cerrada) {
+            throw new IllegalStateException("La vista ya está cerrada");
+        }
+        List<FichaConsulta> fichas = new ArrayList<>(consultas.size());
+        for (Consulta consulta : consultas) {
+            VersionesModelo.Entidad<FichaConsulta> entidad = VersionesModelo.publicadaDe(consulta);
+            FichaConsulta ficha = entidad != null ? entidad.en(version) : null;
+            if (ficha != null) {
+                fichas.add(ficha);
+            }
+        }
+        return fichas;
+    }
+
+    /**
+     * Mascotas del cliente tal como estaban en esta versión
+     */
+    public List<FichaMascota> getMascotas(FichaCliente cliente) {
+        List<FichaMascota> mascotas = new ArrayList<>();
+        for (VersionesModelo.Entidad<VersionesModelo.Entidad<FichaMascota>> pertenencia : cliente.mascotas) {
+            VersionesModelo.Entidad<FichaMascota> mascota = pertenencia.en(version);
+            FichaMascota ficha = mascota != null ? mascota.en(version) : null;
+            if (ficha != null) {
+                mascotas.add(ficha);
+            }
+        }
+        return mascotas;
+    }
+
+    public FichaCliente getCliente(FichaConsulta consulta) {
+        return consulta.cliente.en(version);
+    }
+
+    public FichaMascota getMascota(FichaConsulta consulta) {
+        return consulta.mascota.en(version);
+    }
+
+    public FichaVeterinario getVeterinario(FichaConsulta consulta) {
+        return consulta.veterinario.en(version);
+    }
+
+    /**
+     * Administrativo de la tarea en esta versión, o null si no estaba asignada
+     */
+    public FichaAdministrativo getAdministrativo(FichaTarea tarea) {
+        return tarea.administrativo != null ? tarea.administrativo.en(version) : null;
+    }
+
+    private <F> Iterable<F> vigentes(Queue<VersionesModelo.Entidad<F>> entidades) {
+        if (cerrada) {
+            throw new IllegalStateException("La vista ya está cerrada");
+        }
+        return () -> new Iterator<F>() {
+            private final Iterator<VersionesModelo.Entidad<F>> it = entidades.iterator();
+            private F siguiente = avanzar();
+
+            private F avanzar() {
+                while (it.hasNext()) {
+                    F ficha = it.next().en(version);
+                    if (ficha != null) {
+                        return ficha;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return siguiente != null;
+            }
+
+            @Override
+            public F next() {
+                if (siguiente == null) {
+                    throw new NoSuchElementException();
+                }
+                F actual = siguiente;
+                siguiente = avanzar();
+                return actual;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        if (!cerrada) {
+            cerrada = true;
+            versiones.liberar(version);
+        }
+    }
+
+    /**
+     * Datos de una persona en una versión
+     */
+    public abstract static class FichaPersona {
+        private final String dni;
+        private final String nombre;
+        private final String apellido;
+        private final String telefono;
+        private final String email;
+
+        FichaPersona(String dni, String nombre, String apellido, String telefono, String email) {
+            this.dni = dni;
+            this.nombre = nombre;
+            this.apellido = apellido;
+            this.telefono = telefono;
+            this.email = email;
+        }
+
+        public String getDni() {
+            return dni;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public String getApellido() {
+            return apellido;
+        }
+
+        public String getTelefono() {
+            return telefono;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getNombreCompleto() {
+            return nombre + " " + apellido;
+        }
+    }
+
+    public static final class FichaCliente extends FichaPersona {
+        // Pertenencias del cliente, compartidas por todas sus fichas; se filtran por versión
+        final Queue<VersionesModelo.Entidad<VersionesModelo.Entidad<FichaMascota>>> mascotas;
+
+        FichaCliente(String dni, String nombre, String apellido, String telefono, String email,
+                     Queue<VersionesModelo.Entidad<VersionesModelo.Entidad<FichaMascota>>> mascotas) {
+            super(dni, nombre, apellido, telefono, email);
+            this.mascotas = mascotas;
+        }
+    }
+
+    public static final class FichaVeterinario extends FichaPersona {
+        private final String especialidad;
+        private final int cantidadConsultas;
+
+        FichaVeterinario(String dni, String nombre, String apellido, String telefono, String email,
+                         String especialidad, int cantidadConsultas) {
+            super(dni, nombre, apellido, telefono, email);
+            this.especialidad = especialidad;
+            this.cantidadConsultas = cantidadConsultas;
+        }
+
+        public String getEspecialidad() {
+            return especialidad;
+        }
+
+        public int getCantidadConsultas() {
+            return cantidadConsultas;
+        }
+    }
+
+    public static final class FichaAdministrativo extends FichaPersona {
+        private final String area;
+
+        FichaAdministrativo(String dni, String nombre, String apellido, String telefono, String email,
+                            String area) {
+            super(dni, nombre, apellido, telefono, email);
+            this.area = area;
+        }
+
+        public String getArea() {
+            return area;
+        }
+    }
+
+    public static final class FichaMascota {
+        private final String nombre;
+        private final String tipo;
+        private final String raza;
+        private final int edad;
+        private final String informacionEspecifica;
+
+        FichaMascota(String nombre, String tipo, String raza, int edad, String informacionEspecifica) {
+            this.nombre = nombre;
+            this.tipo = tipo;
+            this.raza = raza;
+            this.edad = edad;
+            this.informacionEspecifica = informacionEspecifica;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public String getTipoMascota() {
+            return tipo;
+        }
+
+        public String getRaza() {
+            return raza;
+        }
+
+        public int getEdad() {
+            return edad;
+        }
+
+        public String getInformacionEspecifica() {
+            return informacionEspecifica;
+        }
+    }
+
+    public static final class FichaConsulta {
+        private final int id;
+        private final LocalDateTime fecha;
+        private final String tratamiento;
+        private final String diagnostico;
+        final VersionesModelo.Entidad<FichaCliente> cliente;
+        final VersionesModelo.Entidad<FichaMascota> mascota;
+        final VersionesModelo.Entidad<FichaVeterinario> veterinario;
+
+        FichaConsulta(int id, LocalDateTime fecha, String tratamiento, String diagnostico,
+                      VersionesModelo.Entidad<FichaCliente> cliente,
+                      VersionesModelo.Entidad<FichaMascota> mascota,
+                      VersionesModelo.Entidad<FichaVeterinario> veterinario) {
+            this.id = id;
+            this.fecha = fecha;
+            this.tratamiento = tratamiento;
+            this.diagnostico = diagnostico;
+            this.cliente = cliente;
+            this.mascota = mascota;
+            this.veterinario = veterinario;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public LocalDateTime getFechaConsulta() {
+            return fecha;
+        }
+
+        public String getTratamiento() {
+            return tratamiento;
+        }
+
+        public String getDiagnostico() {
+            return diagnostico;
+        }
+    }
+
+    public static final class FichaTarea {
+        private final int id;
+        private final String descripcion;
+        private final EstadoTarea estado;
+        private final LocalDateTime fechaCreacion;
+        final VersionesModelo.Entidad<FichaAdministrativo> administrativo;
+
+        FichaTarea(int id, String descripcion, EstadoTarea estado, LocalDateTime fechaCreacion,
+                   VersionesModelo.Entidad<FichaAdministrativo> administrativo) {
+            this.id = id;
+            this.descripcion = descripcion;
+            this.estado = estado;
+            this.fechaCreacion = fechaCreacion;
+            this.administrativo = administrativo;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+
+        public EstadoTarea getEstado() {
+            return estado;
+        }
+
+        public LocalDateTime getFechaCreacion() {
+            return fechaCreacion;
+        }
+    }
+}
\ No newline at end of file
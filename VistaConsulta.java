@@ -0,0 +1,129 @@
+package com.veterinaria.historico;
+
+import com.veterinaria.util.Renderizable;
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Vista liviana de una consulta archivada. Ofrece los mismos getters de
+ * lectura que Consulta, leyendo directamente de los arreglos del archivo.
+ * Las personas se ven como nombre completo y DNI.
+ */
+public final class VistaConsulta implements Renderizable {
+    private final ArchivoHistorico archivo;
+    private final VistaMascota mascota;
+    private int posicion;
+
+    VistaConsulta(ArchivoHistorico archivo) {
+        this.archivo = archivo;
+        this.mascota = new VistaMascota(archivo);
+    }
+
+    /**
+     * Apunta la vista a otra consulta del archivo
+     */
+    void mover(int posicion) {
+        archivo.validarConsulta(posicion);
+        this.posicion = posicion;
+        mascota.mover(archivo.consultaMascota[posicion]);
+    }
+
+    // Getters
+    public int getId() {
+        return archivo.consultaId[posicion];
+    }
+
+    public LocalDateTime getFechaConsulta() {
+        return ArchivoHistorico.deMilis(archivo.consultaFecha[posicion]);
+    }
+
+    /**
+     * Fecha de la consulta como milisegundos de hora local, sin crear objetos
+     */
+    public long getFechaMilis() {
+        return archivo.consultaFecha[posicion];
+    }
+
+    public String getTratamiento() {
+        return archivo.textos.texto(archivo.consultaTratamiento[posicion]);
+    }
+
+    public String getDiagnostico() {
+        return archivo.textos.texto(archivo.consultaDiagnostico[posicion]);
+    }
+
+    public VistaMascota getMascota() {
+        return mascota;
+    }
+
+    public String getNombreCliente() {
+        return archivo.textos.texto(archivo.personaNombre[archivo.consultaCliente[posicion]]);
+    }
+
+    public String getDniCliente() {
+        return archivo.textos.texto(archivo.personaDni[archivo.consultaCliente[posicion]]);
+    }
+
+    public String getNombreVeterinario() {
+        return archivo.textos.texto(archivo.personaNombre[archivo.consultaVeterinario[posicion]]);
+    }
+
+    public String getDniVeterinario() {
+        return archivo.textos.texto(archivo.personaDni[archivo.consultaVeterinario[posicion]]);
+    }
+
+    public String getEspecialidadVeterinario() {
+        return archivo.textos.texto(archivo.personaEspecialidad[archivo.consultaVeterinario[posicion]]);
+    }
+
+    /**
+     * Obtiene la fecha formateada de la consulta
+     */
+    public String getFechaFormateada() {
+        return getFechaConsulta().format(Renderizado.FORMATO_FECHA);
+    }
+
+    /**
+     * Obtiene un resumen corto de la consulta, igual al de Consulta
+     */
+    public String getResumenCorto() {
+        return Renderizado.aTexto(this::escribirResumenEn);
+    }
+
+    public void escribirResumenEn(Appendable destino) throws IOException {
+        destino.append("Consulta #");
+        Renderizado.entero(destino, getId());
+        destino.append(" - ").append(mascota.getNombre())
+               .append(" (").append(mascota.getTipoMascota())
+               .append(") - Dr. ").append(getNombreVeterinario())
+               .append(" - ");
+        Renderizado.fecha(destino, getFechaConsulta());
+    }
+
+    /**
+     * Escribe la información detallada con el mismo formato que Consulta
+     */
+    @Override
+    public void escribirEn(Appendable destino) throws IOException {
+        destino.append("=== CONSULTA VETERINARIA ===\nID: ");
+        Renderizado.entero(destino, getId());
+        destino.append("\nFecha: ");
+        Renderizado.fecha(destino, getFechaConsulta());
+        destino.append("\nCliente: ").append(getNombreCliente())
+               .append(" (DNI: ").append(getDniCliente())
+               .append(")\nMascota: ").append(mascota.getNombre())
+               .append(" (").append(mascota.getTipoMascota())
+               .append(", ").append(mascota.getRaza())
+               .append(")\nVeterinario: Dr. ").append(getNombreVeterinario())
+               .append(" (").append(getEspecialidadVeterinario())
+               .append(")\nTratamiento: ").append(getTratamiento())
+               .append("\nDiagnóstico: ").append(getDiagnostico());
+    }
+
+    @Override
+    public String toString() {
+        return Renderizado.aTexto(this);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.veterinaria.historico;
+
+import com.veterinaria.util.Renderizado;
+
+import java.io.IOException;
+
+/**
+ * Vista liviana de una mascota archivada. Ofrece los getters de lectura de
+ * Mascota, Perro y Gato desempaquetando los datos del archivo.
+ */
+public final class VistaMascota {
+    private final ArchivoHistorico archivo;
+    private int posicion;
+
+    VistaMascota(ArchivoHistorico archivo) {
+        this.archivo = archivo;
+    }
+
+    /**
+     * Apunta la vista a otra mascota del archivo
+     */
+    void mover(int posicion) {
+        archivo.validarMascota(posicion);
+        this.posicion = posicion;
+    }
+
+    private int datos() {
+        return archivo.mascotaDatos[posicion];
+    }
+
+    // Getters
+    public String getNombre() {
+        return archivo.textos.texto(archivo.mascotaNombre[posicion]);
+    }
+
+    public int getEdad() {
+        return datos() & ArchivoHistorico.MASCARA_EDAD;
+    }
+
+    public String getRaza() {
+        return archivo.textos.texto(archivo.mascotaRaza[posicion]);
+    }
+
+    public String getTipoMascota() {
+        return esGato() ? "Gato" : "Perro";
+    }
+
+    public boolean esGato() {
+        return (datos() & ArchivoHistorico.BIT_GATO) != 0;
+    }
+
+    /**
+     * Tamaño del perro, o null si es un gato
+     */
+    public String getTamano() {
+        return esGato() ? null : ArchivoHistorico.TAMANOS[(datos() >>> ArchivoHistorico.DESPLAZAMIENTO_TAMANO) & 3];
+    }
+
+    /**
+     * Si el gato es de interior; siempre false para un perro
+     */
+    public boolean isEsDeInterior() {
+        return (datos() & ArchivoHistorico.BIT_INTERIOR) != 0;
+    }
+
+    /**
+     * Nombre completo del propietario, o null si no tenía
+     */
+    public String getNombrePropietario() {
+        int propietario = archivo.mascotaPropietario[posicion];
+        return propietario < 0 ? null : archivo.textos.texto(archivo.personaNombre[propietario]);
+    }
+
+    /**
+     * Información específica con el mismo formato que Perro y Gato
+     */
+    public String getInformacionEspecifica() {
+        return Renderizado.aTexto(this::escribirInformacionEspecificaEn);
+    }
+
+    public void escribirInformacionEspecificaEn(Appendable destino) throws IOException {
+        if (esGato()) {
+            destino.append("Tipo de gato: ").append(isEsDeInterior() ? "Gato de interior" : "Gato de exterior");
+        } else {
+            destino.append("Tamaño: ").append(getTamano());
+        }
+    }
+}
\ No newline at end of file
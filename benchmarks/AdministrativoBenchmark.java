@@ -0,0 +1,51 @@
+package com.veterinaria.benchmarks;
+
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Tarea;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas por estado sobre las tareas de un administrativo.
+ * El alta de tareas verifica descripciones duplicadas recorriendo la lista,
+ * por lo que la preparación es cuadrática y el tamaño máximo queda en 100.000.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdministrativoBenchmark {
+    @Param({"10", "1000", "10000", "100000"})
+    public int tamano;
+
+    private Administrativo administrativo;
+
+    @Setup
+    public void preparar() {
+        administrativo = Escenarios.administrativoConTareas(tamano);
+    }
+
+    @Benchmark
+    public List<Tarea> getTareasPorEstado() {
+        return administrativo.getTareasPorEstado("Pendiente");
+    }
+
+    @Benchmark
+    public int getTareasPendientes() {
+        return administrativo.getTareasPendientes();
+    }
+}
\ No newline at end of file
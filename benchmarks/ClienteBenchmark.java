@@ -0,0 +1,53 @@
+package com.veterinaria.benchmarks;
+
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Mascota;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alta de una mascota en un cliente según la cantidad de mascotas que ya tiene.
+ * Cada operación agrega y vuelve a eliminar la misma mascota para que el
+ * tamaño del cliente no crezca durante la medición.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClienteBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int tamano;
+
+    private Cliente cliente;
+    private Mascota nueva;
+
+    @Setup
+    public void preparar() {
+        cliente = Escenarios.clienteConMascotas(tamano);
+        nueva = Escenarios.mascota(tamano);
+    }
+
+    @Benchmark
+    public boolean agregarMascota() {
+        cliente.agregarMascota(nueva);
+        return cliente.eliminarMascota(nueva.getNombre());
+    }
+
+    @Benchmark
+    public Mascota buscarMascota() {
+        return cliente.buscarMascota("Perro0");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.veterinaria.benchmarks;
+
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.Veterinario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creación de una consulta, incluida la validación de que la mascota
+ * pertenece al cliente, según la cantidad de mascotas del cliente.
+ * El ID se toma del asignador real, con las marcas en el directorio temporal
+ * del fork que prepara Escenarios.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConsultaBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int tamano;
+
+    private Cliente cliente;
+    private Mascota mascota;
+    private Veterinario veterinario;
+
+    @Setup
+    public void preparar() {
+        cliente = Escenarios.clienteConMascotas(tamano);
+        // La última mascota agregada es el peor caso para una búsqueda lineal
+        List<Mascota> mascotas = new ArrayList<>(cliente.getMascotas());
+        mascota = mascotas.get(mascotas.size() - 1);
+        veterinario = Escenarios.veterinario();
+    }
+
+    @Benchmark
+    public Consulta crearConsulta() {
+        return new Consulta(cliente, mascota, veterinario, "Vacunación anual", "Animal saludable");
+    }
+}
\ No newline at end of file
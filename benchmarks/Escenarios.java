@@ -0,0 +1,119 @@
+package com.veterinaria.benchmarks;
+
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.EstadoTarea;
+import com.veterinaria.modelo.Gato;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.Perro;
+import com.veterinaria.modelo.Tarea;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.persistencia.DirectorioDatos;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Construcción de los datos de prueba compartidos por los benchmarks.
+ * Cada fork de JMH guarda las secuencias de IDs en un directorio temporal
+ * propio que se borra al terminar, así las consultas y tareas creadas al medir
+ * no avanzan las marcas del directorio de datos real ni las de otro fork.
+ * Todos los benchmarks pasan por esta clase antes de crear entidades con ID.
+ */
+final class Escenarios {
+    static {
+        try {
+            Path datos = Files.createTempDirectory("veterinaria-jmh");
+            System.setProperty(DirectorioDatos.PROPIEDAD, datos.toString());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> borrar(datos)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio de datos del benchmark", e);
+        }
+    }
+
+    private Escenarios() {
+    }
+
+    private static void borrar(Path directorio) {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.sorted(Comparator.reverseOrder()).forEach(archivo -> archivo.toFile().delete());
+        } catch (IOException e) {
+            // Es un temporal del sistema; si no se puede borrar se deja
+        }
+    }
+
+    static Cliente cliente(int indice) {
+        return new Cliente("Cliente" + indice, "Apellido", String.valueOf(10_000_000 + indice),
+                "555-0000", "cliente" + indice + "@email.com");
+    }
+
+    static Veterinario veterinario() {
+        return new Veterinario("Dra. María", "García", "87654321", "555-0456",
+                "maria@vet.com", "Medicina General");
+    }
+
+    static Mascota mascota(int indice) {
+        return indice % 2 == 0
+                ? new Perro("Perro" + indice, indice % 15, "Golden Retriever", "Mediano")
+                : new Gato("Gato" + indice, indice % 15, "Persa", true);
+    }
+
+    /**
+     * Cliente con la cantidad indicada de mascotas
+     */
+    static Cliente clienteConMascotas(int cantidad) {
+        Cliente cliente = cliente(0);
+        for (int i = 0; i < cantidad; i++) {
+            cliente.agregarMascota(mascota(i));
+        }
+        return cliente;
+    }
+
+    /**
+     * Clientes de una mascota cada uno, uno cada diez consultas
+     */
+    static List<Cliente> clientesParaConsultas(int consultas) {
+        int cantidad = Math.max(1, consultas / 10);
+        List<Cliente> clientes = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Cliente cliente = cliente(i);
+            cliente.agregarMascota(mascota(i));
+            clientes.add(cliente);
+        }
+        return clientes;
+    }
+
+    /**
+     * Agrega al veterinario la cantidad indicada de consultas repartidas entre los clientes
+     */
+    static void agregarConsultas(Veterinario veterinario, List<Cliente> clientes, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            Cliente cliente = clientes.get(i % clientes.size());
+            Mascota mascota = cliente.getMascotas().iterator().next();
+            veterinario.agregarConsulta(new Consulta(cliente, mascota, veterinario,
+                    "Vacunación anual", "Animal saludable"));
+        }
+    }
+
+    /**
+     * Administrativo con la cantidad indicada de tareas repartidas entre los tres estados
+     */
+    static Administrativo administrativoConTareas(int cantidad) {
+        Administrativo administrativo = new Administrativo("Carlos", "López", "11223344",
+                "555-0789", "carlos@admin.com", "Recepción");
+        EstadoTarea[] estados = EstadoTarea.values();
+        for (int i = 0; i < cantidad; i++) {
+            Tarea tarea = new Tarea("Actualizar expediente " + i);
+            administrativo.agregarTarea(tarea);
+            tarea.setEstado(estados[i % estados.length]);
+        }
+        return administrativo;
+    }
+}
\ No newline at end of file
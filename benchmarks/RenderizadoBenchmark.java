@@ -0,0 +1,92 @@
+package com.veterinaria.benchmarks;
+
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.Tarea;
+import com.veterinaria.modelo.Veterinario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renderizado a texto de listados completos: las consultas de un veterinario,
+ * las tareas de un administrativo y un cliente con todas sus mascotas.
+ * consultasEnBufer vuelca el listado a un único búfer reutilizado con escribirEn.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderizadoBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int tamano;
+
+    private List<Consulta> consultas;
+    private List<Tarea> tareas;
+    private Cliente cliente;
+    private final StringBuilder bufer = new StringBuilder();
+
+    @Setup
+    public void preparar() {
+        Veterinario veterinario = Escenarios.veterinario();
+        Escenarios.agregarConsultas(veterinario, Escenarios.clientesParaConsultas(tamano), tamano);
+        consultas = veterinario.getConsultas();
+
+        // Las tareas se crean sueltas: el alta en un administrativo es cuadrática
+        Administrativo administrativo = Escenarios.administrativoConTareas(0);
+        tareas = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            Tarea tarea = new Tarea("Actualizar expediente " + i);
+            tarea.setAsignadoA(administrativo);
+            tareas.add(tarea);
+        }
+
+        cliente = Escenarios.clienteConMascotas(tamano);
+    }
+
+    @Benchmark
+    public void consultasDetalladas(Blackhole bh) {
+        for (Consulta consulta : consultas) {
+            bh.consume(consulta.getInformacionDetallada());
+        }
+    }
+
+    @Benchmark
+    public int consultasEnBufer() throws IOException {
+        bufer.setLength(0);
+        for (Consulta consulta : consultas) {
+            consulta.escribirEn(bufer);
+            bufer.append('\n');
+        }
+        return bufer.length();
+    }
+
+    @Benchmark
+    public void tareasDetalladas(Blackhole bh) {
+        for (Tarea tarea : tareas) {
+            bh.consume(tarea.toString());
+        }
+    }
+
+    @Benchmark
+    public String clienteConMascotas() {
+        return cliente.toString();
+    }
+}
\ No newline at end of file
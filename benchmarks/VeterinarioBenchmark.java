@@ -0,0 +1,50 @@
+package com.veterinaria.benchmarks;
+
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.Veterinario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda de las consultas de un cliente en un veterinario según la
+ * cantidad de consultas atendidas (un cliente cada diez consultas)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VeterinarioBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int tamano;
+
+    private Veterinario veterinario;
+    private Cliente cliente;
+
+    @Setup
+    public void preparar() {
+        veterinario = Escenarios.veterinario();
+        List<Cliente> clientes = Escenarios.clientesParaConsultas(tamano);
+        Escenarios.agregarConsultas(veterinario, clientes, tamano);
+        cliente = clientes.get(clientes.size() / 2);
+    }
+
+    @Benchmark
+    public List<Consulta> buscarConsultasPorCliente() {
+        return veterinario.buscarConsultasPorCliente(cliente);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,193 @@
+package com.veterinaria.verificaciones;
+
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Perro;
+import com.veterinaria.modelo.Tarea;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.servicio.VeterinariaService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifica que varias terminales que usan el servicio a la vez no dejen
+ * duplicados ni contadores desparejos: las altas con nombre repetido se
+ * rechazan una sola vez cada una, las fichas se arman sin ver un cliente a
+ * medio modificar y el resumen coincide con lo registrado.
+ */
+final class VerificacionCerrojos {
+    private static final int TERMINALES = 8;
+    private static final int NOMBRES = 50;
+
+    private VerificacionCerrojos() {
+    }
+
+    static void ejecutar() throws Exception {
+        altasRepetidas();
+        fichasDuranteCambios();
+        consultasDeClientesDistintos();
+    }
+
+    private static void altasRepetidas() throws Exception {
+        VeterinariaService servicio = new VeterinariaService();
+        servicio.agregarCliente(new Cliente("Ana", "Pérez", "1", "555-0001", "ana@correo.com"));
+        servicio.agregarAdministrativo(new Administrativo("Adm", "Apellido", "A1", "555-3000",
+                "adm@correo.com", "Recepción"));
+
+        // Todas las terminales intentan dar de alta las mismas mascotas y tareas
+        AtomicInteger mascotasAceptadas = new AtomicInteger();
+        AtomicInteger tareasAceptadas = new AtomicInteger();
+        enParalelo(terminal -> {
+            for (int i = 0; i < NOMBRES; i++) {
+                try {
+                    servicio.agregarMascota("1", new Perro("Mascota" + i, 2, "Mestizo", "Mediano"));
+                    mascotasAceptadas.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    // Otra terminal la dio de alta primero
+                }
+                try {
+                    servicio.agregarTarea("A1", new Tarea("Tarea" + i));
+                    tareasAceptadas.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    // Otra terminal la dio de alta primero
+                }
+            }
+        });
+
+        Verificaciones.comprobar(mascotasAceptadas.get() == NOMBRES
+                        && servicio.buscarClientePorDni("1").getCantidadMascotas() == NOMBRES
+                        && servicio.getResumen().getMascotas() == NOMBRES,
+                "se aceptaron " + mascotasAceptadas + " altas de " + NOMBRES + " mascotas distintas; el cliente tiene "
+                        + servicio.buscarClientePorDni("1").getCantidadMascotas() + " y el resumen cuenta "
+                        + servicio.getResumen().getMascotas());
+        Verificaciones.comprobar(tareasAceptadas.get() == NOMBRES
+                        && servicio.buscarAdministrativoPorDni("A1").getCantidadTareas() == NOMBRES
+                        && servicio.getResumen().getTareas() == NOMBRES,
+                "se aceptaron " + tareasAceptadas + " altas de " + NOMBRES + " tareas distintas; el administrativo tiene "
+                        + servicio.buscarAdministrativoPorDni("A1").getCantidadTareas() + " y el resumen cuenta "
+                        + servicio.getResumen().getTareas());
+        System.out.println("Altas repetidas desde varias terminales aceptadas una sola vez: OK");
+    }
+
+    private static void fichasDuranteCambios() throws Exception {
+        VeterinariaService servicio = new VeterinariaService();
+        servicio.agregarCliente(new Cliente("Ana", "Pérez", "1", "555-0001", "ana@correo.com"));
+
+        AtomicBoolean terminado = new AtomicBoolean();
+        List<String> incoherentes = new ArrayList<>();
+        enParalelo(terminal -> {
+            if (terminal == 0) {
+                try {
+                    for (int i = 0; i < 2000; i++) {
+                        servicio.agregarMascota("1", new Perro("Mascota" + i, 2, "Mestizo", "Mediano"));
+                        if (i % 2 == 0) {
+                            servicio.eliminarMascota("1", "Mascota" + i);
+                        }
+                    }
+                } finally {
+                    terminado.set(true);
+                }
+                return;
+            }
+            while (!terminado.get()) {
+                String ficha = servicio.describirCliente("1");
+                if (!fichaCoherente(ficha)) {
+                    synchronized (incoherentes) {
+                        incoherentes.add(ficha);
+                    }
+                }
+            }
+        });
+
+        Verificaciones.comprobar(incoherentes.isEmpty(),
+                "una ficha se armó con el cliente a medio modificar:\n" + (incoherentes.isEmpty() ? "" : incoherentes.get(0)));
+        System.out.println("Fichas armadas mientras otra terminal modifica al cliente: OK");
+    }
+
+    /**
+     * La cantidad informada coincide con las mascotas listadas
+     */
+    private static boolean fichaCoherente(String ficha) {
+        String marca = "Cantidad de mascotas: ";
+        int desde = ficha.indexOf(marca) + marca.length();
+        int hasta = ficha.indexOf('\n', desde);
+        int informada = Integer.parseInt(ficha.substring(desde, hasta < 0 ? ficha.length() : hasta));
+        int listadas = 0;
+        for (int i = ficha.indexOf("\n  - "); i >= 0; i = ficha.indexOf("\n  - ", i + 1)) {
+            listadas++;
+        }
+        return informada == listadas;
+    }
+
+    private static void consultasDeClientesDistintos() throws Exception {
+        VeterinariaService servicio = new VeterinariaService();
+        Veterinario veterinario = new Veterinario("Luis", "Gómez", "V1", "555-0002", "luis@correo.com", "Clínica");
+        servicio.agregarVeterinario(veterinario);
+        for (int t = 0; t < TERMINALES; t++) {
+            servicio.agregarCliente(new Cliente("Cliente" + t, "Apellido", "C" + t, "555-2000",
+                    "cliente" + t + "@correo.com"));
+            servicio.agregarMascota("C" + t, new Perro("Rex", 3, "Mestizo", "Mediano"));
+        }
+
+        // Cada terminal atiende a su cliente, todas con el mismo veterinario
+        int porTerminal = 200;
+        enParalelo(terminal -> {
+            for (int i = 0; i < porTerminal; i++) {
+                servicio.crearConsulta("C" + terminal, "Rex", "V1", "Tratamiento " + i, "Sano");
+            }
+        });
+
+        int total = TERMINALES * porTerminal;
+        Verificaciones.comprobar(veterinario.getCantidadConsultas() == total
+                        && servicio.buscarConsultasPorVeterinario("V1").size() == total
+                        && servicio.getResumen().getConsultasDe("V1") == total
+                        && servicio.getConsultas().size() == total,
+                "se crearon " + total + " consultas y el veterinario tiene " + veterinario.getCantidadConsultas()
+                        + ", el índice " + servicio.buscarConsultasPorVeterinario("V1").size()
+                        + " y el resumen " + servicio.getResumen().getConsultasDe("V1"));
+        for (int t = 0; t < TERMINALES; t++) {
+            Verificaciones.comprobar(servicio.buscarConsultasPorCliente("C" + t).size() == porTerminal,
+                    "el cliente C" + t + " no tiene sus " + porTerminal + " consultas");
+        }
+        System.out.println("Consultas de clientes distintos con el mismo veterinario: OK");
+    }
+
+    @FunctionalInterface
+    private interface Terminal {
+        void atender(int terminal) throws Exception;
+    }
+
+    /**
+     * Ejecuta el trabajo en todas las terminales a la vez y espera a que terminen
+     */
+    private static void enParalelo(Terminal trabajo) throws Exception {
+        ExecutorService terminales = Executors.newFixedThreadPool(TERMINALES);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<Void>> resultados = new ArrayList<>();
+            for (int t = 0; t < TERMINALES; t++) {
+                int terminal = t;
+                Callable<Void> tarea = () -> {
+                    largada.await();
+                    trabajo.atender(terminal);
+                    return null;
+                };
+                resultados.add(terminales.submit(tarea));
+            }
+            largada.countDown();
+            for (Future<Void> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            terminales.shutdown();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.veterinaria.verificaciones;
+
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.EstadoTarea;
+import com.veterinaria.modelo.Gato;
+import com.veterinaria.modelo.Perro;
+import com.veterinaria.modelo.Tarea;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.persistencia.Diario;
+import com.veterinaria.persistencia.DiarioVeterinaria;
+import com.veterinaria.servicio.VeterinariaService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Verifica que el diario deje durable cada cambio confirmado aunque varias
+ * terminales escriban a la vez y el proceso no se cierre, que un registro
+ * final cortado por una caída se descarte al reabrir sin perder los
+ * anteriores, y que los registros que cruzan una ventana del mapeo se lean.
+ */
+final class VerificacionDiario {
+    private static final int TERMINALES = 8;
+    private static final int CLIENTES_POR_TERMINAL = 100;
+
+    private VerificacionDiario() {
+    }
+
+    static void ejecutar(Path directorio) throws Exception {
+        escriturasConcurrentes(directorio);
+        registroCortado(directorio);
+        registrosEntreVentanas(directorio);
+    }
+
+    private static void escriturasConcurrentes(Path directorio) throws Exception {
+        Path diario = directorio.resolve("concurrente.diario");
+        Files.deleteIfExists(diario);
+
+        VeterinariaService servicio = new VeterinariaService();
+        DiarioVeterinaria registro = DiarioVeterinaria.abrir(diario, servicio);
+        try {
+            servicio.agregarVeterinario(new Veterinario("Luis", "Gómez", "V1", "555-0002",
+                    "luis@correo.com", "Clínica"));
+            servicio.agregarAdministrativo(new Administrativo("Adm", "Apellido", "A1", "555-3000",
+                    "adm@correo.com", "Recepción"));
+            ExecutorService terminales = Executors.newFixedThreadPool(TERMINALES);
+            try {
+                List<Future<?>> tareas = new ArrayList<>();
+                for (int t = 0; t < TERMINALES; t++) {
+                    int terminal = t;
+                    tareas.add(terminales.submit(() -> {
+                        for (int i = 0; i < CLIENTES_POR_TERMINAL; i++) {
+                            String dni = terminal + "-" + i;
+                            servicio.agregarCliente(new Cliente("Cliente" + i, "Apellido", dni, "555-2000",
+                                    "cliente" + i + "@correo.com"));
+                            servicio.agregarMascota(dni, new Perro("Rex", i % 12, "Mestizo", "Grande"));
+                            servicio.agregarMascota(dni, new Gato("Michi", 2, "Siamés", true));
+                            servicio.crearConsulta(dni, "Rex", "V1", "Vacuna", "Sano");
+                            if (i % 3 == 0) {
+                                servicio.eliminarMascota(dni, "Michi");
+                            }
+                        }
+                        servicio.agregarTarea("A1", new Tarea("Tarea de la terminal " + terminal));
+                        servicio.completarTarea("A1", "Tarea de la terminal " + terminal);
+                        return null;
+                    }));
+                }
+                for (Future<?> tarea : tareas) {
+                    tarea.get();
+                }
+            } finally {
+                terminales.shutdown();
+            }
+
+            // Cambios hechos directamente sobre entidades registradas, sin pasar por el servicio
+            Cliente directo = servicio.buscarClientePorDni("0-0");
+            directo.setTelefono("555-9999");
+            directo.buscarMascota("Rex").setEdad(7);
+            Consulta consulta = servicio.buscarConsultasPorCliente("0-0").get(0);
+            consulta.setDiagnostico("Control en un mes");
+            Tarea tarea = servicio.buscarAdministrativoPorDni("A1").buscarTarea("Tarea de la terminal 0");
+            tarea.setEstado(EstadoTarea.EN_PROCESO);
+            tarea.setEstado(EstadoTarea.COMPLETADA);
+
+            // Sin cerrar el diario: lo confirmado ya tiene que estar en disco
+            long[] registros = {0};
+            long[] ultimoLsn = {0};
+            Diario.recorrer(diario, (lsn, datos) -> {
+                registros[0]++;
+                ultimoLsn[0] = lsn;
+            });
+            Verificaciones.comprobar(registros[0] == ultimoLsn[0] && ultimoLsn[0] == registro.getLsnDurable(),
+                    "el diario tiene " + registros[0] + " registros en disco hasta el LSN " + ultimoLsn[0]
+                            + " pero informa durable el " + registro.getLsnDurable());
+
+            VeterinariaService reproducido = new VeterinariaService();
+            DiarioVeterinaria.abrir(diario, reproducido).close();
+            Verificaciones.comprobar(reproducido.getResumen().toString().equals(servicio.getResumen().toString()),
+                    "el resumen cambió al reproducir el diario:\n" + reproducido.getResumen()
+                            + "\nen vez de\n" + servicio.getResumen());
+            for (Cliente cliente : servicio.getClientes()) {
+                Verificaciones.comprobar(reproducido.describirCliente(cliente.getDni())
+                                .equals(servicio.describirCliente(cliente.getDni())),
+                        "la ficha del cliente " + cliente.getDni() + " cambió al reproducir el diario");
+            }
+            Consulta reproducida = reproducido.buscarConsultaPorId(consulta.getId());
+            Verificaciones.comprobar(reproducida != null && reproducida.getDiagnostico().equals("Control en un mes"),
+                    "el diagnóstico cambiado directamente sobre la consulta no se reprodujo");
+            Tarea tareaReproducida = reproducido.buscarAdministrativoPorDni("A1")
+                    .buscarTarea("Tarea de la terminal 0");
+            Verificaciones.comprobar(tareaReproducida.estaCompletada()
+                            && tareaReproducida.getFechaCompletada().equals(tarea.getFechaCompletada()),
+                    "la tarea reproducida no conservó su fecha de completado");
+        } finally {
+            registro.close();
+        }
+        System.out.println("Diario con escrituras concurrentes y cambios directos durable sin cerrar: OK");
+    }
+
+    private static void registroCortado(Path directorio) throws IOException {
+        Path archivo = directorio.resolve("cortado.diario");
+        Files.deleteIfExists(archivo);
+
+        try (Diario diario = new Diario(archivo)) {
+            for (int i = 0; i < 10; i++) {
+                diario.escribir(("registro " + i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        // La caída interrumpe la escritura del último registro a la mitad
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 5);
+        }
+
+        List<String> leidos = leer(archivo);
+        Verificaciones.comprobar(leidos.size() == 9 && leidos.get(8).equals("registro 8"),
+                "se esperaban los 9 registros completos y se leyeron " + leidos);
+        try (Diario diario = new Diario(archivo)) {
+            long lsn = diario.escribir("registro nuevo".getBytes(StandardCharsets.UTF_8));
+            Verificaciones.comprobar(lsn == 10, "el registro posterior a la caída recibió el LSN " + lsn);
+        }
+        leidos = leer(archivo);
+        Verificaciones.comprobar(leidos.size() == 10 && leidos.get(9).equals("registro nuevo"),
+                "el registro posterior a la caída no quedó a continuación de los válidos: " + leidos);
+
+        // Un byte dañado en el medio deja solo el prefijo anterior a ese registro
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long posicion = canal.size() / 2;
+            ByteBuffer octeto = ByteBuffer.allocate(1);
+            canal.read(octeto, posicion);
+            octeto.put(0, (byte) (octeto.get(0) ^ 0xFF)).rewind();
+            canal.write(octeto, posicion);
+        }
+        leidos = leer(archivo);
+        Verificaciones.comprobar(leidos.size() < 10 && leidos.equals(esperados(leidos.size())),
+                "un registro dañado no cortó la lectura en el prefijo válido: " + leidos);
+        System.out.println("Diario con registro final cortado por una caída: OK");
+    }
+
+    private static void registrosEntreVentanas(Path directorio) throws IOException {
+        Path archivo = directorio.resolve("ventanas.diario");
+        Files.deleteIfExists(archivo);
+
+        // Registros de 1 MB más uno chico, para que varios crucen el final de una ventana de 64 MB
+        int cantidad = 80;
+        try (Diario diario = new Diario(archivo)) {
+            diario.escribir(new byte[] {42});
+            for (int i = 0; i < cantidad; i++) {
+                byte[] datos = new byte[1 << 20];
+                datos[0] = (byte) i;
+                datos[datos.length - 1] = (byte) ~i;
+                diario.escribir(datos);
+            }
+        }
+
+        int[] leidos = {0};
+        boolean[] correctos = {true};
+        long fin = Diario.recorrer(archivo, (lsn, datos) -> {
+            if (lsn > 1) {
+                int i = (int) (lsn - 2);
+                correctos[0] &= datos.remaining() == 1 << 20 && datos.get(0) == (byte) i
+                        && datos.get(datos.limit() - 1) == (byte) ~i;
+            }
+            leidos[0]++;
+        });
+        try {
+            Verificaciones.comprobar(leidos[0] == cantidad + 1 && correctos[0] && fin == Files.size(archivo),
+                    "se leyeron " + leidos[0] + " registros hasta la posición " + fin + " de " + Files.size(archivo));
+        } finally {
+            Files.delete(archivo);
+        }
+        System.out.println("Diario leído por ventanas con registros que cruzan su límite: OK");
+    }
+
+    private static List<String> leer(Path archivo) throws IOException {
+        List<String> leidos = new ArrayList<>();
+        Diario.recorrer(archivo, (lsn, datos) -> {
+            byte[] contenido = new byte[datos.remaining()];
+            datos.get(contenido);
+            leidos.add(new String(contenido, StandardCharsets.UTF_8));
+        });
+        return leidos;
+    }
+
+    private static List<String> esperados(int cantidad) {
+        List<String> esperados = new ArrayList<>();
+        for (int i = 0; i < cantidad && i < 9; i++) {
+            esperados.add("registro " + i);
+        }
+        return esperados;
+    }
+}
@@ -0,0 +1,180 @@
+package com.veterinaria.verificaciones;
+
+import com.veterinaria.eventos.BusEventos;
+import com.veterinaria.eventos.Evento;
+import com.veterinaria.eventos.ProcesadorEventos;
+import com.veterinaria.eventos.RegistroAuditoria;
+import com.veterinaria.eventos.TipoEvento;
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Perro;
+import com.veterinaria.modelo.Tarea;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.servicio.VeterinariaService;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Verifica que cada procesador del bus reciba todos los eventos, una vez y en
+ * orden de publicación, aunque el anillo se llene y tenga que esperar a un
+ * procesador lento; que los eventos de una misma terminal conserven el orden
+ * en que ocurrieron; y que el registro de auditoría los escriba en ese orden.
+ */
+final class VerificacionEventos {
+    private static final int TERMINALES = 4;
+    private static final int CLIENTES_POR_TERMINAL = 100;
+
+    private VerificacionEventos() {
+    }
+
+    static void ejecutar(Path directorio) throws Exception {
+        Path auditoria = directorio.resolve("eventos.auditoria");
+        Files.deleteIfExists(auditoria);
+
+        VeterinariaService servicio = new VeterinariaService();
+        servicio.agregarVeterinario(new Veterinario("Luis", "Gómez", "V1", "555-0002", "luis@correo.com", "Clínica"));
+        servicio.agregarAdministrativo(new Administrativo("Adm", "Apellido", "A1", "555-3000",
+                "adm@correo.com", "Recepción"));
+
+        // Un anillo chico y un procesador lento obligan a reutilizar casilleros y a esperar
+        BusEventos bus = new BusEventos(64);
+        Anotador rapido = new Anotador(false);
+        Anotador lento = new Anotador(true);
+        bus.suscribir("rapido", rapido);
+        bus.suscribir("lento", lento);
+        bus.suscribir("auditoria", new RegistroAuditoria(auditoria));
+        bus.iniciar();
+        servicio.agregarObservador(bus);
+        try {
+            ExecutorService terminales = Executors.newFixedThreadPool(TERMINALES);
+            try {
+                List<Future<?>> trabajos = new ArrayList<>();
+                for (int t = 0; t < TERMINALES; t++) {
+                    int terminal = t;
+                    trabajos.add(terminales.submit(() -> {
+                        String descripcion = "Tarea de la terminal " + terminal;
+                        servicio.agregarTarea("A1", new Tarea(descripcion));
+                        servicio.iniciarTarea("A1", descripcion);
+                        for (int i = 0; i < CLIENTES_POR_TERMINAL; i++) {
+                            String dni = terminal + "-" + i;
+                            servicio.agregarCliente(new Cliente("Cliente" + i, "Apellido", dni, "555-2000",
+                                    "cliente" + i + "@correo.com"));
+                            servicio.agregarMascota(dni, new Perro("Rex", 3, "Mestizo", "Mediano"));
+                            servicio.crearConsulta(dni, "Rex", "V1", "Vacuna", "Sano");
+                            servicio.eliminarMascota(dni, "Rex");
+                        }
+                        servicio.completarTarea("A1", descripcion);
+                        return null;
+                    }));
+                }
+                for (Future<?> trabajo : trabajos) {
+                    trabajo.get();
+                }
+            } finally {
+                terminales.shutdown();
+            }
+        } finally {
+            servicio.quitarObservador(bus);
+            bus.close();
+        }
+
+        int total = TERMINALES * (CLIENTES_POR_TERMINAL * 3 + 2);
+        Verificaciones.comprobar(bus.getPublicados() == total,
+                "se publicaron " + bus.getPublicados() + " eventos y se esperaban " + total);
+        Verificaciones.comprobar(bus.getEsperasPorLleno() > 0,
+                "el anillo de 64 casilleros nunca se llenó con un procesador lento");
+        comprobarSecuencias(rapido, total);
+        comprobarSecuencias(lento, total);
+        Verificaciones.comprobar(rapido.eventos.equals(lento.eventos),
+                "los dos procesadores recibieron eventos distintos para las mismas secuencias");
+        Verificaciones.comprobar(rapido.ultimoFinDeLote, "el último evento no cerró un lote");
+        comprobarOrdenPorTerminal(rapido.eventos);
+
+        List<String> lineas = Files.readAllLines(auditoria, StandardCharsets.UTF_8);
+        Verificaciones.comprobar(lineas.size() == total,
+                "la auditoría tiene " + lineas.size() + " líneas y se publicaron " + total + " eventos");
+        for (int i = 0; i < total; i++) {
+            String[] evento = rapido.eventos.get(i).split("[ :]");
+            String tipo = evento[0];
+            String clave = evento[evento.length - 1];
+            String esperado = tipo.equals(TipoEvento.TAREA_CAMBIO_ESTADO.name())
+                    ? " Tarea " + clave + " " : " cliente " + clave + " ";
+            Verificaciones.comprobar(lineas.get(i).contains(" " + tipo + " ") && lineas.get(i).contains(esperado),
+                    "la línea " + (i + 1) + " de la auditoría no corresponde al evento "
+                            + rapido.eventos.get(i) + ": " + lineas.get(i));
+        }
+        System.out.println("Eventos en orden en cada procesador y en la auditoría: OK");
+    }
+
+    private static void comprobarSecuencias(Anotador anotador, int total) {
+        Verificaciones.comprobar(anotador.secuencias.size() == total,
+                "un procesador recibió " + anotador.secuencias.size() + " eventos de " + total);
+        for (int i = 0; i < total; i++) {
+            Verificaciones.comprobar(anotador.secuencias.get(i) == i,
+                    "un procesador recibió la secuencia " + anotador.secuencias.get(i) + " en la posición " + i);
+        }
+    }
+
+    /**
+     * Los eventos de cada cliente siguen el orden en que su terminal los generó,
+     * y las tareas pasan por sus estados en orden
+     */
+    private static void comprobarOrdenPorTerminal(List<String> eventos) {
+        Map<String, List<String>> porClave = new HashMap<>();
+        for (String evento : eventos) {
+            String[] partes = evento.split(" ");
+            porClave.computeIfAbsent(partes[1], k -> new ArrayList<>()).add(partes[0]);
+        }
+        List<String> deCliente = List.of(TipoEvento.MASCOTA_AGREGADA.name(), TipoEvento.CONSULTA_CREADA.name(),
+                TipoEvento.MASCOTA_ELIMINADA.name());
+        List<String> deTarea = List.of(TipoEvento.TAREA_CAMBIO_ESTADO + ":PENDIENTE>EN_PROCESO",
+                TipoEvento.TAREA_CAMBIO_ESTADO + ":EN_PROCESO>COMPLETADA");
+        for (Map.Entry<String, List<String>> entrada : porClave.entrySet()) {
+            boolean esTarea = entrada.getKey().startsWith("#");
+            Verificaciones.comprobar(entrada.getValue().equals(esTarea ? deTarea : deCliente),
+                    "los eventos de " + entrada.getKey() + " llegaron en el orden " + entrada.getValue());
+        }
+    }
+
+    /**
+     * Guarda una copia de cada evento recibido; el casillero se reutiliza después
+     */
+    private static final class Anotador implements ProcesadorEventos {
+        private final boolean lento;
+        private final List<Long> secuencias = new ArrayList<>();
+        private final List<String> eventos = new ArrayList<>();
+        private boolean ultimoFinDeLote;
+
+        Anotador(boolean lento) {
+            this.lento = lento;
+        }
+
+        @Override
+        public void procesar(Evento evento, long secuencia, boolean finDeLote) {
+            secuencias.add(secuencia);
+            if (evento.getTipo() == TipoEvento.TAREA_CAMBIO_ESTADO) {
+                eventos.add(evento.getTipo() + ":" + evento.getEstadoAnterior().name() + ">"
+                        + evento.getEstadoNuevo().name() + " #" + evento.getIdTarea());
+            } else {
+                eventos.add(evento.getTipo() + " " + evento.getDniCliente());
+            }
+            ultimoFinDeLote = finDeLote;
+            if (lento && secuencias.size() % 16 == 0) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
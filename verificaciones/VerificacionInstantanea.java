@@ -0,0 +1,151 @@
+package com.veterinaria.verificaciones;
+
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.Gato;
+import com.veterinaria.modelo.Perro;
+import com.veterinaria.modelo.Tarea;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.persistencia.ArchivoInstantanea;
+import com.veterinaria.persistencia.DiarioVeterinaria;
+import com.veterinaria.servicio.VeterinariaService;
+import com.veterinaria.servicio.VistaConsistente;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifica que una instantánea tomada después de dar de baja una mascota con
+ * consultas se pueda cargar y conserve esas consultas, y que la carga en
+ * bloque deje el servicio igual que antes de compactar.
+ */
+final class VerificacionInstantanea {
+    private VerificacionInstantanea() {
+    }
+
+    static void ejecutar(Path directorio) throws IOException {
+        mascotaDadaDeBaja(directorio);
+        idaYVuelta(directorio);
+    }
+
+    private static void mascotaDadaDeBaja(Path directorio) throws IOException {
+        Path diario = directorio.resolve("baja.diario");
+        Path instantanea = directorio.resolve("baja.instantanea");
+        Files.deleteIfExists(diario);
+        Files.deleteIfExists(instantanea);
+
+        // Baja de la mascota y compactación
+        VeterinariaService servicio = new VeterinariaService();
+        Consulta original;
+        try (DiarioVeterinaria registro = DiarioVeterinaria.abrir(diario, servicio)) {
+            servicio.agregarCliente(new Cliente("Ana", "Pérez", "1", "555-0001", "ana@correo.com"));
+            servicio.agregarVeterinario(new Veterinario("Luis", "Gómez", "2", "555-0002",
+                    "luis@correo.com", "Clínica"));
+            servicio.agregarMascota("1", new Perro("Rex", 3, "Mestizo", "Mediano"));
+            original = servicio.crearConsulta("1", "Rex", "2", "Vacuna", "Sano");
+            servicio.eliminarMascota("1", "Rex");
+            registro.compactar(instantanea);
+        }
+
+        // Carga en un servicio nuevo
+        VeterinariaService cargado = new VeterinariaService();
+        ArchivoInstantanea.cargar(instantanea, cargado);
+
+        List<Consulta> consultas = cargado.getConsultas();
+        Verificaciones.comprobar(consultas.size() == 1, "se esperaba 1 consulta y se cargaron " + consultas.size());
+        Consulta consulta = consultas.get(0);
+        Verificaciones.comprobar(consulta.getId() == original.getId(), "la consulta cambió de ID");
+        Verificaciones.comprobar(consulta.getMascota().getNombre().equals("Rex"), "la consulta perdió su mascota");
+        Verificaciones.comprobar(consulta.getCliente() == cargado.buscarClientePorDni("1"), "la consulta perdió su cliente");
+        Verificaciones.comprobar(consulta.getCliente().getMascotas().isEmpty(), "la mascota dada de baja volvió al cliente");
+        System.out.println("Instantánea con mascota dada de baja: OK");
+    }
+
+    private static void idaYVuelta(Path directorio) throws IOException {
+        Path diario = directorio.resolve("ida.diario");
+        Path instantanea = directorio.resolve("ida.instantanea");
+        Files.deleteIfExists(diario);
+        Files.deleteIfExists(instantanea);
+
+        VeterinariaService servicio = new VeterinariaService();
+        try (DiarioVeterinaria registro = DiarioVeterinaria.abrir(diario, servicio)) {
+            for (int i = 0; i < 3; i++) {
+                servicio.agregarVeterinario(new Veterinario("Vet" + i, "Apellido", "V" + i, "555-1000",
+                        "vet" + i + "@correo.com", "Clínica"));
+            }
+            for (int i = 0; i < 20; i++) {
+                String dni = "C" + i;
+                servicio.agregarCliente(new Cliente("Cliente" + i, "Apellido", dni, "555-2000",
+                        "cliente" + i + "@correo.com"));
+                servicio.agregarMascota(dni, new Perro("Perro" + i, i % 12, "Mestizo", "Grande"));
+                servicio.agregarMascota(dni, new Gato("Gato" + i, 2, "Siamés", i % 2 == 0));
+                for (int j = 0; j < 3; j++) {
+                    servicio.crearConsulta(dni, j % 2 == 0 ? "Perro" + i : "Gato" + i, "V" + (i + j) % 3,
+                            "Tratamiento " + j, "Diagnóstico " + j);
+                }
+            }
+            servicio.eliminarMascota("C4", "Gato4");
+            servicio.agregarAdministrativo(new Administrativo("Adm", "Apellido", "A1", "555-3000",
+                    "adm@correo.com", "Recepción"));
+            servicio.agregarTarea("A1", new Tarea("Ordenar fichas"));
+            servicio.agregarTarea("A1", new Tarea("Llamar proveedores"));
+            servicio.completarTarea("A1", "Ordenar fichas");
+            registro.compactar(instantanea);
+        }
+
+        VeterinariaService cargado = new VeterinariaService();
+        ArchivoInstantanea.cargar(instantanea, cargado);
+
+        Verificaciones.comprobar(cargado.getResumen().toString().equals(servicio.getResumen().toString()),
+                "el resumen cambió al cargar:\n" + cargado.getResumen() + "\nen vez de\n" + servicio.getResumen());
+        for (Cliente cliente : servicio.getClientes()) {
+            Verificaciones.comprobar(cargado.describirCliente(cliente.getDni()).equals(servicio.describirCliente(cliente.getDni())),
+                    "la ficha del cliente " + cliente.getDni() + " cambió al cargar");
+        }
+        Verificaciones.comprobar(ids(cargado.getConsultas()).equals(ids(servicio.getConsultas())),
+                "las consultas cambiaron de orden o se perdieron");
+        Consulta deGatoDadoDeBaja = cargado.getConsultas().get(13);
+        Verificaciones.comprobar(deGatoDadoDeBaja.getMascota().getNombre().equals("Gato4")
+                        && cargado.buscarConsultasPorMascota(deGatoDadoDeBaja.getMascota()).size() == 1,
+                "el índice por mascota no incluye a la mascota dada de baja");
+        Tarea tarea = cargado.buscarAdministrativoPorDni("A1").buscarTarea("Ordenar fichas");
+        Verificaciones.comprobar(tarea != null && tarea.estaCompletada()
+                        && tarea.getFechaCompletada().equals(servicio.buscarAdministrativoPorDni("A1")
+                        .buscarTarea("Ordenar fichas").getFechaCompletada()),
+                "la tarea completada no conservó su estado y su fecha");
+        try (VistaConsistente vista = cargado.abrirVista()) {
+            Verificaciones.comprobar(contar(vista.getConsultas()) == 60, "la vista no ve las 60 consultas cargadas");
+            Verificaciones.comprobar(contar(vista.getClientes()) == 20, "la vista no ve los 20 clientes cargados");
+        }
+
+        // Los cambios posteriores a la carga llegan a los índices y al historial de versiones
+        cargado.agregarMascota("C0", new Perro("Nuevo", 1, "Mestizo", "Pequeño"));
+        cargado.crearConsulta("C0", "Nuevo", "V0", "Control", "Sano");
+        Verificaciones.comprobar(cargado.getResumen().getMascotas() == servicio.getResumen().getMascotas() + 1,
+                "el alta posterior a la carga no actualizó el resumen");
+        try (VistaConsistente vista = cargado.abrirVista()) {
+            Verificaciones.comprobar(contar(vista.getConsultas()) == 61, "la vista no ve la consulta posterior a la carga");
+        }
+        System.out.println("Instantánea cargada en bloque igual al estado compactado: OK");
+    }
+
+    private static List<Integer> ids(List<Consulta> consultas) {
+        List<Integer> ids = new ArrayList<>(consultas.size());
+        for (Consulta consulta : consultas) {
+            ids.add(consulta.getId());
+        }
+        return ids;
+    }
+
+    private static int contar(Iterable<?> elementos) {
+        int cantidad = 0;
+        for (Object ignorado : elementos) {
+            cantidad++;
+        }
+        return cantidad;
+    }
+}
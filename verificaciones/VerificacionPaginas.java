@@ -0,0 +1,133 @@
+package com.veterinaria.verificaciones;
+
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.Mascota;
+import com.veterinaria.modelo.Perro;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.servicio.Pagina;
+import com.veterinaria.servicio.VeterinariaService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Verifica que recorrer un listado con cursores no repita ni salte elementos
+ * aunque entre una página y la siguiente se agreguen, eliminen o reasignen
+ * elementos, incluido el último que se mostró.
+ */
+final class VerificacionPaginas {
+    private VerificacionPaginas() {
+    }
+
+    static void ejecutar() {
+        mascotasConAltasYBajas();
+        consultasReasignadas();
+        clientesAgregadosAlPaginar();
+    }
+
+    private static void mascotasConAltasYBajas() {
+        VeterinariaService servicio = new VeterinariaService();
+        servicio.agregarCliente(new Cliente("Ana", "Pérez", "1", "555-0001", "ana@correo.com"));
+        for (int i = 0; i < 10; i++) {
+            servicio.agregarMascota("1", new Perro("Perro" + i, 3, "Mestizo", "Mediano"));
+        }
+
+        List<String> vistas = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            Pagina<Mascota> pagina = servicio.paginaMascotas("1", cursor, 3);
+            for (Mascota mascota : pagina.getElementos()) {
+                vistas.add(mascota.getNombre());
+            }
+            cursor = pagina.getSiguienteCursor();
+            if (paginas++ == 0) {
+                // Se da de baja la mascota donde quedó el cursor y otra más adelante
+                servicio.eliminarMascota("1", "Perro2");
+                servicio.eliminarMascota("1", "Perro4");
+                servicio.agregarMascota("1", new Perro("Nuevo", 1, "Mestizo", "Pequeño"));
+            }
+        } while (cursor != null);
+
+        List<String> esperadas = Arrays.asList("Perro0", "Perro1", "Perro2", "Perro3", "Perro5", "Perro6",
+                "Perro7", "Perro8", "Perro9", "Nuevo");
+        Verificaciones.comprobar(vistas.equals(esperadas),
+                "las páginas de mascotas mostraron " + vistas + " en vez de " + esperadas);
+        Verificaciones.comprobar(paginas == 4, "se esperaban 4 páginas de mascotas y hubo " + paginas);
+        System.out.println("Páginas de mascotas con altas y bajas entre páginas: OK");
+    }
+
+    private static void consultasReasignadas() {
+        VeterinariaService servicio = new VeterinariaService();
+        Veterinario primero = new Veterinario("Luis", "Gómez", "V1", "555-0002", "luis@correo.com", "Clínica");
+        Veterinario segundo = new Veterinario("Eva", "Ruiz", "V2", "555-0003", "eva@correo.com", "Cirugía");
+        servicio.agregarVeterinario(primero);
+        servicio.agregarVeterinario(segundo);
+        servicio.agregarCliente(new Cliente("Ana", "Pérez", "1", "555-0001", "ana@correo.com"));
+        servicio.agregarMascota("1", new Perro("Rex", 3, "Mestizo", "Mediano"));
+        List<Consulta> creadas = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            creadas.add(servicio.crearConsulta("1", "Rex", i == 0 ? "V2" : "V1", "Tratamiento " + i, "Sano"));
+        }
+
+        List<Integer> vistas = new ArrayList<>();
+        String cursor = null;
+        boolean primeraPagina = true;
+        Consulta nueva = null;
+        do {
+            Pagina<Consulta> pagina = servicio.paginaConsultasPorVeterinario("V1", cursor, 4);
+            for (Consulta consulta : pagina.getElementos()) {
+                vistas.add(consulta.getId());
+            }
+            cursor = pagina.getSiguienteCursor();
+            if (primeraPagina) {
+                primeraPagina = false;
+                // Una consulta pendiente pasa a otro veterinario, una anterior al cursor
+                // llega a este y se registra una nueva
+                creadas.get(6).setVeterinario(segundo);
+                creadas.get(0).setVeterinario(primero);
+                nueva = servicio.crearConsulta("1", "Rex", "V1", "Control", "Sano");
+            }
+        } while (cursor != null);
+
+        List<Integer> esperadas = new ArrayList<>();
+        for (int i = 1; i < 10; i++) {
+            if (i != 6) {
+                esperadas.add(creadas.get(i).getId());
+            }
+        }
+        esperadas.add(nueva.getId());
+        Verificaciones.comprobar(vistas.equals(esperadas),
+                "las páginas de consultas mostraron " + vistas + " en vez de " + esperadas);
+
+        // Un recorrido nuevo ya ve la consulta reasignada en su lugar de registro
+        Pagina<Consulta> desdeElPrincipio = servicio.paginaConsultasPorVeterinario("V1", null, 1);
+        Verificaciones.comprobar(desdeElPrincipio.getElementos().get(0) == creadas.get(0),
+                "la consulta reasignada no quedó en su lugar de registro");
+        System.out.println("Páginas de consultas con reasignaciones entre páginas: OK");
+    }
+
+    private static void clientesAgregadosAlPaginar() {
+        VeterinariaService servicio = new VeterinariaService();
+        for (int i = 0; i < 6; i++) {
+            servicio.agregarCliente(new Cliente("Cliente" + i, "Apellido", "C" + i, "555-2000",
+                    "cliente" + i + "@correo.com"));
+        }
+
+        List<String> vistos = new ArrayList<>();
+        Pagina<Cliente> pagina = servicio.paginaClientes(null, 3);
+        pagina.getElementos().forEach(cliente -> vistos.add(cliente.getDni()));
+        servicio.agregarCliente(new Cliente("Cliente6", "Apellido", "C6", "555-2000", "cliente6@correo.com"));
+        while (pagina.hayMas()) {
+            pagina = servicio.paginaClientes(pagina.getSiguienteCursor(), 3);
+            pagina.getElementos().forEach(cliente -> vistos.add(cliente.getDni()));
+        }
+
+        List<String> esperados = Arrays.asList("C0", "C1", "C2", "C3", "C4", "C5", "C6");
+        Verificaciones.comprobar(vistos.equals(esperados),
+                "las páginas de clientes mostraron " + vistos + " en vez de " + esperados);
+        System.out.println("Páginas de clientes con altas entre páginas: OK");
+    }
+}
@@ -0,0 +1,180 @@
+package com.veterinaria.verificaciones;
+
+import com.veterinaria.modelo.Administrativo;
+import com.veterinaria.modelo.Cliente;
+import com.veterinaria.modelo.Consulta;
+import com.veterinaria.modelo.EstadoTarea;
+import com.veterinaria.modelo.Perro;
+import com.veterinaria.modelo.Tarea;
+import com.veterinaria.modelo.Veterinario;
+import com.veterinaria.servicio.VeterinariaService;
+import com.veterinaria.servicio.VistaConsistente;
+import com.veterinaria.servicio.VistaConsistente.FichaCliente;
+import com.veterinaria.servicio.VistaConsistente.FichaConsulta;
+import com.veterinaria.servicio.VistaConsistente.FichaTarea;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Verifica que una vista abierta no cambie con lo que se registra después,
+ * y que las vistas abiertas mientras otras terminales escriben muestren
+ * siempre un estado completo: consultas con sus relaciones resueltas, cambios
+ * de varios campos enteros y recorridos que no cambian al repetirlos.
+ */
+final class VerificacionVistas {
+    private static final int ESCRITORES = 4;
+    private static final int CLIENTES_POR_ESCRITOR = 300;
+
+    private VerificacionVistas() {
+    }
+
+    static void ejecutar() throws Exception {
+        vistaFija();
+        vistasDuranteEscrituras();
+    }
+
+    private static void vistaFija() {
+        VeterinariaService servicio = new VeterinariaService();
+        servicio.agregarVeterinario(new Veterinario("Luis", "Gómez", "V1", "555-0002", "luis@correo.com", "Clínica"));
+        servicio.agregarCliente(new Cliente("Ana", "Pérez", "1", "555-0001", "ana@correo.com"));
+        servicio.agregarMascota("1", new Perro("Rex", 3, "Mestizo", "Mediano"));
+        Consulta consulta = servicio.crearConsulta("1", "Rex", "V1", "Vacuna", "Sano");
+        servicio.agregarAdministrativo(new Administrativo("Adm", "Apellido", "A1", "555-3000",
+                "adm@correo.com", "Recepción"));
+        servicio.agregarTarea("A1", new Tarea("Ordenar fichas"));
+
+        VistaConsistente vista = servicio.abrirVista();
+        servicio.buscarClientePorDni("1").setTelefono("555-9999");
+        servicio.agregarMascota("1", new Perro("Toby", 1, "Mestizo", "Pequeño"));
+        consulta.setDiagnostico("Control en un mes");
+        servicio.crearConsulta("1", "Toby", "V1", "Vacuna", "Sano");
+        servicio.completarTarea("A1", "Ordenar fichas");
+
+        try (vista) {
+            FichaCliente cliente = vista.getClientes().iterator().next();
+            Verificaciones.comprobar(cliente.getTelefono().equals("555-0001")
+                            && vista.getMascotas(cliente).size() == 1,
+                    "la vista abierta antes ve el teléfono o la mascota nuevos del cliente");
+            List<FichaConsulta> consultas = listar(vista.getConsultas());
+            Verificaciones.comprobar(consultas.size() == 1 && consultas.get(0).getDiagnostico().equals("Sano"),
+                    "la vista abierta antes ve la consulta nueva o el diagnóstico cambiado");
+            FichaTarea tarea = vista.getTareas().iterator().next();
+            Verificaciones.comprobar(tarea.getEstado() == EstadoTarea.PENDIENTE,
+                    "la vista abierta antes ve la tarea completada");
+        }
+        try (VistaConsistente nueva = servicio.abrirVista()) {
+            FichaCliente cliente = nueva.getClientes().iterator().next();
+            Verificaciones.comprobar(cliente.getTelefono().equals("555-9999")
+                            && nueva.getMascotas(cliente).size() == 2
+                            && listar(nueva.getConsultas()).size() == 2
+                            && nueva.getTareas().iterator().next().getEstado() == EstadoTarea.COMPLETADA,
+                    "una vista nueva no ve los cambios registrados");
+        }
+
+        boolean rechazada = false;
+        try {
+            vista.getClientes();
+        } catch (IllegalStateException e) {
+            rechazada = true;
+        }
+        Verificaciones.comprobar(rechazada, "una vista cerrada se pudo seguir recorriendo");
+        System.out.println("Vista fija ante los cambios posteriores a abrirla: OK");
+    }
+
+    private static void vistasDuranteEscrituras() throws Exception {
+        VeterinariaService servicio = new VeterinariaService();
+        servicio.agregarVeterinario(new Veterinario("Luis", "Gómez", "V1", "555-0002", "luis@correo.com", "Clínica"));
+
+        AtomicBoolean terminado = new AtomicBoolean();
+        ExecutorService terminales = Executors.newFixedThreadPool(ESCRITORES + 1);
+        try {
+            List<Future<?>> escritores = new ArrayList<>();
+            for (int e = 0; e < ESCRITORES; e++) {
+                int escritor = e;
+                escritores.add(terminales.submit(() -> {
+                    for (int i = 0; i < CLIENTES_POR_ESCRITOR; i++) {
+                        String dni = escritor + "-" + i;
+                        servicio.agregarCliente(new Cliente("Cliente" + i, "Apellido", dni, "555-2000",
+                                "cliente" + i + "@correo.com"));
+                        servicio.agregarMascota(dni, new Perro("Rex", 3, "Mestizo", "Mediano"));
+                        Consulta consulta = servicio.crearConsulta(dni, "Rex", "V1", "Tratamiento 0", "Diagnóstico 0");
+                        // Tratamiento y diagnóstico cambian juntos; una vista nunca debe verlos desparejos
+                        for (int k = 1; k <= 3; k++) {
+                            consulta.actualizarSiVersion(consulta.getVersion(), "Tratamiento " + k, "Diagnóstico " + k);
+                        }
+                        if (i % 3 == 0) {
+                            servicio.eliminarMascota(dni, "Rex");
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            Future<String> lector = terminales.submit(() -> {
+                int anteriores = 0;
+                int vistas = 0;
+                while (!terminado.get() || vistas == 0) {
+                    try (VistaConsistente vista = servicio.abrirVista()) {
+                        int consultas = 0;
+                        for (FichaConsulta ficha : vista.getConsultas()) {
+                            if (vista.getCliente(ficha) == null || vista.getMascota(ficha) == null
+                                    || vista.getVeterinario(ficha) == null) {
+                                return "la consulta " + ficha.getId() + " no resuelve sus relaciones";
+                            }
+                            String tratamiento = ficha.getTratamiento();
+                            String diagnostico = ficha.getDiagnostico();
+                            if (!tratamiento.substring("Tratamiento ".length())
+                                    .equals(diagnostico.substring("Diagnóstico ".length()))) {
+                                return "la consulta " + ficha.getId() + " muestra " + tratamiento + " con " + diagnostico;
+                            }
+                            consultas++;
+                        }
+                        int repetidas = listar(vista.getConsultas()).size();
+                        if (repetidas != consultas) {
+                            return "la misma vista mostró " + consultas + " consultas y luego " + repetidas;
+                        }
+                        if (consultas < anteriores) {
+                            return "una vista más nueva mostró " + consultas + " consultas y la anterior " + anteriores;
+                        }
+                        anteriores = consultas;
+                        vistas++;
+                    }
+                }
+                return null;
+            });
+
+            try {
+                for (Future<?> escritor : escritores) {
+                    escritor.get();
+                }
+            } finally {
+                terminado.set(true);
+            }
+            String error = lector.get();
+            Verificaciones.comprobar(error == null, "vista inconsistente durante las escrituras: " + error);
+        } finally {
+            terminales.shutdown();
+        }
+
+        try (VistaConsistente vista = servicio.abrirVista()) {
+            int total = ESCRITORES * CLIENTES_POR_ESCRITOR;
+            Verificaciones.comprobar(listar(vista.getConsultas()).size() == total
+                            && listar(vista.getClientes()).size() == total,
+                    "la vista final no ve las " + total + " consultas y clientes registrados");
+        }
+        System.out.println("Vistas consistentes mientras otras terminales escriben: OK");
+    }
+
+    private static <T> List<T> listar(Iterable<T> elementos) {
+        List<T> lista = new ArrayList<>();
+        for (T elemento : elementos) {
+            lista.add(elemento);
+        }
+        return lista;
+    }
+}
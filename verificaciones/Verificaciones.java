@@ -0,0 +1,33 @@
+package com.veterinaria.verificaciones;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Ejecuta todas las verificaciones de regresión sobre un directorio de trabajo.
+ * Termina con código 1 si alguna comprobación falla.
+ */
+public final class Verificaciones {
+    private Verificaciones() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path directorio = Paths.get(args.length > 0 ? args[0] : "build/verificaciones-datos");
+        Files.createDirectories(directorio);
+        VerificacionInstantanea.ejecutar(directorio);
+        VerificacionDiario.ejecutar(directorio);
+        VerificacionPaginas.ejecutar();
+        VerificacionCerrojos.ejecutar();
+        VerificacionVistas.ejecutar();
+        VerificacionEventos.ejecutar(directorio);
+    }
+
+    static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            System.err.println("Verificación fallida: " + mensaje);
+            System.exit(1);
+        }
+    }
+}